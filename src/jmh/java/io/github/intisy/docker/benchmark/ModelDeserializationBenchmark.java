@@ -0,0 +1,73 @@
+package io.github.intisy.docker.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.github.intisy.docker.model.Container;
+import io.github.intisy.docker.model.ContainerInspect;
+import io.github.intisy.docker.model.ImageInspect;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson binding of the largest model types, using the client's own Gson configuration with its
+ * hand-written model adapters, against plain reflective binding.
+ *
+ * @author Finn Birich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelDeserializationBenchmark {
+    private static final Type CONTAINER_LIST = new TypeToken<List<Container>>() {}.getType();
+
+    @Param({"adapters", "reflective"})
+    private String binding;
+
+    private Gson gson;
+    private String containerInspect;
+    private String imageInspect;
+
+    @State(Scope.Benchmark)
+    public static class ContainerListState {
+        @Param({"100", "1000"})
+        private int containers;
+
+        private String json;
+
+        @Setup
+        public void setUp() {
+            json = Payloads.containerList(containers);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        gson = binding.equals("adapters")
+                ? new DockerHttpClient("unix:///var/run/docker.sock").getGson()
+                : new Gson();
+        containerInspect = Payloads.containerInspect(1);
+        imageInspect = Payloads.imageInspect(1);
+    }
+
+    @Benchmark
+    public List<Container> containerList(ContainerListState state) {
+        return gson.fromJson(state.json, CONTAINER_LIST);
+    }
+
+    @Benchmark
+    public ContainerInspect containerInspect() {
+        return gson.fromJson(containerInspect, ContainerInspect.class);
+    }
+
+    @Benchmark
+    public ImageInspect imageInspect() {
+        return gson.fromJson(imageInspect, ImageInspect.class);
+    }
+}
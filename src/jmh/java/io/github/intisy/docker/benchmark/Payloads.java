@@ -0,0 +1,213 @@
+package io.github.intisy.docker.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Generates realistic Docker Engine API payloads for benchmarks.
+ *
+ * @author Finn Birich
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * A {@code /containers/json} response with the given number of containers.
+     *
+     * @param count the number of containers
+     * @return the JSON array
+     */
+    public static String containerList(int count) {
+        StringBuilder sb = new StringBuilder(count * 1500);
+        sb.append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(container(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    public static String container(int i) {
+        String id = id(i);
+        return "{\"Id\":\"" + id + "\","
+                + "\"Names\":[\"/service-" + i + "\"],"
+                + "\"Image\":\"registry.example.com/team/service:1." + (i % 7) + "\","
+                + "\"ImageID\":\"sha256:" + id(i % 7) + "\","
+                + "\"Command\":\"/docker-entrypoint.sh nginx -g 'daemon off;'\","
+                + "\"Created\":" + (1700000000L + i) + ","
+                + "\"Ports\":[{\"IP\":\"0.0.0.0\",\"PrivatePort\":80,\"PublicPort\":" + (30000 + i % 1000) + ",\"Type\":\"tcp\"},"
+                + "{\"PrivatePort\":443,\"Type\":\"tcp\"}],"
+                + "\"Labels\":" + labels(i) + ","
+                + "\"State\":\"" + (i % 5 == 0 ? "exited" : "running") + "\","
+                + "\"Status\":\"Up " + (i % 48) + " hours\","
+                + "\"HostConfig\":{\"NetworkMode\":\"app-network\"},"
+                + "\"NetworkSettings\":{\"Networks\":{\"app-network\":{\"IPAMConfig\":null,\"Links\":null,\"Aliases\":null,"
+                + "\"NetworkID\":\"" + id(9999) + "\",\"EndpointID\":\"" + id(i + 50000) + "\","
+                + "\"Gateway\":\"172.18.0.1\",\"IPAddress\":\"172.18." + (i / 250) + "." + (i % 250 + 2) + "\","
+                + "\"IPPrefixLen\":16,\"IPv6Gateway\":\"\",\"GlobalIPv6Address\":\"\",\"GlobalIPv6PrefixLen\":0,"
+                + "\"MacAddress\":\"02:42:ac:12:00:" + String.format(Locale.ROOT, "%02x", i % 256) + "\",\"DriverOpts\":null}}},"
+                + "\"Mounts\":[{\"Type\":\"volume\",\"Name\":\"data-" + i + "\",\"Source\":\"/var/lib/docker/volumes/data-" + i + "/_data\","
+                + "\"Destination\":\"/data\",\"Driver\":\"local\",\"Mode\":\"z\",\"RW\":true,\"Propagation\":\"\"},"
+                + "{\"Type\":\"bind\",\"Source\":\"/etc/app/config\",\"Destination\":\"/config\",\"Mode\":\"ro\",\"RW\":false,\"Propagation\":\"rprivate\"}]}";
+    }
+
+    /**
+     * A {@code /containers/{id}/json} response.
+     *
+     * @param i the container index
+     * @return the JSON object
+     */
+    public static String containerInspect(int i) {
+        String id = id(i);
+        StringBuilder env = new StringBuilder();
+        for (int e = 0; e < 20; e++) {
+            if (e > 0) {
+                env.append(',');
+            }
+            env.append("\"APP_SETTING_").append(e).append("=value-").append(e).append("-").append(i).append('"');
+        }
+        return "{\"Id\":\"" + id + "\",\"Created\":\"2024-03-14T09:26:53.589793238Z\","
+                + "\"Path\":\"/docker-entrypoint.sh\",\"Args\":[\"nginx\",\"-g\",\"daemon off;\"],"
+                + "\"State\":{\"Status\":\"running\",\"Running\":true,\"Paused\":false,\"Restarting\":false,"
+                + "\"OOMKilled\":false,\"Dead\":false,\"Pid\":" + (4000 + i) + ",\"ExitCode\":0,\"Error\":\"\","
+                + "\"StartedAt\":\"2024-03-14T09:26:54.123456789Z\",\"FinishedAt\":\"0001-01-01T00:00:00Z\"},"
+                + "\"Image\":\"sha256:" + id(i % 7) + "\","
+                + "\"ResolvConfPath\":\"/var/lib/docker/containers/" + id + "/resolv.conf\","
+                + "\"HostnamePath\":\"/var/lib/docker/containers/" + id + "/hostname\","
+                + "\"HostsPath\":\"/var/lib/docker/containers/" + id + "/hosts\","
+                + "\"LogPath\":\"/var/lib/docker/containers/" + id + "/" + id + "-json.log\","
+                + "\"Name\":\"/service-" + i + "\",\"RestartCount\":0,\"Driver\":\"overlay2\",\"Platform\":\"linux\","
+                + "\"MountLabel\":\"\",\"ProcessLabel\":\"\",\"AppArmorProfile\":\"docker-default\",\"ExecIDs\":null,"
+                + "\"HostConfig\":{\"Binds\":[\"/etc/app/config:/config:ro\"],\"NetworkMode\":\"app-network\","
+                + "\"PortBindings\":{\"80/tcp\":[{\"HostIp\":\"\",\"HostPort\":\"" + (30000 + i % 1000) + "\"}]},"
+                + "\"RestartPolicy\":{\"Name\":\"unless-stopped\",\"MaximumRetryCount\":0},\"AutoRemove\":false,"
+                + "\"CapAdd\":null,\"CapDrop\":null,\"Dns\":[],\"DnsSearch\":[],\"ExtraHosts\":null,\"IpcMode\":\"private\","
+                + "\"Privileged\":false,\"PublishAllPorts\":false,\"ShmSize\":67108864,\"Runtime\":\"runc\","
+                + "\"Memory\":536870912,\"MemorySwap\":1073741824,\"CpuShares\":0,\"CpuPeriod\":0,\"CpuQuota\":0},"
+                + "\"Config\":{\"Hostname\":\"" + id.substring(0, 12) + "\",\"Domainname\":\"\",\"User\":\"\","
+                + "\"AttachStdin\":false,\"AttachStdout\":true,\"AttachStderr\":true,"
+                + "\"ExposedPorts\":{\"80/tcp\":{},\"443/tcp\":{}},\"Tty\":false,\"OpenStdin\":false,\"StdinOnce\":false,"
+                + "\"Env\":[" + env + "],\"Cmd\":[\"nginx\",\"-g\",\"daemon off;\"],"
+                + "\"Image\":\"registry.example.com/team/service:1." + (i % 7) + "\",\"Volumes\":{\"/data\":{}},"
+                + "\"WorkingDir\":\"/app\",\"Entrypoint\":[\"/docker-entrypoint.sh\"],\"Labels\":" + labels(i) + ","
+                + "\"StopSignal\":\"SIGQUIT\"},"
+                + "\"NetworkSettings\":{\"Bridge\":\"\",\"SandboxID\":\"" + id(i + 70000) + "\",\"HairpinMode\":false,"
+                + "\"LinkLocalIPv6Address\":\"\",\"LinkLocalIPv6PrefixLen\":0,"
+                + "\"Ports\":{\"443/tcp\":null,\"80/tcp\":[{\"HostIp\":\"0.0.0.0\",\"HostPort\":\"" + (30000 + i % 1000) + "\"},"
+                + "{\"HostIp\":\"::\",\"HostPort\":\"" + (30000 + i % 1000) + "\"}]},"
+                + "\"SandboxKey\":\"/var/run/docker/netns/" + id.substring(0, 12) + "\","
+                + "\"SecondaryIPAddresses\":null,\"SecondaryIPv6Addresses\":null,\"EndpointID\":\"\",\"Gateway\":\"\","
+                + "\"GlobalIPv6Address\":\"\",\"GlobalIPv6PrefixLen\":0,\"IPAddress\":\"\",\"IPPrefixLen\":0,"
+                + "\"IPv6Gateway\":\"\",\"MacAddress\":\"\","
+                + "\"Networks\":{\"app-network\":{\"IPAMConfig\":null,\"Links\":null,\"Aliases\":[\"service-" + i + "\"],"
+                + "\"NetworkID\":\"" + id(9999) + "\",\"EndpointID\":\"" + id(i + 50000) + "\",\"Gateway\":\"172.18.0.1\","
+                + "\"IPAddress\":\"172.18." + (i / 250) + "." + (i % 250 + 2) + "\",\"IPPrefixLen\":16,"
+                + "\"MacAddress\":\"02:42:ac:12:00:02\"}}},"
+                + "\"Mounts\":[{\"Type\":\"volume\",\"Name\":\"data-" + i + "\","
+                + "\"Source\":\"/var/lib/docker/volumes/data-" + i + "/_data\",\"Destination\":\"/data\","
+                + "\"Driver\":\"local\",\"Mode\":\"z\",\"RW\":true,\"Propagation\":\"\"}]}";
+    }
+
+    /**
+     * A {@code /images/{name}/json} response.
+     *
+     * @param i the image index
+     * @return the JSON object
+     */
+    public static String imageInspect(int i) {
+        StringBuilder layers = new StringBuilder();
+        for (int l = 0; l < 12; l++) {
+            if (l > 0) {
+                layers.append(',');
+            }
+            layers.append("\"sha256:").append(id(i * 100 + l)).append('"');
+        }
+        return "{\"Id\":\"sha256:" + id(i) + "\","
+                + "\"RepoTags\":[\"registry.example.com/team/service:1." + i + "\",\"registry.example.com/team/service:latest\"],"
+                + "\"RepoDigests\":[\"registry.example.com/team/service@sha256:" + id(i + 1000) + "\"],"
+                + "\"Parent\":\"\",\"Comment\":\"buildkit.dockerfile.v0\",\"Created\":\"2024-03-01T12:00:00.123456789Z\","
+                + "\"Container\":\"\",\"DockerVersion\":\"24.0.7\",\"Author\":\"\","
+                + "\"Config\":{\"Hostname\":\"\",\"Domainname\":\"\",\"User\":\"app\",\"AttachStdin\":false,"
+                + "\"AttachStdout\":false,\"AttachStderr\":false,\"ExposedPorts\":{\"80/tcp\":{},\"443/tcp\":{}},"
+                + "\"Tty\":false,\"OpenStdin\":false,\"StdinOnce\":false,"
+                + "\"Env\":[\"PATH=/usr/local/sbin:/usr/local/bin:/usr/sbin:/usr/bin:/sbin:/bin\",\"NGINX_VERSION=1.25.4\","
+                + "\"NJS_VERSION=0.8.3\",\"PKG_RELEASE=1\"],"
+                + "\"Cmd\":[\"nginx\",\"-g\",\"daemon off;\"],\"Image\":\"\",\"Volumes\":null,\"WorkingDir\":\"/app\","
+                + "\"Entrypoint\":[\"/docker-entrypoint.sh\"],\"Labels\":" + labels(i) + ",\"StopSignal\":\"SIGQUIT\"},"
+                + "\"Architecture\":\"amd64\",\"Os\":\"linux\",\"Size\":" + (187000000L + i) + ","
+                + "\"VirtualSize\":" + (187000000L + i) + ","
+                + "\"RootFS\":{\"Type\":\"layers\",\"Layers\":[" + layers + "]},"
+                + "\"Metadata\":{\"LastTagTime\":\"2024-03-02T08:15:30.987654321Z\"}}";
+    }
+
+    /**
+     * Wrap a payload in an HTTP/1.1 response using chunked transfer encoding.
+     *
+     * @param body the response body
+     * @param chunkSize the size of each chunk in bytes
+     * @return the raw HTTP response bytes
+     */
+    public static byte[] chunkedResponse(String body, int chunkSize) {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder(data.length + data.length / chunkSize * 8 + 128);
+        sb.append("HTTP/1.1 200 OK\r\n")
+                .append("Api-Version: 1.44\r\n")
+                .append("Content-Type: application/json\r\n")
+                .append("Docker-Experimental: false\r\n")
+                .append("Ostype: linux\r\n")
+                .append("Server: Docker/24.0.7 (linux)\r\n")
+                .append("Transfer-Encoding: chunked\r\n\r\n");
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, data.length - offset);
+            sb.append(Integer.toHexString(length)).append("\r\n")
+                    .append(new String(data, offset, length, StandardCharsets.ISO_8859_1)).append("\r\n");
+        }
+        sb.append("0\r\n\r\n");
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * A log stream in Docker's multiplexed format (8-byte header per frame).
+     *
+     * @param lines the number of log lines
+     * @return the raw multiplexed log bytes
+     */
+    public static byte[] multiplexedLogs(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 120);
+        for (int i = 0; i < lines; i++) {
+            String line = "2024-03-14T09:26:54." + String.format(Locale.ROOT, "%09d", i)
+                    + "Z 172.18.0.1 - - \"GET /api/items/" + i + " HTTP/1.1\" 200 " + (512 + i % 100) + "\n";
+            byte[] payload = line.getBytes(StandardCharsets.UTF_8);
+            sb.append((char) (i % 10 == 0 ? 2 : 1)).append((char) 0).append((char) 0).append((char) 0)
+                    .append((char) ((payload.length >>> 24) & 0xff))
+                    .append((char) ((payload.length >>> 16) & 0xff))
+                    .append((char) ((payload.length >>> 8) & 0xff))
+                    .append((char) (payload.length & 0xff))
+                    .append(line);
+        }
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String labels(int i) {
+        return "{\"com.docker.compose.project\":\"shop\",\"com.docker.compose.service\":\"service-" + (i % 20) + "\","
+                + "\"com.docker.compose.version\":\"2.24.6\",\"com.docker.compose.oneoff\":\"False\","
+                + "\"org.opencontainers.image.source\":\"https://example.com/team/service\","
+                + "\"team\":\"platform\",\"tier\":\"" + (i % 3 == 0 ? "frontend" : "backend") + "\"}";
+    }
+
+    private static String id(int i) {
+        StringBuilder sb = new StringBuilder(64);
+        long seed = 0x9E3779B97F4A7C15L * (i + 1);
+        while (sb.length() < 64) {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            sb.append(String.format(Locale.ROOT, "%016x", seed));
+        }
+        return sb.substring(0, 64);
+    }
+}
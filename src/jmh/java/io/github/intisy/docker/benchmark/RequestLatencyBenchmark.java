@@ -0,0 +1,62 @@
+package io.github.intisy.docker.benchmark;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.Container;
+import io.github.intisy.docker.model.ContainerInspect;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end request latency through {@link DockerClient} against {@link FakeDockerDaemon} on a unix socket.
+ *
+ * @author Finn Birich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLatencyBenchmark {
+    private static final String CONTAINER_ID = "service-1";
+
+    @Param({"0", "1024"})
+    public int chunkSize;
+
+    private FakeDockerDaemon daemon;
+    private DockerClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        daemon = FakeDockerDaemon.builder()
+                .withContainers(100)
+                .withChunkSize(chunkSize)
+                .start();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        daemon.close();
+    }
+
+    @Benchmark
+    public boolean ping() {
+        return client.ping().exec();
+    }
+
+    @Benchmark
+    public List<Container> listContainers() {
+        return client.listContainers().withShowAll(true).exec();
+    }
+
+    @Benchmark
+    public ContainerInspect inspectContainer() {
+        return client.inspectContainer(CONTAINER_ID).exec();
+    }
+}
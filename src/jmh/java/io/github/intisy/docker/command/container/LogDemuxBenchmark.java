@@ -0,0 +1,36 @@
+package io.github.intisy.docker.command.container;
+
+import io.github.intisy.docker.benchmark.Payloads;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Demultiplexing of stdout/stderr frames in container log output.
+ *
+ * @author Finn Birich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogDemuxBenchmark {
+
+    @Param({"1000", "10000"})
+    private int lines;
+
+    private byte[] logs;
+
+    @Setup
+    public void setUp() {
+        logs = Payloads.multiplexedLogs(lines);
+    }
+
+    @Benchmark
+    public String demux() {
+        return LogsContainerCmd.parseLogOutput(new String(logs, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.intisy.docker.transport;
+
+import io.github.intisy.docker.benchmark.Payloads;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of chunked HTTP responses as received from the daemon.
+ *
+ * @author Finn Birich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkedDecodingBenchmark {
+
+    @Param({"100", "1000"})
+    private int containers;
+
+    @Param({"512", "8192"})
+    private int chunkSize;
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        response = Payloads.chunkedResponse(Payloads.containerList(containers), chunkSize);
+    }
+
+    @Benchmark
+    public DockerResponse decode() throws IOException {
+        return DockerHttpClient.parseHttpResponse(new ByteArrayInputStream(response));
+    }
+}
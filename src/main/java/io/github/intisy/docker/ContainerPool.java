@@ -0,0 +1,287 @@
+package io.github.intisy.docker;
+
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.ContainerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of warm containers created from a single {@link ContainerConfig}.
+ * <p>
+ * Idle containers are either only created (handed out by starting them) or started and
+ * then paused (handed out by unpausing them, which takes milliseconds). The pool is
+ * replenished in the background: after each {@link #acquire()} it fills up to
+ * {@code maxIdle}, and containers idle for longer than the idle timeout are evicted
+ * until only {@code minIdle} remain.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * ContainerConfig config = new ContainerConfig()
+ *     .setImage("alpine:latest")
+ *     .setCmd("sleep", "infinity");
+ * try (ContainerPool pool = ContainerPool.builder(client, config)
+ *         .withMinIdle(2)
+ *         .withMaxIdle(8)
+ *         .withPaused(true)
+ *         .build()) {
+ *     String containerId = pool.acquire();
+ *     // ... use and remove the container
+ * }
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class ContainerPool implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ContainerPool.class);
+
+    private final DockerClient client;
+    private final ContainerConfig config;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long idleTimeoutNanos;
+    private final boolean paused;
+    private final LinkedBlockingDeque<IdleContainer> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+    private volatile boolean closed;
+
+    private ContainerPool(Builder builder) {
+        this.client = builder.client;
+        this.config = builder.config;
+        this.minIdle = builder.minIdle;
+        this.maxIdle = builder.maxIdle;
+        this.idleTimeoutNanos = builder.idleTimeoutUnit.toNanos(builder.idleTimeout);
+        this.paused = builder.paused;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-container-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder(DockerClient client, ContainerConfig config) {
+        return new Builder(client, config);
+    }
+
+    /**
+     * Take a warm container out of the pool, or create and start one if the pool is empty.
+     * The caller owns the returned container and is responsible for removing it.
+     *
+     * @return the ID of a running container
+     */
+    public String acquire() {
+        if (closed) {
+            throw new IllegalStateException("Container pool is closed");
+        }
+        try {
+            IdleContainer container;
+            while ((container = idle.pollLast()) != null) {
+                try {
+                    if (paused) {
+                        client.unpauseContainer(container.id).exec();
+                    } else {
+                        client.startContainer(container.id).exec();
+                    }
+                    log.debug("Handed out pooled container {}", container.id);
+                    return container.id;
+                } catch (DockerException e) {
+                    log.warn("Discarding pooled container {}: {}", container.id, e.getMessage());
+                    remove(container.id);
+                }
+            }
+            log.debug("Container pool empty, creating container on demand");
+            String id = client.createContainer(config).exec().getId();
+            try {
+                client.startContainer(id).exec();
+            } catch (DockerException e) {
+                remove(id);
+                throw e;
+            }
+            return id;
+        } finally {
+            replenish();
+        }
+    }
+
+    /**
+     * Get the number of warm containers currently waiting in the pool.
+     *
+     * @return the idle container count
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    private void replenish() {
+        try {
+            executor.execute(() -> fill(maxIdle));
+        } catch (RejectedExecutionException e) {
+            log.debug("Container pool closed, not replenishing");
+        }
+    }
+
+    private void fill(int target) {
+        while (!closed && idle.size() + pending.get() < target) {
+            pending.incrementAndGet();
+            String id = null;
+            try {
+                id = client.createContainer(config).exec().getId();
+                if (paused) {
+                    client.startContainer(id).exec();
+                    client.pauseContainer(id).exec();
+                }
+                idle.addLast(new IdleContainer(id, System.nanoTime()));
+                log.debug("Added container {} to pool ({} idle)", id, idle.size());
+            } catch (DockerException e) {
+                log.warn("Failed to replenish container pool: {}", e.getMessage());
+                if (id != null) {
+                    remove(id);
+                }
+                return;
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Iterator<IdleContainer> iterator = idle.iterator();
+        while (iterator.hasNext() && idle.size() > minIdle) {
+            IdleContainer container = iterator.next();
+            if (now - container.idleSince > idleTimeoutNanos && idle.remove(container)) {
+                log.debug("Evicting idle container {}", container.id);
+                remove(container.id);
+            }
+        }
+    }
+
+    private void maintain() {
+        try {
+            evict();
+            fill(minIdle);
+        } catch (RuntimeException e) {
+            log.warn("Container pool maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void remove(String containerId) {
+        try {
+            client.removeContainer(containerId).withForce(true).exec();
+        } catch (DockerException e) {
+            log.debug("Failed to remove pooled container {}: {}", containerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Stop replenishing and remove all idle containers. Containers already handed out are left alone.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<IdleContainer> remaining = new ArrayList<>();
+        idle.drainTo(remaining);
+        for (IdleContainer container : remaining) {
+            remove(container.id);
+        }
+    }
+
+    private static class IdleContainer {
+        private final String id;
+        private final long idleSince;
+
+        private IdleContainer(String id, long idleSince) {
+            this.id = id;
+            this.idleSince = idleSince;
+        }
+    }
+
+    public static class Builder {
+        private final DockerClient client;
+        private final ContainerConfig config;
+        private int minIdle = 1;
+        private int maxIdle = 4;
+        private long idleTimeout = 5;
+        private TimeUnit idleTimeoutUnit = TimeUnit.MINUTES;
+        private long maintenanceInterval = 10;
+        private TimeUnit maintenanceIntervalUnit = TimeUnit.SECONDS;
+        private boolean paused = false;
+
+        private Builder(DockerClient client, ContainerConfig config) {
+            this.client = client;
+            this.config = config;
+        }
+
+        /**
+         * Number of warm containers kept even when the pool has been idle for a while.
+          *
+          * @param minIdle the minimum number of idle containers
+          * @return this builder
+         */
+        public Builder withMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        /**
+         * Number of warm containers the pool refills to after containers are handed out.
+          *
+          * @param maxIdle the maximum number of idle containers
+          * @return this builder
+         */
+        public Builder withMaxIdle(int maxIdle) {
+            this.maxIdle = maxIdle;
+            return this;
+        }
+
+        public Builder withIdleTimeout(long idleTimeout, TimeUnit unit) {
+            this.idleTimeout = idleTimeout;
+            this.idleTimeoutUnit = unit;
+            return this;
+        }
+
+        public Builder withMaintenanceInterval(long interval, TimeUnit unit) {
+            this.maintenanceInterval = interval;
+            this.maintenanceIntervalUnit = unit;
+            return this;
+        }
+
+        /**
+         * Start idle containers and pause them, so handing one out is a single unpause call.
+          *
+          * @param paused true to keep idle containers started-then-paused
+          * @return this builder
+         */
+        public Builder withPaused(boolean paused) {
+            this.paused = paused;
+            return this;
+        }
+
+        public ContainerPool build() {
+            if (minIdle < 0 || maxIdle < minIdle) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxIdle);
+            }
+            ContainerPool pool = new ContainerPool(this);
+            long intervalNanos = maintenanceIntervalUnit.toNanos(maintenanceInterval);
+            pool.executor.scheduleWithFixedDelay(pool::maintain, 0, intervalNanos, TimeUnit.NANOSECONDS);
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package io.github.intisy.docker;
+
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.Container;
+import io.github.intisy.docker.model.Event;
+import io.github.intisy.docker.transport.StreamCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory mirror of the daemon's containers, kept current by the events stream.
+ * <p>
+ * The registry opens the events stream first, then loads all containers with
+ * {@code listContainers().withShowAll(true)} before consuming any event, so no change
+ * between the two is lost. Every container event refreshes that single container, and
+ * the stream is reopened with a full resync if it drops.
+ * <p>
+ * Lookups by ID, name and label are answered locally without contacting the daemon:
+ * <pre>{@code
+ * try (ContainerRegistry registry = new ContainerRegistry(client)) {
+ *     registry.start();
+ *     Collection<Container> workers = registry.findByLabel("role", "worker");
+ * }
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class ContainerRegistry implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ContainerRegistry.class);
+    private static final long START_TIMEOUT_SECONDS = 30;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final Set<String> IGNORED_ACTIONS = new HashSet<>(Arrays.asList(
+            "attach", "detach", "resize", "top", "archive-path", "extract-to-dir", "export", "commit", "copy"));
+
+    private final DockerClient client;
+    private final Map<String, Container> byId = new ConcurrentHashMap<>();
+    private final Map<String, String> idByName = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> idsByLabel = new ConcurrentHashMap<>();
+    private final CountDownLatch synced = new CountDownLatch(1);
+    private volatile boolean closed;
+    private volatile Closeable stream;
+    private volatile RuntimeException startFailure;
+    private Thread eventThread;
+
+    public ContainerRegistry(DockerClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Start mirroring and wait until the initial container list has been loaded.
+      *
+      * @throws DockerException if the events stream cannot be opened or the containers cannot be
+      * listed; the registry is closed then
+     */
+    public void start() {
+        synchronized (synced) {
+            if (eventThread == null) {
+                eventThread = new Thread(this::run, "docker-container-registry");
+                eventThread.setDaemon(true);
+                eventThread.start();
+            }
+        }
+        try {
+            if (!synced.await(START_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                close();
+                throw new DockerException("Timed out loading container registry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new DockerException("Interrupted while loading container registry", e);
+        }
+        RuntimeException failure = startFailure;
+        if (failure != null) {
+            close();
+            throw new DockerException("Failed to load container registry: " + failure.getMessage(), failure);
+        }
+    }
+
+    public Container get(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Look up a container by name, with or without the leading slash.
+      *
+      * @param name the container name
+      * @return the container, or null if unknown
+     */
+    public Container getByName(String name) {
+        String id = idByName.get(stripSlash(name));
+        return id != null ? byId.get(id) : null;
+    }
+
+    public Collection<Container> getAll() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Find all containers that carry a label, regardless of its value.
+      *
+      * @param key the label key
+      * @return the matching containers
+     */
+    public List<Container> findByLabel(String key) {
+        Map<String, Set<String>> values = idsByLabel.get(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        List<Container> result = new ArrayList<>();
+        for (Set<String> ids : values.values()) {
+            collect(ids, result);
+        }
+        return result;
+    }
+
+    public List<Container> findByLabel(String key, String value) {
+        Map<String, Set<String>> values = idsByLabel.get(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        Set<String> ids = values.get(value);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<Container> result = new ArrayList<>(ids.size());
+        collect(ids, result);
+        return result;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void collect(Set<String> ids, List<Container> result) {
+        for (String id : ids) {
+            Container container = byId.get(id);
+            if (container != null) {
+                result.add(container);
+            }
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            client.events()
+                    .withTypeFilter("container")
+                    .exec(new StreamCallback<Event>() {
+                        private boolean stale;
+
+                        @Override
+                        public void onStart(Closeable stream) {
+                            ContainerRegistry.this.stream = stream;
+                            if (closed) {
+                                closeStream();
+                            }
+                        }
+
+                        @Override
+                        public void onOpen() {
+                            try {
+                                resync();
+                            } catch (DockerException e) {
+                                // reconnect and list again rather than follow events on stale data
+                                stale = true;
+                                failed(e);
+                                closeStream();
+                                return;
+                            }
+                            synced.countDown();
+                        }
+
+                        @Override
+                        public void onNext(Event event) {
+                            handle(event);
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                            if (!closed && !stale) {
+                                failed(throwable);
+                            }
+                        }
+
+                        @Override
+                        public boolean isCancelled() {
+                            return closed || stale;
+                        }
+                    });
+            stream = null;
+            if (!closed) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                log.debug("Reconnecting container event stream");
+            }
+        }
+    }
+
+    /**
+     * Report a failure of the events stream or the resync. Before the first sync it fails start().
+     */
+    private void failed(Throwable throwable) {
+        log.warn("Container event stream failed: {}", throwable.getMessage());
+        if (synced.getCount() > 0) {
+            startFailure = throwable instanceof RuntimeException
+                    ? (RuntimeException) throwable
+                    : new DockerException(throwable.getMessage(), throwable);
+            closed = true;
+            synced.countDown();
+        }
+    }
+
+    private synchronized void resync() {
+        List<Container> containers = client.listContainers().withShowAll(true).exec();
+        Set<String> seen = new HashSet<>();
+        for (Container container : containers) {
+            put(container);
+            seen.add(container.getId());
+        }
+        for (String id : new ArrayList<>(byId.keySet())) {
+            if (!seen.contains(id)) {
+                remove(id);
+            }
+        }
+        log.debug("Container registry synced ({} containers)", byId.size());
+    }
+
+    private synchronized void handle(Event event) {
+        String action = event.getAction();
+        String id = event.getActor() != null ? event.getActor().getId() : null;
+        if (id == null || action == null || action.startsWith("exec_") || IGNORED_ACTIONS.contains(action)) {
+            return;
+        }
+        if (action.equals("destroy")) {
+            remove(id);
+            return;
+        }
+        try {
+            List<Container> containers = client.listContainers()
+                    .withShowAll(true)
+                    .withFilter("id", id)
+                    .exec();
+            if (containers.isEmpty()) {
+                remove(id);
+            } else {
+                put(containers.get(0));
+            }
+        } catch (DockerException e) {
+            log.debug("Failed to refresh container {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void put(Container container) {
+        remove(container.getId());
+        byId.put(container.getId(), container);
+        if (container.getNames() != null) {
+            for (String name : container.getNames()) {
+                idByName.put(stripSlash(name), container.getId());
+            }
+        }
+        if (container.getLabels() != null) {
+            for (Map.Entry<String, String> label : container.getLabels().entrySet()) {
+                idsByLabel.computeIfAbsent(label.getKey(), k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(label.getValue(), k -> ConcurrentHashMap.newKeySet())
+                        .add(container.getId());
+            }
+        }
+    }
+
+    private void remove(String id) {
+        Container old = byId.remove(id);
+        if (old == null) {
+            return;
+        }
+        if (old.getNames() != null) {
+            for (String name : old.getNames()) {
+                idByName.remove(stripSlash(name), id);
+            }
+        }
+        if (old.getLabels() != null) {
+            for (Map.Entry<String, String> label : old.getLabels().entrySet()) {
+                Map<String, Set<String>> values = idsByLabel.get(label.getKey());
+                if (values == null) {
+                    continue;
+                }
+                Set<String> ids = values.get(label.getValue());
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        values.remove(label.getValue());
+                    }
+                }
+                if (values.isEmpty()) {
+                    idsByLabel.remove(label.getKey());
+                }
+            }
+        }
+    }
+
+    private static String stripSlash(String name) {
+        return name.startsWith("/") ? name.substring(1) : name;
+    }
+
+    /**
+     * Stop following events and close the event stream.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeStream();
+        synchronized (synced) {
+            if (eventThread != null) {
+                eventThread.interrupt();
+            }
+        }
+    }
+
+    private void closeStream() {
+        Closeable current = stream;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.debug("Failed to close container event stream: {}", e.getMessage());
+            }
+        }
+    }
+}
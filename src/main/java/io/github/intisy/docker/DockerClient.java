@@ -5,12 +5,26 @@ import io.github.intisy.docker.command.image.*;
 import io.github.intisy.docker.command.network.*;
 import io.github.intisy.docker.command.system.*;
 import io.github.intisy.docker.command.volume.*;
+import io.github.intisy.docker.metrics.DockerClientMetrics;
+import io.github.intisy.docker.metrics.HistogramDockerClientMetrics;
+import io.github.intisy.docker.model.ContainerConfig;
+import io.github.intisy.docker.model.StringPool;
+import io.github.intisy.docker.transport.BufferPool;
+import io.github.intisy.docker.transport.CircuitBreaker;
 import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerRateLimiter;
+import io.github.intisy.docker.transport.RetryPolicy;
+import io.github.intisy.docker.transport.TlsConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Docker client for communicating with the Docker daemon.
@@ -42,9 +56,11 @@ public class DockerClient implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(DockerClient.class);
     
     private final DockerHttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
 
-    private DockerClient(DockerHttpClient httpClient) {
+    private DockerClient(DockerHttpClient httpClient, CircuitBreaker circuitBreaker) {
         this.httpClient = httpClient;
+        this.circuitBreaker = circuitBreaker;
     }
 
     public static Builder builder() {
@@ -68,6 +84,10 @@ public class DockerClient implements Closeable {
         return new CreateContainerCmd(httpClient, image);
     }
 
+    public CreateContainerCmd createContainer(ContainerConfig config) {
+        return new CreateContainerCmd(httpClient, config);
+    }
+
     public StartContainerCmd startContainer(String containerId) {
         return new StartContainerCmd(httpClient, containerId);
     }
@@ -100,6 +120,10 @@ public class DockerClient implements Closeable {
         return new InspectContainerCmd(httpClient, containerId);
     }
 
+    public InspectContainersCmd inspectContainers(Collection<String> containerIds) {
+        return new InspectContainersCmd(httpClient, containerIds);
+    }
+
     public LogsContainerCmd logs(String containerId) {
         return new LogsContainerCmd(httpClient, containerId);
     }
@@ -108,6 +132,10 @@ public class DockerClient implements Closeable {
         return new WaitContainerCmd(httpClient, containerId);
     }
 
+    public RunContainerCmd runContainer(String image) {
+        return new RunContainerCmd(httpClient, image);
+    }
+
     public ExecCreateCmd execCreate(String containerId) {
         return new ExecCreateCmd(httpClient, containerId);
     }
@@ -188,6 +216,10 @@ public class DockerClient implements Closeable {
         return new PingCmd(httpClient);
     }
 
+    public EventsCmd events() {
+        return new EventsCmd(httpClient);
+    }
+
     public InfoCmd info() {
         return new InfoCmd(httpClient);
     }
@@ -198,6 +230,9 @@ public class DockerClient implements Closeable {
 
     @Override
     public void close() throws IOException {
+        if (circuitBreaker != null) {
+            circuitBreaker.close();
+        }
         if (httpClient != null) {
             httpClient.close();
         }
@@ -206,6 +241,26 @@ public class DockerClient implements Closeable {
     public static class Builder {
         private String dockerHost;
         private int timeout = 30000;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration requestTimeout;
+        private Duration streamIdleTimeout;
+        private boolean tcpNoDelay = true;
+        private int sendBufferSize;
+        private int receiveBufferSize;
+        private TlsConfig tls;
+        private Integer maxIdleConnections;
+        private Duration idleConnectionTimeout;
+        private Integer pipelineDepth;
+        private boolean requestCoalescing = false;
+        private long coalescingCacheTtl = 0;
+        private DockerClientMetrics metrics;
+        private boolean flightRecorderEvents = false;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private StringPool stringPool;
+        private BufferPool bufferPool;
+        private final List<DockerInterceptor> interceptors = new ArrayList<>();
 
         private Builder() {
         }
@@ -220,6 +275,233 @@ public class DockerClient implements Closeable {
             return this;
         }
 
+        /**
+         * How long connecting to the daemon may take. Defaults to the {@link #withTimeout(int) timeout}.
+          *
+          * @param connectTimeout the connect timeout, or {@link Duration#ZERO} for none
+          * @return this builder
+         */
+        public Builder withConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * How long a request may wait for data from the daemon. Defaults to the {@link #withTimeout(int) timeout}.
+          *
+          * @param readTimeout the read timeout, or {@link Duration#ZERO} for none
+          * @return this builder
+         */
+        public Builder withReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * How long a non-streaming request may take in total (default: no limit). Commands can set
+         * their own deadline with {@code withRequestTimeout(Duration)}.
+          *
+          * @param requestTimeout the total timeout, or {@link Duration#ZERO} for none
+          * @return this builder
+         */
+        public Builder withRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * How long a stream such as logs or events may go without data before it fails (default: no limit).
+          *
+          * @param streamIdleTimeout the idle timeout, or {@link Duration#ZERO} for none
+          * @return this builder
+         */
+        public Builder withStreamIdleTimeout(Duration streamIdleTimeout) {
+            this.streamIdleTimeout = streamIdleTimeout;
+            return this;
+        }
+
+        /**
+         * Whether TCP connections send small writes right away (TCP_NODELAY, default: true).
+          *
+          * @param tcpNoDelay whether to disable Nagle's algorithm
+          * @return this builder
+         */
+        public Builder withTcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * Socket buffer sizes of TCP connections (default: system default).
+          *
+          * @param sendBufferSize the send buffer size in bytes, or 0 for the system default
+          * @param receiveBufferSize the receive buffer size in bytes, or 0 for the system default
+          * @return this builder
+         */
+        public Builder withSocketBufferSizes(int sendBufferSize, int receiveBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
+        /**
+         * Connect to a tcp:// daemon over TLS, e.g. with {@link TlsConfig#fromEnvironment()}.
+          *
+          * @param tls the TLS settings
+          * @return this builder
+         */
+        public Builder withTls(TlsConfig tls) {
+            this.tls = tls;
+            return this;
+        }
+
+        /**
+         * How many idle connections to keep open for reuse (default: 8).
+          *
+          * @param maxIdleConnections the number of idle connections, or 0 to connect for every request
+          * @return this builder
+         */
+        public Builder withMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * How long an idle connection is kept open for reuse (default: 30 seconds).
+          *
+          * @param idleConnectionTimeout the idle time
+          * @return this builder
+         */
+        public Builder withIdleConnectionTimeout(Duration idleConnectionTimeout) {
+            this.idleConnectionTimeout = idleConnectionTimeout;
+            return this;
+        }
+
+        /**
+         * How many requests of a batch, such as {@link DockerClient#inspectContainers(Collection)},
+         * to pipeline on one connection (default: 16).
+          *
+          * @param pipelineDepth the number of pipelined requests, or 1 to send batches as concurrent requests
+          * @return this builder
+         */
+        public Builder withPipelineDepth(int pipelineDepth) {
+            this.pipelineDepth = pipelineDepth;
+            return this;
+        }
+
+        /**
+         * Share one daemon request among identical concurrent GET calls.
+          *
+          * @param enabled whether to coalesce identical concurrent GET requests
+          * @return this builder
+         */
+        public Builder withRequestCoalescing(boolean enabled) {
+            this.requestCoalescing = enabled;
+            return this;
+        }
+
+        /**
+         * Reuse successful coalesced GET responses for a short time. Implies request coalescing.
+          *
+          * @param cacheTtlMs how long to reuse a response, in milliseconds
+          * @return this builder
+         */
+        public Builder withCoalescingCacheTtl(long cacheTtlMs) {
+            this.requestCoalescing = true;
+            this.coalescingCacheTtl = cacheTtlMs;
+            return this;
+        }
+
+        /**
+         * Report every daemon request to a metrics sink, e.g. {@link HistogramDockerClientMetrics}.
+          *
+          * @param metrics the metrics sink
+          * @return this builder
+         */
+        public Builder withMetrics(DockerClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Emit a Java Flight Recorder event for every daemon request and stream, on Java 11+
+         * (default: false). Pulls and daemon startups are recorded regardless.
+          *
+          * @param enabled whether to emit request and stream events
+          * @return this builder
+         */
+        public Builder withFlightRecorderEvents(boolean enabled) {
+            this.flightRecorderEvents = enabled;
+            return this;
+        }
+
+        /**
+         * Add an interceptor that is called around every daemon request, in the order added.
+          *
+          * @param interceptor the interceptor
+          * @return this builder
+         */
+        public Builder withInterceptor(DockerInterceptor interceptor) {
+            this.interceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Limit the request rate and concurrency toward the daemon.
+          *
+          * @param rateLimiter the rate limiter
+          * @return this builder
+         */
+        public Builder withRateLimiter(DockerRateLimiter rateLimiter) {
+            return withInterceptor(rateLimiter);
+        }
+
+        /**
+         * Retry transient failures such as a restarting daemon; see {@link RetryPolicy}.
+          *
+          * @param retryPolicy the retry policy
+          * @return this builder
+         */
+        public Builder withRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Fail requests fast while the daemon is unreachable, probing it with pings in the background.
+          *
+          * @param circuitBreaker the circuit breaker, closed together with the client
+          * @return this builder
+         */
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Deduplicate repeating strings of listed containers, images, networks and volumes, to
+         * reduce the heap retained by large cached lists. A pool may be shared between clients.
+          *
+          * @param stringPool the string pool
+          * @return this builder
+         */
+        public Builder withStringPool(StringPool stringPool) {
+            this.stringPool = stringPool;
+            return this;
+        }
+
+        /**
+         * Read responses into buffers from this pool, e.g. to size it for many threads or to watch
+         * its hit rate (default: {@link BufferPool#shared()}).
+          *
+          * @param bufferPool the buffer pool
+          * @return this builder
+         */
+        public Builder withBufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
         public DockerClient build() {
             if (dockerHost == null) {
                 String os = System.getProperty("os.name").toLowerCase();
@@ -231,7 +513,46 @@ public class DockerClient implements Closeable {
             }
             log.debug("Building DockerClient for host: {}", dockerHost);
             DockerHttpClient httpClient = new DockerHttpClient(dockerHost, timeout);
-            return new DockerClient(httpClient);
+            httpClient.setRequestCoalescing(requestCoalescing, coalescingCacheTtl);
+            if (connectTimeout != null) {
+                httpClient.setConnectTimeout((int) connectTimeout.toMillis());
+            }
+            if (readTimeout != null) {
+                httpClient.setReadTimeout((int) readTimeout.toMillis());
+            }
+            if (requestTimeout != null) {
+                httpClient.setRequestTimeout((int) requestTimeout.toMillis());
+            }
+            if (streamIdleTimeout != null) {
+                httpClient.setStreamIdleTimeout((int) streamIdleTimeout.toMillis());
+            }
+            httpClient.setTcpNoDelay(tcpNoDelay);
+            httpClient.setSocketBufferSizes(sendBufferSize, receiveBufferSize);
+            if (tls != null) {
+                httpClient.setTls(tls);
+            }
+            if (maxIdleConnections != null) {
+                httpClient.setMaxIdleConnections(maxIdleConnections);
+            }
+            if (idleConnectionTimeout != null) {
+                httpClient.setIdleConnectionTimeout((int) idleConnectionTimeout.toMillis());
+            }
+            if (pipelineDepth != null) {
+                httpClient.setPipelineDepth(pipelineDepth);
+            }
+            if (circuitBreaker != null) {
+                httpClient.addInterceptor(circuitBreaker);
+                circuitBreaker.setProbe(() -> new PingCmd(httpClient).exec());
+            }
+            for (DockerInterceptor interceptor : interceptors) {
+                httpClient.addInterceptor(interceptor);
+            }
+            httpClient.setMetrics(metrics);
+            httpClient.setFlightRecorderEvents(flightRecorderEvents);
+            httpClient.setRetryPolicy(retryPolicy);
+            httpClient.setStringPool(stringPool);
+            httpClient.setBufferPool(bufferPool);
+            return new DockerClient(httpClient, circuitBreaker);
         }
     }
 }
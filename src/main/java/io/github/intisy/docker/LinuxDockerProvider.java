@@ -1,5 +1,6 @@
 package io.github.intisy.docker;
 
+import io.github.intisy.docker.jfr.DockerEvents;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
@@ -182,6 +183,17 @@ public class LinuxDockerProvider extends DockerProvider {
 
     @Override
     public void start() throws IOException, InterruptedException {
+        Object event = DockerEvents.beginDaemonStartup();
+        boolean started = false;
+        try {
+            startDaemon();
+            started = true;
+        } finally {
+            DockerEvents.commitDaemonStartup(event, "linux", instanceId, started ? getDockerHost() : null, started);
+        }
+    }
+
+    private void startDaemon() throws IOException, InterruptedException {
         log.info("Starting managed Docker daemon (instance: {})...", instanceId);
 
         boolean forceRootless = Boolean.parseBoolean(System.getProperty("docker.force.rootless", "true"));
@@ -1,5 +1,6 @@
 package io.github.intisy.docker;
 
+import io.github.intisy.docker.jfr.DockerEvents;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
@@ -195,6 +196,17 @@ public class MacDockerProvider extends DockerProvider {
 
     @Override
     public void start() throws IOException, InterruptedException {
+        Object event = DockerEvents.beginDaemonStartup();
+        boolean started = false;
+        try {
+            startDaemon();
+            started = true;
+        } finally {
+            DockerEvents.commitDaemonStartup(event, "mac", instanceId, started ? getDockerHost() : null, started);
+        }
+    }
+
+    private void startDaemon() throws IOException, InterruptedException {
         log.info("Starting Docker via Lima VM (instance: {})...", instanceId);
 
         ensureInstalled();
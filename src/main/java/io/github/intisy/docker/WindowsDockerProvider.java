@@ -1,5 +1,6 @@
 package io.github.intisy.docker;
 
+import io.github.intisy.docker.jfr.DockerEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -583,6 +584,17 @@ public class WindowsDockerProvider extends DockerProvider {
 
     @Override
     public void start() throws IOException, InterruptedException {
+        Object event = DockerEvents.beginDaemonStartup();
+        boolean started = false;
+        try {
+            startDaemon();
+            started = true;
+        } finally {
+            DockerEvents.commitDaemonStartup(event, "windows", instanceId, started ? getDockerHost() : null, started);
+        }
+    }
+
+    private void startDaemon() throws IOException, InterruptedException {
         log.info("Starting Docker (instance: {})...", instanceId);
         
         boolean isAdmin = isAdministrator();
@@ -1,22 +1,47 @@
 package io.github.intisy.docker.command.container;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import io.github.intisy.docker.exception.ConflictException;
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.model.*;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 
 /**
  * @author Finn Birich
  */
 public class CreateContainerCmd {
+    private static final PathTemplate CREATE = PathTemplate.compile("/containers/create");
+
+    private static final Logger log = LoggerFactory.getLogger(CreateContainerCmd.class);
+
+    /**
+     * Label holding the configuration hash of containers created in reuse mode.
+     */
+    public static final String CONFIG_HASH_LABEL = "io.github.intisy.docker.config-hash";
+
     private final DockerHttpClient client;
     private final ContainerConfig config;
     private String name;
+    private boolean reuse = false;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public CreateContainerCmd(DockerHttpClient client, String image) {
         this.client = client;
@@ -24,6 +49,17 @@ public class CreateContainerCmd {
         this.config.setImage(image);
     }
 
+    /**
+     * Create a container from a prepared configuration.
+      *
+      * @param client the HTTP client
+      * @param config the container configuration, including the image
+     */
+    public CreateContainerCmd(DockerHttpClient client, ContainerConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
     public CreateContainerCmd withName(String name) {
         this.name = name;
         return this;
@@ -229,14 +265,123 @@ public class CreateContainerCmd {
         return this;
     }
 
-    public CreateContainerResponse exec() {
+    /**
+     * Reuse a running container created from an identical configuration instead of creating a new one.
+     * The configuration hash is stored in the {@value #CONFIG_HASH_LABEL} label.
+      *
+      * @param reuse true to enable reuse mode
+      * @return this command instance
+     */
+    public CreateContainerCmd withReuse(boolean reuse) {
+        this.reuse = reuse;
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public CreateContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public CreateContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Compute a stable hash of the full container and host configuration. Object keys are
+     * sorted before hashing so the result does not depend on insertion order, and the
+     * {@value #CONFIG_HASH_LABEL} label itself is excluded.
+      *
+      * @return the hex-encoded SHA-256 hash
+     */
+    public String getConfigHash() {
+        JsonElement tree = client.getGson().toJsonTree(config);
+        if (tree.isJsonObject()) {
+            JsonElement labels = tree.getAsJsonObject().get("Labels");
+            if (labels != null && labels.isJsonObject()) {
+                labels.getAsJsonObject().remove(CONFIG_HASH_LABEL);
+                if (labels.getAsJsonObject().size() == 0) {
+                    tree.getAsJsonObject().remove("Labels");
+                }
+            }
+        }
         try {
-            Map<String, String> queryParams = new HashMap<>();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonicalize(tree).toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static JsonElement canonicalize(JsonElement element) {
+        if (element.isJsonObject()) {
+            TreeMap<String, JsonElement> sorted = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                sorted.put(entry.getKey(), canonicalize(entry.getValue()));
+            }
+            JsonObject result = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : sorted.entrySet()) {
+                result.add(entry.getKey(), entry.getValue());
+            }
+            return result;
+        }
+        if (element.isJsonArray()) {
+            JsonArray result = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                result.add(canonicalize(item));
+            }
+            return result;
+        }
+        return element;
+    }
+
+    private String findReusable(String hash) {
+        ListContainersCmd list = new ListContainersCmd(client)
+                .withLabelFilter(CONFIG_HASH_LABEL + "=" + hash)
+                .withStatusFilter("running");
+        if (name != null) {
+            list.withNameFilter("^/" + name + "$");
+        }
+        List<Container> containers = list.exec();
+        return containers.isEmpty() ? null : containers.get(0).getId();
+    }
+
+    public CreateContainerResponse exec() {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            if (reuse) {
+                String hash = getConfigHash();
+                String existing = findReusable(hash);
+                if (existing != null) {
+                    log.debug("Reusing container {} with config hash {}", existing, hash);
+                    return new CreateContainerResponse(existing, true);
+                }
+                config.addLabel(CONFIG_HASH_LABEL, hash);
+            }
+
+            RequestPath path = CREATE.expand();
             if (name != null) {
-                queryParams.put("name", name);
+                path.query("name", name);
             }
 
-            DockerResponse response = client.post("/containers/create", queryParams, config);
+            DockerResponse response = client.post(path, config);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Image not found: " + config.getImage());
@@ -6,19 +6,25 @@ import io.github.intisy.docker.model.ExecConfig;
 import io.github.intisy.docker.model.ExecCreateResponse;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
 
 /**
  * @author Finn Birich
  */
 public class ExecCreateCmd {
+    private static final PathTemplate EXEC = PathTemplate.compile("/containers/{id}/exec");
+
     private final DockerHttpClient client;
     private final String containerId;
     private final ExecConfig config;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ExecCreateCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -83,9 +89,32 @@ public class ExecCreateCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ExecCreateCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ExecCreateCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public ExecCreateResponse exec() {
-        try {
-            DockerResponse response = client.post("/containers/" + containerId + "/exec", config);
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.post(EXEC.expand(containerId), config);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
@@ -4,9 +4,13 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 import io.github.intisy.docker.transport.StreamCallback;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,10 +18,14 @@ import java.util.Map;
  * @author Finn Birich
  */
 public class ExecStartCmd {
+    private static final PathTemplate START = PathTemplate.compile("/exec/{id}/start");
+
     private final DockerHttpClient client;
     private final String execId;
     private boolean detach = false;
     private boolean tty = false;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ExecStartCmd(DockerHttpClient client, String execId) {
         this.client = client;
@@ -34,16 +42,39 @@ public class ExecStartCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ExecStartCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ExecStartCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     /**
      * Execute the command (detached mode).
      */
     public void exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             Map<String, Object> body = new HashMap<>();
             body.put("Detach", true);
             body.put("Tty", tty);
 
-            DockerResponse response = client.post("/exec/" + execId + "/start", body);
+            DockerResponse response = client.post(START.expand(execId), body);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Exec instance not found: " + execId);
@@ -62,12 +93,12 @@ public class ExecStartCmd {
       * @param callback the callback for streaming output
      */
     public void exec(StreamCallback<String> callback) {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             Map<String, Object> body = new HashMap<>();
             body.put("Detach", false);
             body.put("Tty", tty);
 
-            DockerResponse response = client.post("/exec/" + execId + "/start", body);
+            DockerResponse response = client.post(START.expand(execId), body);
             
             if (response.getStatusCode() == 404) {
                 callback.onError(new NotFoundException("Exec instance not found: " + execId));
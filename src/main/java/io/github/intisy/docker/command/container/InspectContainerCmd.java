@@ -2,21 +2,30 @@ package io.github.intisy.docker.command.container;
 
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
+import io.github.intisy.docker.model.FieldProjection;
 import io.github.intisy.docker.model.ContainerInspect;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class InspectContainerCmd {
+    private static final PathTemplate INSPECT = PathTemplate.compile("/containers/{id}/json");
+
     private final DockerHttpClient client;
     private final String containerId;
     private boolean showSize = false;
+    private FieldProjection projection;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public InspectContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -28,14 +37,49 @@ public class InspectContainerCmd {
         return this;
     }
 
+    /**
+     * Only bind the given top-level fields of the response, e.g. {@code "Id", "State", "Labels"}.
+     * The others are skipped while parsing and left null.
+      *
+      * @param fields the Docker API names of the fields
+      * @return this command instance
+     */
+    public InspectContainerCmd withFields(String... fields) {
+        this.projection = FieldProjection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InspectContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InspectContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public ContainerInspect exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = INSPECT.expand(containerId);
             if (showSize) {
-                queryParams.put("size", "true");
+                path.query("size", true);
             }
 
-            DockerResponse response = client.get("/containers/" + containerId + "/json", queryParams);
+            DockerResponse response = client.get(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
@@ -44,6 +88,9 @@ public class InspectContainerCmd {
                 throw new DockerException("Failed to inspect container: " + response.getBody(), response.getStatusCode());
             }
 
+            if (projection != null) {
+                return projection.read(client.getGson(), response.getBody(), ContainerInspect.class);
+            }
             return client.getGson().fromJson(response.getBody(), ContainerInspect.class);
         } catch (IOException e) {
             throw new DockerException("Failed to inspect container", e);
@@ -0,0 +1,119 @@
+package io.github.intisy.docker.command.container;
+
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.ContainerInspect;
+import io.github.intisy.docker.model.FieldProjection;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inspect many containers with one batch of pipelined requests, see {@link DockerHttpClient#getAll(List)}.
+ *
+ * @author Finn Birich
+ */
+public class InspectContainersCmd {
+    private static final PathTemplate INSPECT = PathTemplate.compile("/containers/{id}/json");
+
+    private final DockerHttpClient client;
+    private final List<String> containerIds;
+    private boolean showSize = false;
+    private FieldProjection projection;
+    private RequestPriority priority;
+    private Duration timeout;
+
+    public InspectContainersCmd(DockerHttpClient client, Collection<String> containerIds) {
+        this.client = client;
+        this.containerIds = new ArrayList<>(containerIds);
+    }
+
+    public InspectContainersCmd withSize(boolean showSize) {
+        this.showSize = showSize;
+        return this;
+    }
+
+    /**
+     * Only bind the given top-level fields of the responses, e.g. {@code "Id", "State", "Labels"}.
+     * The others are skipped while parsing and left null.
+      *
+      * @param fields the Docker API names of the fields
+      * @return this command instance
+     */
+    public InspectContainersCmd withFields(String... fields) {
+        this.projection = FieldProjection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InspectContainersCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they all complete within the given time. Replaces
+     * the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InspectContainersCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Execute the command.
+      *
+      * @return the containers by the given IDs or names, in their order; containers that do not exist are left out
+     */
+    public Map<String, ContainerInspect> exec() {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            List<RequestPath> paths = new ArrayList<>(containerIds.size());
+            for (String containerId : containerIds) {
+                RequestPath path = INSPECT.expand(containerId);
+                if (showSize) {
+                    path.query("size", true);
+                }
+                paths.add(path);
+            }
+
+            List<DockerResponse> responses = client.getAll(paths);
+
+            Map<String, ContainerInspect> containers = new LinkedHashMap<>();
+            for (int i = 0; i < responses.size(); i++) {
+                DockerResponse response = responses.get(i);
+                if (response.getStatusCode() == 404) {
+                    continue;
+                }
+                if (!response.isSuccessful()) {
+                    throw new DockerException("Failed to inspect container " + containerIds.get(i) + ": " + response.getBody(),
+                            response.getStatusCode());
+                }
+                ContainerInspect container = projection != null
+                        ? projection.read(client.getGson(), response.getBody(), ContainerInspect.class)
+                        : client.getGson().fromJson(response.getBody(), ContainerInspect.class);
+                containers.put(containerIds.get(i), container);
+            }
+            return containers;
+        } catch (IOException e) {
+            throw new DockerException("Failed to inspect containers", e);
+        }
+    }
+}
@@ -3,11 +3,17 @@ package io.github.intisy.docker.command.container;
 import com.google.gson.reflect.TypeToken;
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.model.Container;
+import io.github.intisy.docker.model.FieldProjection;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,11 +22,16 @@ import java.util.Map;
  * @author Finn Birich
  */
 public class ListContainersCmd {
+    private static final PathTemplate LIST = PathTemplate.compile("/containers/json");
+
     private final DockerHttpClient client;
     private boolean showAll = false;
     private Integer limit;
     private boolean showSize = false;
     private Map<String, List<String>> filters;
+    private FieldProjection projection;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ListContainersCmd(DockerHttpClient client) {
         this.client = client;
@@ -73,28 +84,66 @@ public class ListContainersCmd {
         return withFilter("label", label);
     }
 
+    /**
+     * Only bind the given top-level fields of the response, e.g. {@code "Id", "State", "Labels"}.
+     * The others are skipped while parsing and left null.
+      *
+      * @param fields the Docker API names of the fields
+      * @return this command instance
+     */
+    public ListContainersCmd withFields(String... fields) {
+        this.projection = FieldProjection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ListContainersCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ListContainersCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public List<Container> exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = LIST.expand();
             if (showAll) {
-                queryParams.put("all", "true");
+                path.query("all", true);
             }
             if (limit != null) {
-                queryParams.put("limit", String.valueOf(limit));
+                path.query("limit", limit);
             }
             if (showSize) {
-                queryParams.put("size", "true");
+                path.query("size", true);
             }
             if (filters != null && !filters.isEmpty()) {
-                queryParams.put("filters", client.getGson().toJson(filters));
+                path.query("filters", client.getGson().toJson(filters));
             }
 
-            DockerResponse response = client.get("/containers/json", queryParams);
+            DockerResponse response = client.get(path);
             
             if (!response.isSuccessful()) {
                 throw new DockerException("Failed to list containers: " + response.getBody(), response.getStatusCode());
             }
 
+            if (projection != null) {
+                return projection.readList(client.getGson(), response.getBody(), Container.class);
+            }
             Type listType = new TypeToken<List<Container>>() {}.getType();
             return client.getGson().fromJson(response.getBody(), listType);
         } catch (IOException e) {
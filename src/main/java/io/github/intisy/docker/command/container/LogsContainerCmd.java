@@ -2,18 +2,26 @@ package io.github.intisy.docker.command.container;
 
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
+import io.github.intisy.docker.model.LogLine;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 import io.github.intisy.docker.transport.StreamCallback;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Finn Birich
  */
 public class LogsContainerCmd {
+    private static final PathTemplate LOGS = PathTemplate.compile("/containers/{id}/logs");
+
     private final DockerHttpClient client;
     private final String containerId;
     private boolean follow = false;
@@ -23,6 +31,8 @@ public class LogsContainerCmd {
     private String until;
     private boolean timestamps = false;
     private Integer tail;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public LogsContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -72,6 +82,12 @@ public class LogsContainerCmd {
         return this;
     }
 
+    /**
+     * Prefix each line with its RFC 3339 timestamp. Use {@link #execLines()} to have them parsed.
+      *
+      * @param timestamps true to include timestamps
+      * @return this command instance
+     */
     public LogsContainerCmd withTimestamps(boolean timestamps) {
         this.timestamps = timestamps;
         return this;
@@ -88,17 +104,56 @@ public class LogsContainerCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public LogsContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public LogsContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     /**
      * Execute the command and return logs as a string.
       *
       * @return the log output as a string
      */
     public String exec() {
-        try {
-            Map<String, String> queryParams = buildQueryParams();
-            queryParams.put("follow", "false");
+        return parseLogOutput(fetch(timestamps));
+    }
 
-            DockerResponse response = client.get("/containers/" + containerId + "/logs", queryParams);
+    /**
+     * Execute the command with timestamps and return the log lines with their time.
+      *
+      * @return the log lines
+     */
+    public List<LogLine> execLines() {
+        List<LogLine> lines = new ArrayList<>();
+        for (String line : fetch(true).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(LogLine.parse(parseLogLine(line)));
+            }
+        }
+        return lines;
+    }
+
+    private String fetch(boolean timestamps) {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.get(buildPath(timestamps).query("follow", false));
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
@@ -106,8 +161,7 @@ public class LogsContainerCmd {
             if (!response.isSuccessful()) {
                 throw new DockerException("Failed to get container logs: " + response.getBody(), response.getStatusCode());
             }
-
-            return parseLogOutput(response.getBody());
+            return response.getBody();
         } catch (IOException e) {
             throw new DockerException("Failed to get container logs", e);
         }
@@ -119,13 +173,13 @@ public class LogsContainerCmd {
       * @param callback the callback for streaming log lines
      */
     public void exec(StreamCallback<String> callback) {
-        try {
-            Map<String, String> queryParams = buildQueryParams();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = buildPath(timestamps);
             if (follow) {
-                queryParams.put("follow", "true");
+                path.query("follow", true);
             }
 
-            client.getStream("/containers/" + containerId + "/logs", queryParams, new StreamCallback<String>() {
+            client.getStream(path, new StreamCallback<String>() {
                 @Override
                 public void onNext(String item) {
                     callback.onNext(parseLogLine(item));
@@ -151,24 +205,17 @@ public class LogsContainerCmd {
         }
     }
 
-    private Map<String, String> buildQueryParams() {
-        Map<String, String> queryParams = new HashMap<>();
-        queryParams.put("stdout", String.valueOf(stdout));
-        queryParams.put("stderr", String.valueOf(stderr));
-        if (since != null) {
-            queryParams.put("since", since);
-        }
-        if (until != null) {
-            queryParams.put("until", until);
-        }
-        queryParams.put("timestamps", String.valueOf(timestamps));
-        if (tail != null) {
-            queryParams.put("tail", String.valueOf(tail));
-        }
-        return queryParams;
+    private RequestPath buildPath(boolean timestamps) {
+        return LOGS.expand(containerId)
+                .query("stdout", stdout)
+                .query("stderr", stderr)
+                .query("since", since)
+                .query("until", until)
+                .query("timestamps", timestamps)
+                .query("tail", tail);
     }
 
-    private String parseLogOutput(String rawOutput) {
+    static String parseLogOutput(String rawOutput) {
         StringBuilder result = new StringBuilder();
         String[] lines = rawOutput.split("\n");
         for (String line : lines) {
@@ -177,7 +224,7 @@ public class LogsContainerCmd {
         return result.toString().trim();
     }
 
-    private String parseLogLine(String line) {
+    static String parseLogLine(String line) {
         if (line.length() > 8) {
             char firstChar = line.charAt(0);
             if (firstChar == 1 || firstChar == 2) {
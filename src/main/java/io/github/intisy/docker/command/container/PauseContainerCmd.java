@@ -4,24 +4,55 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class PauseContainerCmd {
+    private static final PathTemplate PAUSE = PathTemplate.compile("/containers/{id}/pause");
+
     private final DockerHttpClient client;
     private final String containerId;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public PauseContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
         this.containerId = containerId;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public PauseContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public PauseContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            DockerResponse response = client.post("/containers/" + containerId + "/pause");
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.post(PAUSE.expand(containerId));
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
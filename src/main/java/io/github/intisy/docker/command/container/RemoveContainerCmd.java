@@ -4,20 +4,27 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class RemoveContainerCmd {
+    private static final PathTemplate REMOVE = PathTemplate.compile("/containers/{id}");
+
     private final DockerHttpClient client;
     private final String containerId;
     private boolean force = false;
     private boolean removeVolumes = false;
     private boolean removeLinks = false;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public RemoveContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -39,20 +46,43 @@ public class RemoveContainerCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RemoveContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RemoveContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = REMOVE.expand(containerId);
             if (force) {
-                queryParams.put("force", "true");
+                path.query("force", true);
             }
             if (removeVolumes) {
-                queryParams.put("v", "true");
+                path.query("v", true);
             }
             if (removeLinks) {
-                queryParams.put("link", "true");
+                path.query("link", true);
             }
 
-            DockerResponse response = client.delete("/containers/" + containerId, queryParams);
+            DockerResponse response = client.delete(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
@@ -4,18 +4,25 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class RestartContainerCmd {
+    private static final PathTemplate RESTART = PathTemplate.compile("/containers/{id}/restart");
+
     private final DockerHttpClient client;
     private final String containerId;
     private Integer timeout;
+    private RequestPriority priority;
+    private Duration requestTimeout;
 
     public RestartContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -33,14 +40,37 @@ public class RestartContainerCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RestartContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param requestTimeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RestartContainerCmd withRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, requestTimeout)) {
+            RequestPath path = RESTART.expand(containerId);
             if (timeout != null) {
-                queryParams.put("t", String.valueOf(timeout));
+                path.query("t", timeout);
             }
 
-            DockerResponse response = client.post("/containers/" + containerId + "/restart", queryParams, null);
+            DockerResponse response = client.post(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Container not found: " + containerId);
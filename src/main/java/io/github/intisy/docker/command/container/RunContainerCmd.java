@@ -0,0 +1,372 @@
+package io.github.intisy.docker.command.container;
+
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.CreateContainerResponse;
+import io.github.intisy.docker.model.HostConfig;
+import io.github.intisy.docker.model.RunContainerResponse;
+import io.github.intisy.docker.model.WaitResponse;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
+import io.github.intisy.docker.transport.StreamCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Create, start and wait for a container in one go, like {@code docker run}.
+ * <p>
+ * The attach and wait requests are issued before the container is started, so no output
+ * is lost and the exit code is pushed by the daemon instead of being polled for. By default
+ * the container is created with {@code AutoRemove}, which saves the final remove round trip.
+ * <p>
+ * If the run fails before the exit status is received, the container is force-removed.
+ *
+ * @author Finn Birich
+ */
+public class RunContainerCmd {
+    private static final PathTemplate ATTACH = PathTemplate.compile("/containers/{id}/attach");
+    private static final PathTemplate WAIT = PathTemplate.compile("/containers/{id}/wait");
+
+    private static final Logger log = LoggerFactory.getLogger(RunContainerCmd.class);
+    private static final long OPEN_TIMEOUT_SECONDS = 30;
+
+    private final DockerHttpClient client;
+    private final CreateContainerCmd createCmd;
+    private boolean autoRemove = true;
+    private RequestPriority priority;
+    private Duration timeout;
+
+    public RunContainerCmd(DockerHttpClient client, String image) {
+        this.client = client;
+        this.createCmd = new CreateContainerCmd(client, image);
+    }
+
+    public RunContainerCmd withName(String name) {
+        createCmd.withName(name);
+        return this;
+    }
+
+    public RunContainerCmd withCmd(String... cmd) {
+        createCmd.withCmd(cmd);
+        return this;
+    }
+
+    public RunContainerCmd withCmd(List<String> cmd) {
+        createCmd.withCmd(cmd);
+        return this;
+    }
+
+    public RunContainerCmd withEntrypoint(String... entrypoint) {
+        createCmd.withEntrypoint(entrypoint);
+        return this;
+    }
+
+    public RunContainerCmd withEnv(List<String> env) {
+        createCmd.withEnv(env);
+        return this;
+    }
+
+    public RunContainerCmd withEnv(String key, String value) {
+        createCmd.withEnv(key, value);
+        return this;
+    }
+
+    public RunContainerCmd withUser(String user) {
+        createCmd.withUser(user);
+        return this;
+    }
+
+    public RunContainerCmd withWorkingDir(String workingDir) {
+        createCmd.withWorkingDir(workingDir);
+        return this;
+    }
+
+    public RunContainerCmd withLabel(String key, String value) {
+        createCmd.withLabel(key, value);
+        return this;
+    }
+
+    public RunContainerCmd withBind(String hostPath, String containerPath) {
+        createCmd.withBind(hostPath, containerPath);
+        return this;
+    }
+
+    public RunContainerCmd withNetworkMode(String networkMode) {
+        createCmd.withNetworkMode(networkMode);
+        return this;
+    }
+
+    public RunContainerCmd withHostConfig(HostConfig hostConfig) {
+        createCmd.withHostConfig(hostConfig);
+        return this;
+    }
+
+    /**
+     * Remove the container automatically once it exits (default: true).
+      *
+      * @param autoRemove true to let the daemon remove the container on exit
+      * @return this command instance
+     */
+    public RunContainerCmd withAutoRemove(boolean autoRemove) {
+        this.autoRemove = autoRemove;
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RunContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        createCmd.withPriority(priority);
+        return this;
+    }
+
+    /**
+     * Fail the run unless the container exits within the given time, from creating it to
+     * receiving its exit status. Replaces the client's read timeout for the requests made.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RunContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Run the container and collect its output.
+      *
+      * @return the exit status, output and phase timings
+      * @throws DockerException also if the output stream failed before the container exited
+     */
+    public RunContainerResponse exec() {
+        StringBuilder output = new StringBuilder();
+        AtomicReference<Throwable> outputError = new AtomicReference<>();
+        RunContainerResponse response = run(new StreamCallback<String>() {
+            @Override
+            public void onNext(String item) {
+                if (output.length() > 0) {
+                    output.append("\n");
+                }
+                output.append(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                outputError.set(throwable);
+            }
+        });
+        if (outputError.get() != null) {
+            throw new DockerException("Output of container " + response.getId() + " is incomplete: "
+                    + outputError.get().getMessage(), outputError.get());
+        }
+        return new RunContainerResponse(response.getId(), response.getStatusCode(), output.toString(),
+                response.getCreateMillis(), response.getAttachMillis(), response.getStartMillis(),
+                response.getRunMillis(), response.getTotalMillis());
+    }
+
+    /**
+     * Run the container and stream its output lines to a callback. If the output stream fails
+     * after it was opened, the callback's {@code onError} is called and the run goes on until
+     * the container exits.
+      *
+      * @param callback the callback for streaming output lines
+      * @return the exit status and phase timings
+     */
+    public RunContainerResponse exec(StreamCallback<String> callback) {
+        return run(callback);
+    }
+
+    private RunContainerResponse run(StreamCallback<String> callback) {
+        AtomicReference<String> abortId = new AtomicReference<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            return run(callback, abortId);
+        } catch (DockerException e) {
+            // outside the scope, so the removal is not cut short by an expired deadline
+            String containerId = abortId.get();
+            if (containerId != null) {
+                abort(containerId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param abortId set to the container while it has to be removed if the run fails
+     */
+    private RunContainerResponse run(StreamCallback<String> callback, AtomicReference<String> abortId) {
+        long begin = System.nanoTime();
+
+        createCmd.withAttachStdout(true)
+                .withAttachStderr(true)
+                .withAutoRemove(autoRemove);
+        CreateContainerResponse created = createCmd.exec();
+        String containerId = created.getId();
+        abortId.set(containerId);
+        long createdAt = System.nanoTime();
+
+        CountDownLatch opened = new CountDownLatch(2);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicReference<WaitResponse> waitResult = new AtomicReference<>();
+
+        Thread attachThread = new Thread(RequestScope.propagate(() -> attach(containerId, callback, opened, error)),
+                "docker-run-attach-" + shortId(containerId));
+        Thread waitThread = new Thread(RequestScope.propagate(() -> await(containerId, waitResult, opened, error)),
+                "docker-run-wait-" + shortId(containerId));
+        attachThread.setDaemon(true);
+        waitThread.setDaemon(true);
+        attachThread.start();
+        waitThread.start();
+
+        try {
+            if (!opened.await(OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                error.compareAndSet(null, new DockerException("Timed out attaching to container: " + containerId));
+            }
+            if (error.get() != null) {
+                throw asDockerException(error.get());
+            }
+            long attachedAt = System.nanoTime();
+
+            new StartContainerCmd(client, containerId).withPriority(priority).exec();
+            long startedAt = System.nanoTime();
+
+            waitThread.join();
+            long exitedAt = System.nanoTime();
+            attachThread.join();
+
+            WaitResponse result = waitResult.get();
+            if (result == null) {
+                throw asDockerException(error.get() != null ? error.get()
+                        : new DockerException("No exit status received for container: " + containerId));
+            }
+            abortId.set(null);
+            if (result.getError() != null && result.getError().getMessage() != null
+                    && !result.getError().getMessage().isEmpty()) {
+                throw new DockerException("Failed to wait for container: " + result.getError().getMessage());
+            }
+
+            RunContainerResponse response = new RunContainerResponse(containerId,
+                    result.getStatusCode() != null ? result.getStatusCode() : -1, null,
+                    millis(begin, createdAt), millis(createdAt, attachedAt), millis(attachedAt, startedAt),
+                    millis(startedAt, exitedAt), millis(begin, System.nanoTime()));
+            log.debug("Container run finished: {}", response);
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DockerException("Interrupted while running container: " + containerId, e);
+        }
+    }
+
+    private void attach(String containerId, StreamCallback<String> callback, CountDownLatch opened,
+                        AtomicReference<Throwable> error) {
+        RequestPath path = ATTACH.expand(containerId)
+                .query("stream", true)
+                .query("stdout", true)
+                .query("stderr", true);
+        boolean[] attached = new boolean[1];
+        try {
+            client.postStream(path, new StreamCallback<String>() {
+                @Override
+                public void onOpen() {
+                    attached[0] = true;
+                    opened.countDown();
+                }
+
+                @Override
+                public void onNext(String item) {
+                    callback.onNext(LogsContainerCmd.parseLogLine(item));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    if (attached[0]) {
+                        // the run goes on, the callback learns that its output is incomplete
+                        callback.onError(throwable);
+                        return;
+                    }
+                    error.compareAndSet(null, throwable);
+                    opened.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    callback.onComplete();
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return callback.isCancelled();
+                }
+            });
+        } catch (IOException e) {
+            if (attached[0]) {
+                callback.onError(e);
+                return;
+            }
+            error.compareAndSet(null, new DockerException("Failed to attach to container", e));
+            opened.countDown();
+        }
+    }
+
+    private void await(String containerId, AtomicReference<WaitResponse> waitResult, CountDownLatch opened,
+                       AtomicReference<Throwable> error) {
+        RequestPath path = WAIT.expand(containerId).query("condition", autoRemove ? "removed" : "next-exit");
+        try {
+            client.postStream(path, new StreamCallback<String>() {
+                @Override
+                public void onOpen() {
+                    opened.countDown();
+                }
+
+                @Override
+                public void onNext(String item) {
+                    waitResult.set(client.getGson().fromJson(item, WaitResponse.class));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error.compareAndSet(null, throwable);
+                    opened.countDown();
+                }
+            });
+        } catch (IOException e) {
+            error.compareAndSet(null, new DockerException("Failed to wait for container", e));
+            opened.countDown();
+        }
+    }
+
+    private void abort(String containerId) {
+        try {
+            new RemoveContainerCmd(client, containerId).withForce(true).withPriority(priority).exec();
+        } catch (DockerException e) {
+            log.debug("Failed to remove container {} after aborted run: {}", containerId, e.getMessage());
+        }
+    }
+
+    private static DockerException asDockerException(Throwable throwable) {
+        if (throwable instanceof DockerException) {
+            return (DockerException) throwable;
+        }
+        return new DockerException("Failed to run container: " + throwable.getMessage(), throwable);
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(toNanos - fromNanos);
+    }
+
+    private static String shortId(String id) {
+        return id.substring(0, Math.min(12, id.length()));
+    }
+}
@@ -5,16 +5,25 @@ import io.github.intisy.docker.exception.NotModifiedException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class StartContainerCmd {
+    private static final PathTemplate START = PathTemplate.compile("/containers/{id}/start");
+
     private final DockerHttpClient client;
     private final String containerId;
     private String detachKeys;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public StartContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -26,12 +35,32 @@ public class StartContainerCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public StartContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public StartContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            String path = "/containers/" + containerId + "/start";
-            if (detachKeys != null) {
-                path += "?detachKeys=" + detachKeys;
-            }
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = START.expand(containerId).query("detachKeys", detachKeys);
             
             DockerResponse response = client.post(path);
             
@@ -5,16 +5,25 @@ import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.model.WaitResponse;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class WaitContainerCmd {
+    private static final PathTemplate WAIT = PathTemplate.compile("/containers/{id}/wait");
+
     private final DockerHttpClient client;
     private final String containerId;
     private String condition;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public WaitContainerCmd(DockerHttpClient client, String containerId) {
         this.client = client;
@@ -32,12 +41,32 @@ public class WaitContainerCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public WaitContainerCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public WaitContainerCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public WaitResponse exec() {
-        try {
-            String path = "/containers/" + containerId + "/wait";
-            if (condition != null) {
-                path += "?condition=" + condition;
-            }
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = WAIT.expand(containerId).query("condition", condition);
 
             DockerResponse response = client.post(path);
             
@@ -2,9 +2,14 @@ package io.github.intisy.docker.command.image;
 
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 import io.github.intisy.docker.transport.StreamCallback;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -18,6 +23,8 @@ import java.util.Set;
  * @author Finn Birich
  */
 public class BuildImageCmd {
+    private static final PathTemplate BUILD = PathTemplate.compile("/build");
+
     private final DockerHttpClient client;
     private String dockerfile = "Dockerfile";
     private Set<String> tags = new HashSet<>();
@@ -32,6 +39,8 @@ public class BuildImageCmd {
     private String cpuSetCpus;
     private String platform;
     private String target;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public BuildImageCmd(DockerHttpClient client) {
         this.client = client;
@@ -124,50 +133,72 @@ public class BuildImageCmd {
         return this;
     }
 
-    private Map<String, String> buildQueryParams() {
-        Map<String, String> queryParams = new HashMap<>();
-        queryParams.put("dockerfile", dockerfile);
+    private RequestPath buildPath() {
+        RequestPath path = BUILD.expand().query("dockerfile", dockerfile);
         
         for (String tag : tags) {
-            queryParams.put("t", tag);
+            path.query("t", tag);
         }
         
         if (!buildArgs.isEmpty()) {
-            queryParams.put("buildargs", client.getGson().toJson(buildArgs));
+            path.query("buildargs", client.getGson().toJson(buildArgs));
         }
         
         if (noCache) {
-            queryParams.put("nocache", "true");
+            path.query("nocache", true);
         }
         if (pull) {
-            queryParams.put("pull", "true");
+            path.query("pull", true);
         }
         if (!rm) {
-            queryParams.put("rm", "false");
+            path.query("rm", false);
         }
         if (forceRm) {
-            queryParams.put("forcerm", "true");
+            path.query("forcerm", true);
         }
         if (memory != null) {
-            queryParams.put("memory", String.valueOf(memory));
+            path.query("memory", String.valueOf(memory));
         }
         if (memswap != null) {
-            queryParams.put("memswap", String.valueOf(memswap));
+            path.query("memswap", String.valueOf(memswap));
         }
         if (cpuShares != null) {
-            queryParams.put("cpushares", String.valueOf(cpuShares));
+            path.query("cpushares", cpuShares);
         }
         if (cpuSetCpus != null) {
-            queryParams.put("cpusetcpus", cpuSetCpus);
+            path.query("cpusetcpus", cpuSetCpus);
         }
         if (platform != null) {
-            queryParams.put("platform", platform);
+            path.query("platform", platform);
         }
         if (target != null) {
-            queryParams.put("target", target);
+            path.query("target", target);
         }
         
-        return queryParams;
+        return path;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public BuildImageCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public BuildImageCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
     }
 
     /**
@@ -178,10 +209,8 @@ public class BuildImageCmd {
       * @param callback the callback for streaming build output
      */
     public void exec(StreamCallback<BuildResponse> callback) {
-        try {
-            Map<String, String> queryParams = buildQueryParams();
-            
-            client.postStream("/build", queryParams, new StreamCallback<String>() {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            client.postStream(buildPath(), new StreamCallback<String>() {
                 @Override
                 public void onNext(String item) {
                     try {
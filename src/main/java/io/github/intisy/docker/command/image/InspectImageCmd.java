@@ -2,27 +2,72 @@ package io.github.intisy.docker.command.image;
 
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
+import io.github.intisy.docker.model.FieldProjection;
 import io.github.intisy.docker.model.ImageInspect;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class InspectImageCmd {
+    private static final PathTemplate INSPECT = PathTemplate.compile("/images/{name}/json");
+
     private final DockerHttpClient client;
     private final String imageId;
+    private FieldProjection projection;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public InspectImageCmd(DockerHttpClient client, String imageId) {
         this.client = client;
         this.imageId = imageId;
     }
 
+    /**
+     * Only bind the given top-level fields of the response, e.g. {@code "Id", "RepoTags", "Labels"}.
+     * The others are skipped while parsing and left null.
+      *
+      * @param fields the Docker API names of the fields
+      * @return this command instance
+     */
+    public InspectImageCmd withFields(String... fields) {
+        this.projection = FieldProjection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InspectImageCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InspectImageCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public ImageInspect exec() {
-        try {
-            DockerResponse response = client.get("/images/" + imageId + "/json");
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.get(INSPECT.expand(imageId));
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Image not found: " + imageId);
@@ -31,6 +76,9 @@ public class InspectImageCmd {
                 throw new DockerException("Failed to inspect image: " + response.getBody(), response.getStatusCode());
             }
 
+            if (projection != null) {
+                return projection.read(client.getGson(), response.getBody(), ImageInspect.class);
+            }
             return client.getGson().fromJson(response.getBody(), ImageInspect.class);
         } catch (IOException e) {
             throw new DockerException("Failed to inspect image", e);
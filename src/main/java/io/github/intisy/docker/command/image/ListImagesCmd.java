@@ -2,12 +2,18 @@ package io.github.intisy.docker.command.image;
 
 import com.google.gson.reflect.TypeToken;
 import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.FieldProjection;
 import io.github.intisy.docker.model.Image;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,10 +22,15 @@ import java.util.Map;
  * @author Finn Birich
  */
 public class ListImagesCmd {
+    private static final PathTemplate LIST = PathTemplate.compile("/images/json");
+
     private final DockerHttpClient client;
     private boolean showAll = false;
     private boolean digests = false;
     private Map<String, List<String>> filters;
+    private FieldProjection projection;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ListImagesCmd(DockerHttpClient client) {
         this.client = client;
@@ -67,25 +78,63 @@ public class ListImagesCmd {
         return withFilter("reference", reference);
     }
 
+    /**
+     * Only bind the given top-level fields of the response, e.g. {@code "Id", "RepoTags", "Labels"}.
+     * The others are skipped while parsing and left null.
+      *
+      * @param fields the Docker API names of the fields
+      * @return this command instance
+     */
+    public ListImagesCmd withFields(String... fields) {
+        this.projection = FieldProjection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ListImagesCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ListImagesCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public List<Image> exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = LIST.expand();
             if (showAll) {
-                queryParams.put("all", "true");
+                path.query("all", true);
             }
             if (digests) {
-                queryParams.put("digests", "true");
+                path.query("digests", true);
             }
             if (filters != null && !filters.isEmpty()) {
-                queryParams.put("filters", client.getGson().toJson(filters));
+                path.query("filters", client.getGson().toJson(filters));
             }
 
-            DockerResponse response = client.get("/images/json", queryParams);
+            DockerResponse response = client.get(path);
             
             if (!response.isSuccessful()) {
                 throw new DockerException("Failed to list images: " + response.getBody(), response.getStatusCode());
             }
 
+            if (projection != null) {
+                return projection.readList(client.getGson(), response.getBody(), Image.class);
+            }
             Type listType = new TypeToken<List<Image>>() {}.getType();
             return client.getGson().fromJson(response.getBody(), listType);
         } catch (IOException e) {
@@ -2,26 +2,36 @@ package io.github.intisy.docker.command.image;
 
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
+import io.github.intisy.docker.jfr.DockerEvents;
 import io.github.intisy.docker.model.PullResponse;
 import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 import io.github.intisy.docker.transport.StreamCallback;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Finn Birich
  */
 public class PullImageCmd {
+    private static final PathTemplate CREATE = PathTemplate.compile("/images/create");
+
     private final DockerHttpClient client;
     private final String image;
     private String tag = "latest";
     private String platform;
     private String authHeader;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public PullImageCmd(DockerHttpClient client, String image) {
         this.client = client;
@@ -65,6 +75,29 @@ public class PullImageCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public PullImageCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public PullImageCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     /**
      * Execute the command and wait for completion.
      */
@@ -126,22 +159,27 @@ public class PullImageCmd {
       * @param callback the callback for progress updates
      */
     public void exec(StreamCallback<PullResponse> callback) {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
-            queryParams.put("fromImage", image);
-            queryParams.put("tag", tag);
+        Object event = DockerEvents.beginPull();
+        AtomicInteger layers = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = CREATE.expand().query("fromImage", image).query("tag", tag);
             if (platform != null) {
-                queryParams.put("platform", platform);
+                path.query("platform", platform);
             }
 
-            client.postStream("/images/create", queryParams, new StreamCallback<String>() {
+            client.postStream(path, new StreamCallback<String>() {
                 @Override
                 public void onNext(String item) {
                     try {
                         PullResponse response = client.getGson().fromJson(item, PullResponse.class);
                         if (response != null) {
+                            if ("Pull complete".equals(response.getStatus()) || "Already exists".equals(response.getStatus())) {
+                                layers.incrementAndGet();
+                            }
                             callback.onNext(response);
                             if (response.isError()) {
+                                failed.set(true);
                                 callback.onError(new DockerException(response.getError()));
                             }
                         }
@@ -150,6 +188,7 @@ public class PullImageCmd {
 
                 @Override
                 public void onError(Throwable throwable) {
+                    failed.set(true);
                     callback.onError(throwable);
                 }
 
@@ -164,7 +203,10 @@ public class PullImageCmd {
                 }
             });
         } catch (IOException e) {
+            failed.set(true);
             callback.onError(new DockerException("Failed to pull image", e));
+        } finally {
+            DockerEvents.commitPull(event, image, tag, layers.get(), !failed.get());
         }
     }
 }
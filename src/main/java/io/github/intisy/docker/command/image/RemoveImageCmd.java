@@ -6,21 +6,28 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author Finn Birich
  */
 public class RemoveImageCmd {
+    private static final PathTemplate REMOVE = PathTemplate.compile("/images/{name}");
+
     private final DockerHttpClient client;
     private final String imageId;
     private boolean force = false;
     private boolean noPrune = false;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public RemoveImageCmd(DockerHttpClient client, String imageId) {
         this.client = client;
@@ -43,17 +50,40 @@ public class RemoveImageCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RemoveImageCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RemoveImageCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public List<DeletedLayer> exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = REMOVE.expand(imageId);
             if (force) {
-                queryParams.put("force", "true");
+                path.query("force", true);
             }
             if (noPrune) {
-                queryParams.put("noprune", "true");
+                path.query("noprune", true);
             }
 
-            DockerResponse response = client.delete("/images/" + imageId, queryParams);
+            DockerResponse response = client.delete(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Image not found: " + imageId);
@@ -4,19 +4,26 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class TagImageCmd {
+    private static final PathTemplate TAG = PathTemplate.compile("/images/{name}/tag");
+
     private final DockerHttpClient client;
     private final String imageId;
     private String repo;
     private String tag;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public TagImageCmd(DockerHttpClient client, String imageId) {
         this.client = client;
@@ -51,17 +58,40 @@ public class TagImageCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public TagImageCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public TagImageCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = TAG.expand(imageId);
             if (repo != null) {
-                queryParams.put("repo", repo);
+                path.query("repo", repo);
             }
             if (tag != null) {
-                queryParams.put("tag", tag);
+                path.query("tag", tag);
             }
 
-            DockerResponse response = client.post("/images/" + imageId + "/tag", queryParams, null);
+            DockerResponse response = client.post(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Image not found: " + imageId);
@@ -5,8 +5,12 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,9 +18,13 @@ import java.util.List;
  * @author Finn Birich
  */
 public class ConnectNetworkCmd {
+    private static final PathTemplate CONNECT = PathTemplate.compile("/networks/{id}/connect");
+
     private final DockerHttpClient client;
     private final String networkId;
     private final ConnectConfig config;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ConnectNetworkCmd(DockerHttpClient client, String networkId) {
         this.client = client;
@@ -69,9 +77,32 @@ public class ConnectNetworkCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ConnectNetworkCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ConnectNetworkCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            DockerResponse response = client.post("/networks/" + networkId + "/connect", config);
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.post(CONNECT.expand(networkId), config);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Network or container not found: " + networkId);
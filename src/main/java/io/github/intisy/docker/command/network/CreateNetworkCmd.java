@@ -4,8 +4,11 @@ import com.google.gson.annotations.SerializedName;
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +20,8 @@ import java.util.Map;
 public class CreateNetworkCmd {
     private final DockerHttpClient client;
     private final NetworkConfig config;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public CreateNetworkCmd(DockerHttpClient client) {
         this.client = client;
@@ -107,8 +112,31 @@ public class CreateNetworkCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public CreateNetworkCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public CreateNetworkCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public CreateNetworkResponse exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.post("/networks/create", config);
             
             if (!response.isSuccessful()) {
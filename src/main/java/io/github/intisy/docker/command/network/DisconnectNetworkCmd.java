@@ -5,16 +5,24 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class DisconnectNetworkCmd {
+    private static final PathTemplate DISCONNECT = PathTemplate.compile("/networks/{id}/disconnect");
+
     private final DockerHttpClient client;
     private final String networkId;
     private final DisconnectConfig config;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public DisconnectNetworkCmd(DockerHttpClient client, String networkId) {
         this.client = client;
@@ -32,9 +40,32 @@ public class DisconnectNetworkCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public DisconnectNetworkCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public DisconnectNetworkCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            DockerResponse response = client.post("/networks/" + networkId + "/disconnect", config);
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.post(DISCONNECT.expand(networkId), config);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Network or container not found: " + networkId);
@@ -5,19 +5,26 @@ import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.model.Network;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class InspectNetworkCmd {
+    private static final PathTemplate INSPECT = PathTemplate.compile("/networks/{id}");
+
     private final DockerHttpClient client;
     private final String networkId;
     private boolean verbose = false;
     private String scope;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public InspectNetworkCmd(DockerHttpClient client, String networkId) {
         this.client = client;
@@ -40,17 +47,40 @@ public class InspectNetworkCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InspectNetworkCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InspectNetworkCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public Network exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = INSPECT.expand(networkId);
             if (verbose) {
-                queryParams.put("verbose", "true");
+                path.query("verbose", true);
             }
             if (scope != null) {
-                queryParams.put("scope", scope);
+                path.query("scope", scope);
             }
 
-            DockerResponse response = client.get("/networks/" + networkId, queryParams);
+            DockerResponse response = client.get(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Network not found: " + networkId);
@@ -4,24 +4,55 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class RemoveNetworkCmd {
+    private static final PathTemplate REMOVE = PathTemplate.compile("/networks/{id}");
+
     private final DockerHttpClient client;
     private final String networkId;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public RemoveNetworkCmd(DockerHttpClient client, String networkId) {
         this.client = client;
         this.networkId = networkId;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RemoveNetworkCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RemoveNetworkCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            DockerResponse response = client.delete("/networks/" + networkId);
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.delete(REMOVE.expand(networkId));
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Network not found: " + networkId);
@@ -0,0 +1,161 @@
+package io.github.intisy.docker.command.system;
+
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.model.Event;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
+import io.github.intisy.docker.transport.StreamCallback;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Finn Birich
+ */
+public class EventsCmd {
+    private static final PathTemplate EVENTS = PathTemplate.compile("/events");
+
+    private final DockerHttpClient client;
+    private String since;
+    private String until;
+    private Map<String, List<String>> filters;
+    private RequestPriority priority;
+    private Duration timeout;
+
+    public EventsCmd(DockerHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Show events created since this timestamp (Unix timestamp or RFC3339).
+      *
+      * @param since the start timestamp
+      * @return this command instance
+     */
+    public EventsCmd withSince(String since) {
+        this.since = since;
+        return this;
+    }
+
+    /**
+     * Stop streaming at this timestamp (Unix timestamp or RFC3339).
+      *
+      * @param until the end timestamp
+      * @return this command instance
+     */
+    public EventsCmd withUntil(String until) {
+        this.until = until;
+        return this;
+    }
+
+    public EventsCmd withFilter(String key, String... values) {
+        if (this.filters == null) {
+            this.filters = new HashMap<>();
+        }
+        this.filters.put(key, Arrays.asList(values));
+        return this;
+    }
+
+    /**
+     * Filter by object type (container, image, volume, network, daemon, ...).
+      *
+      * @param type the event type to filter by
+      * @return this command instance
+     */
+    public EventsCmd withTypeFilter(String type) {
+        return withFilter("type", type);
+    }
+
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public EventsCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public EventsCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Stream events to a callback. Blocks until the stream ends or the callback is cancelled.
+      *
+      * @param callback the callback for received events
+     */
+    public void exec(StreamCallback<Event> callback) {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = EVENTS.expand();
+            if (since != null) {
+                path.query("since", since);
+            }
+            if (until != null) {
+                path.query("until", until);
+            }
+            if (filters != null && !filters.isEmpty()) {
+                path.query("filters", client.getGson().toJson(filters));
+            }
+
+            client.getStream(path, new StreamCallback<String>() {
+                @Override
+                public void onStart(Closeable stream) {
+                    callback.onStart(stream);
+                }
+
+                @Override
+                public void onOpen() {
+                    callback.onOpen();
+                }
+
+                @Override
+                public void onNext(String item) {
+                    Event event;
+                    try {
+                        event = client.getGson().fromJson(item, Event.class);
+                    } catch (Exception e) {
+                        return;
+                    }
+                    if (event != null) {
+                        callback.onNext(event);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    callback.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    callback.onComplete();
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return callback.isCancelled();
+                }
+            });
+        } catch (IOException e) {
+            callback.onError(new DockerException("Failed to stream events", e));
+        }
+    }
+}
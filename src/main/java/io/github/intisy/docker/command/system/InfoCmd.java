@@ -4,10 +4,13 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.model.SystemInfo;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
@@ -15,13 +18,38 @@ import java.io.IOException;
 public class InfoCmd {
     private static final Logger log = LoggerFactory.getLogger(InfoCmd.class);
     private final DockerHttpClient client;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public InfoCmd(DockerHttpClient client) {
         this.client = client;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InfoCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InfoCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public SystemInfo exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.get("/info");
             
             if (!response.isSuccessful()) {
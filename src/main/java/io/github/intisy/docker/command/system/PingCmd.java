@@ -3,25 +3,53 @@ package io.github.intisy.docker.command.system;
 import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class PingCmd {
     private final DockerHttpClient client;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public PingCmd(DockerHttpClient client) {
         this.client = client;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public PingCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public PingCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     /**
      * Execute the command.
      * @return true if the daemon is reachable
      */
     public boolean exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.get("/_ping");
             return response.isSuccessful();
         } catch (IOException e) {
@@ -33,7 +61,7 @@ public class PingCmd {
      * Execute the command and throw an exception if the daemon is not reachable.
      */
     public void execOrThrow() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.get("/_ping");
             if (!response.isSuccessful()) {
                 throw new DockerException("Docker daemon ping failed: " + response.getBody(), response.getStatusCode());
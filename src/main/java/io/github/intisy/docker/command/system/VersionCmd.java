@@ -4,21 +4,49 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.model.Version;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class VersionCmd {
     private final DockerHttpClient client;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public VersionCmd(DockerHttpClient client) {
         this.client = client;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public VersionCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public VersionCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public Version exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.get("/version");
             
             if (!response.isSuccessful()) {
@@ -5,8 +5,11 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.model.Volume;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +19,8 @@ import java.util.Map;
 public class CreateVolumeCmd {
     private final DockerHttpClient client;
     private final VolumeConfig config;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public CreateVolumeCmd(DockerHttpClient client) {
         this.client = client;
@@ -58,8 +63,31 @@ public class CreateVolumeCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public CreateVolumeCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public CreateVolumeCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public Volume exec() {
-        try {
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
             DockerResponse response = client.post("/volumes/create", config);
             
             if (!response.isSuccessful()) {
@@ -5,24 +5,55 @@ import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.model.Volume;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class InspectVolumeCmd {
+    private static final PathTemplate INSPECT = PathTemplate.compile("/volumes/{name}");
+
     private final DockerHttpClient client;
     private final String volumeName;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public InspectVolumeCmd(DockerHttpClient client, String volumeName) {
         this.client = client;
         this.volumeName = volumeName;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public InspectVolumeCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public InspectVolumeCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public Volume exec() {
-        try {
-            DockerResponse response = client.get("/volumes/" + volumeName);
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            DockerResponse response = client.get(INSPECT.expand(volumeName));
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Volume not found: " + volumeName);
@@ -5,8 +5,13 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.model.Volume;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,8 +20,12 @@ import java.util.Map;
  * @author Finn Birich
  */
 public class ListVolumesCmd {
+    private static final PathTemplate LIST = PathTemplate.compile("/volumes");
+
     private final DockerHttpClient client;
     private Map<String, List<String>> filters;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public ListVolumesCmd(DockerHttpClient client) {
         this.client = client;
@@ -46,14 +55,37 @@ public class ListVolumesCmd {
         return withFilter("name", name);
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public ListVolumesCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public ListVolumesCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public VolumesResponse exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = LIST.expand();
             if (filters != null && !filters.isEmpty()) {
-                queryParams.put("filters", client.getGson().toJson(filters));
+                path.query("filters", client.getGson().toJson(filters));
             }
 
-            DockerResponse response = client.get("/volumes", queryParams);
+            DockerResponse response = client.get(path);
             
             if (!response.isSuccessful()) {
                 throw new DockerException("Failed to list volumes: " + response.getBody(), response.getStatusCode());
@@ -5,18 +5,25 @@ import io.github.intisy.docker.exception.DockerException;
 import io.github.intisy.docker.exception.NotFoundException;
 import io.github.intisy.docker.transport.DockerHttpClient;
 import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import io.github.intisy.docker.transport.RequestPriority;
+import io.github.intisy.docker.transport.RequestScope;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @author Finn Birich
  */
 public class RemoveVolumeCmd {
+    private static final PathTemplate REMOVE = PathTemplate.compile("/volumes/{name}");
+
     private final DockerHttpClient client;
     private final String volumeName;
     private boolean force = false;
+    private RequestPriority priority;
+    private Duration timeout;
 
     public RemoveVolumeCmd(DockerHttpClient client, String volumeName) {
         this.client = client;
@@ -28,14 +35,37 @@ public class RemoveVolumeCmd {
         return this;
     }
 
+    /**
+     * Set the scheduling priority of the requests made by this command.
+      *
+      * @param priority the priority
+      * @return this command instance
+     */
+    public RemoveVolumeCmd withPriority(RequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Fail the requests of this command unless they complete within the given time, retries
+     * included. Replaces the client's read timeout for them.
+      *
+      * @param timeout the time allowed from the start of exec
+      * @return this command instance
+     */
+    public RemoveVolumeCmd withRequestTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
     public void exec() {
-        try {
-            Map<String, String> queryParams = new HashMap<>();
+        try (RequestScope ignored = RequestScope.enter(priority, timeout)) {
+            RequestPath path = REMOVE.expand(volumeName);
             if (force) {
-                queryParams.put("force", "true");
+                path.query("force", true);
             }
 
-            DockerResponse response = client.delete("/volumes/" + volumeName, queryParams);
+            DockerResponse response = client.delete(path);
             
             if (response.getStatusCode() == 404) {
                 throw new NotFoundException("Volume not found: " + volumeName);
@@ -0,0 +1,69 @@
+package io.github.intisy.docker.jfr;
+
+/**
+ * Java Flight Recorder events for Docker API time: {@code DockerRequest}, {@code DockerStream},
+ * {@code DockerPull} and {@code DaemonStartup}, all in the "Docker" category.
+ * <p>
+ * This is the Java 8 variant, where every method is a no-op. The jar is a multi-release jar
+ * whose {@code META-INF/versions/11} copy of this class emits the events through {@code jdk.jfr}.
+ * A {@code begin*} method returns an opaque event handle, or null when the event type is
+ * disabled; the matching {@code commit*} method accepts null.
+ * <p>
+ * Recording the events:
+ * <pre>{@code
+ * java -XX:StartFlightRecording=filename=app.jfr,settings=profile -jar app.jar
+ * jfr print --categories Docker app.jfr
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class DockerEvents {
+
+    private DockerEvents() {
+    }
+
+    /**
+     * @return whether events are emitted: on Java 11+ with the {@code jdk.jfr} module present
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    public static Object beginRequest() {
+        return null;
+    }
+
+    /**
+     * @param event the handle returned by {@link #beginRequest()}, or null
+     * @param method the HTTP method
+     * @param endpoint the endpoint template, e.g. {@code /containers/{id}/json}
+     * @param statusCode the HTTP status, or -1 if no response was received
+     * @param bytesSent the request body size
+     * @param bytesReceived the response body size
+     */
+    public static void commitRequest(Object event, String method, String endpoint, int statusCode,
+                                     long bytesSent, long bytesReceived) {
+    }
+
+    public static Object beginStream() {
+        return null;
+    }
+
+    public static void commitStream(Object event, String method, String endpoint, int statusCode, long bytesReceived) {
+    }
+
+    public static Object beginPull() {
+        return null;
+    }
+
+    public static void commitPull(Object event, String image, String tag, int layers, boolean success) {
+    }
+
+    public static Object beginDaemonStartup() {
+        return null;
+    }
+
+    public static void commitDaemonStartup(Object event, String provider, String instanceId, String dockerHost,
+                                           boolean success) {
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.intisy.docker.metrics;
+
+/**
+ * Receives a {@link RequestMetric} for every request the client sends to the daemon.
+ * <p>
+ * Implementations are called on the requesting thread right after the response has been read
+ * (or, for streaming requests, after the stream has ended), so they must be thread-safe and cheap.
+ * Exceptions thrown by an implementation are logged and otherwise ignored.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * HistogramDockerClientMetrics metrics = new HistogramDockerClientMetrics();
+ * DockerClient client = DockerClient.builder().withMetrics(metrics).build();
+ * // ...
+ * System.out.println(metrics.getEndpoint("GET", "/containers/{id}/json").getLatency().getPercentile(0.99));
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public interface DockerClientMetrics {
+
+    /**
+     * Called once per completed or failed request.
+     *
+     * @param metric the measurements of the request
+     */
+    void record(RequestMetric metric);
+}
@@ -0,0 +1,59 @@
+package io.github.intisy.docker.metrics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Maps request paths to low-cardinality endpoint templates for metrics, e.g.
+ * {@code /containers/3f4e.../json?size=true} to {@code /containers/{id}/json}.
+ *
+ * @author Finn Birich
+ */
+public final class EndpointTemplates {
+    private static final Set<String> ID_RESOURCES = new HashSet<>(Arrays.asList(
+            "containers", "exec", "networks", "services", "nodes", "secrets", "configs", "tasks"));
+    private static final Set<String> NAME_RESOURCES = new HashSet<>(Arrays.asList(
+            "images", "volumes", "plugins", "distribution"));
+    private static final Set<String> COLLECTION_ACTIONS = new HashSet<>(Arrays.asList(
+            "json", "create", "prune", "load", "search", "get", "privileges", "pull"));
+    private static final Set<String> NAME_ACTIONS = new HashSet<>(Arrays.asList(
+            "json", "history", "push", "tag", "get", "enable", "disable", "set", "upgrade"));
+
+    private EndpointTemplates() {
+    }
+
+    /**
+     * Get the endpoint template of a request path. The query string is dropped.
+     *
+     * @param path the request path, without API version prefix
+     * @return the endpoint template
+     */
+    public static String of(String path) {
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        String[] segments = path.split("/");
+        if (segments.length < 3 || COLLECTION_ACTIONS.contains(segments[2])) {
+            return path;
+        }
+        String resource = segments[1];
+        if (ID_RESOURCES.contains(resource)) {
+            StringBuilder template = new StringBuilder(path.length()).append('/').append(resource).append("/{id}");
+            for (int i = 3; i < segments.length; i++) {
+                template.append('/').append(segments[i]);
+            }
+            return template.toString();
+        }
+        if (NAME_RESOURCES.contains(resource)) {
+            // image and plugin names may contain slashes, so only a known trailing action is kept
+            String last = segments[segments.length - 1];
+            if (segments.length > 3 && NAME_ACTIONS.contains(last)) {
+                return "/" + resource + "/{name}/" + last;
+            }
+            return "/" + resource + "/{name}";
+        }
+        return path;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.intisy.docker.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link DockerClientMetrics} that keeps a {@link LatencyHistogram} and counters
+ * per method and endpoint template, without any external dependency.
+ *
+ * @author Finn Birich
+ */
+public class HistogramDockerClientMetrics implements DockerClientMetrics {
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(RequestMetric metric) {
+        String key = metric.getMethod() + " " + metric.getEndpoint();
+        EndpointStats stats = endpoints.get(key);
+        if (stats == null) {
+            stats = endpoints.computeIfAbsent(key, k -> new EndpointStats());
+        }
+        stats.record(metric);
+    }
+
+    /**
+     * Get the statistics of one endpoint.
+     *
+     * @param method the HTTP method
+     * @param endpoint the endpoint template, e.g. {@code /containers/{id}/json}
+     * @return the statistics, or null if no request to this endpoint was recorded
+     */
+    public EndpointStats getEndpoint(String method, String endpoint) {
+        return endpoints.get(method + " " + endpoint);
+    }
+
+    /**
+     * Get the statistics of all endpoints, keyed by method and endpoint template.
+     *
+     * @return the statistics sorted by key
+     */
+    public Map<String, EndpointStats> getEndpoints() {
+        return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : getEndpoints().entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder reusedConnections = new LongAdder();
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+        private void record(RequestMetric metric) {
+            latency.record(metric.getDurationNanos());
+            bytesSent.add(metric.getBytesSent());
+            bytesReceived.add(metric.getBytesReceived());
+            if (metric.isConnectionReused()) {
+                reusedConnections.increment();
+            }
+            if (metric.getError() != null || metric.getStatusCode() < 0 || metric.getStatusCode() >= 400) {
+                errors.increment();
+            }
+            statusCodes.computeIfAbsent(metric.getStatusCode(), k -> new LongAdder()).increment();
+        }
+
+        /**
+         * Get the latency histogram. For streaming requests this covers the whole stream.
+         *
+         * @return the latency histogram
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        /**
+         * Get the number of requests that failed with an I/O error or an HTTP error status.
+         *
+         * @return the error count
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+
+        public long getReusedConnections() {
+            return reusedConnections.sum();
+        }
+
+        /**
+         * Get the number of responses per status code; -1 counts requests without a response.
+         *
+         * @return the counts by status code
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            Map<Integer, Long> result = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : statusCodes.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().sum());
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointStats{" +
+                    "count=" + getCount() +
+                    ", errors=" + getErrors() +
+                    ", p50Micros=" + latency.getPercentile(0.5, TimeUnit.MICROSECONDS) +
+                    ", p99Micros=" + latency.getPercentile(0.99, TimeUnit.MICROSECONDS) +
+                    ", maxMicros=" + latency.getMax(TimeUnit.MICROSECONDS) +
+                    ", bytesSent=" + getBytesSent() +
+                    ", bytesReceived=" + getBytesReceived() +
+                    ", statusCodes=" + getStatusCodes() +
+                    '}';
+        }
+    }
+}
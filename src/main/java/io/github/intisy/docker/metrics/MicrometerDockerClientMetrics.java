@@ -0,0 +1,75 @@
+package io.github.intisy.docker.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DockerClientMetrics} adapter that publishes to a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Micrometer is an optional dependency: this class may only be used when
+ * {@code io.micrometer:micrometer-core} is on the classpath.
+ * <p>
+ * Meters:
+ * <ul>
+ *   <li>{@code docker.client.requests} (timer) - tags {@code method}, {@code endpoint}, {@code status}, {@code outcome}, {@code reused}</li>
+ *   <li>{@code docker.client.streams} (timer) - the same tags, for streaming requests</li>
+ *   <li>{@code docker.client.request.bytes} (summary) - tags {@code method}, {@code endpoint}, {@code direction}</li>
+ * </ul>
+ *
+ * @author Finn Birich
+ */
+public class MicrometerDockerClientMetrics implements DockerClientMetrics {
+    private final MeterRegistry registry;
+    private final String prefix;
+
+    public MicrometerDockerClientMetrics(MeterRegistry registry) {
+        this(registry, "docker.client");
+    }
+
+    public MicrometerDockerClientMetrics(MeterRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void record(RequestMetric metric) {
+        Tags endpointTags = Tags.of("method", metric.getMethod(), "endpoint", metric.getEndpoint());
+        Timer.builder(prefix + (metric.isStreaming() ? ".streams" : ".requests"))
+                .tags(endpointTags)
+                .tag("status", String.valueOf(metric.getStatusCode()))
+                .tag("outcome", outcome(metric))
+                .tag("reused", String.valueOf(metric.isConnectionReused()))
+                .register(registry)
+                .record(metric.getDurationNanos(), TimeUnit.NANOSECONDS);
+        if (metric.getBytesSent() > 0) {
+            bytes(endpointTags, "sent").record(metric.getBytesSent());
+        }
+        bytes(endpointTags, "received").record(metric.getBytesReceived());
+    }
+
+    private DistributionSummary bytes(Tags endpointTags, String direction) {
+        return DistributionSummary.builder(prefix + ".request.bytes")
+                .baseUnit("bytes")
+                .tags(endpointTags)
+                .tag("direction", direction)
+                .register(registry);
+    }
+
+    private static String outcome(RequestMetric metric) {
+        int status = metric.getStatusCode();
+        if (metric.getError() != null || status < 0) {
+            return "ERROR";
+        }
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.intisy.docker.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements of a single request to the Docker daemon.
+ *
+ * @author Finn Birich
+ */
+public class RequestMetric {
+    private final String method;
+    private final String endpoint;
+    private final int statusCode;
+    private final long durationNanos;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final boolean connectionReused;
+    private final boolean streaming;
+    private final Throwable error;
+
+    public RequestMetric(String method, String endpoint, int statusCode, long durationNanos, long bytesSent,
+                         long bytesReceived, boolean connectionReused, boolean streaming, Throwable error) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.durationNanos = durationNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.connectionReused = connectionReused;
+        this.streaming = streaming;
+        this.error = error;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the endpoint template with IDs and names replaced, e.g. {@code /containers/{id}/json}.
+     *
+     * @return the endpoint template
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get the HTTP status code, or -1 if no response was received.
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the time from sending the request until the response was read, or until the end
+     * of the stream for streaming requests.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Get the I/O error that failed the request, or null if a response was received.
+     *
+     * @return the error, or null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null && statusCode >= 200 && statusCode < 300;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetric{" +
+                "method='" + method + '\'' +
+                ", endpoint='" + endpoint + '\'' +
+                ", statusCode=" + statusCode +
+                ", durationMicros=" + TimeUnit.NANOSECONDS.toMicros(durationNanos) +
+                ", bytesSent=" + bytesSent +
+                ", bytesReceived=" + bytesReceived +
+                ", connectionReused=" + connectionReused +
+                ", streaming=" + streaming +
+                '}';
+    }
+}
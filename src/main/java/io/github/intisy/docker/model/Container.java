@@ -1,9 +1,15 @@
 package io.github.intisy.docker.model;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Finn Birich
@@ -78,6 +84,15 @@ public class Container {
         return created;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedInstant() {
+        return created != null ? Instant.ofEpochSecond(created) : null;
+    }
+
     public String getState() {
         return state;
     }
@@ -114,6 +129,46 @@ public class Container {
         return mounts;
     }
 
+    void intern(StringPool strings) {
+        image = strings.intern(image);
+        imageId = strings.intern(imageId);
+        command = strings.intern(command);
+        state = strings.intern(state);
+        status = strings.intern(status);
+        labels = strings.internAll(labels);
+        if (ports != null) {
+            for (Port port : ports) {
+                if (port != null) {
+                    port.ip = strings.intern(port.ip);
+                    port.type = strings.intern(port.type);
+                }
+            }
+        }
+        if (hostConfig != null) {
+            hostConfig.networkMode = strings.intern(hostConfig.networkMode);
+        }
+        if (networkSettings != null && networkSettings.networks != null) {
+            networkSettings.networks = strings.internKeys(networkSettings.networks);
+            for (NetworkInfo network : networkSettings.networks.values()) {
+                if (network != null) {
+                    network.networkId = strings.intern(network.networkId);
+                    network.gateway = strings.intern(network.gateway);
+                }
+            }
+        }
+        if (mounts != null) {
+            for (MountPoint mount : mounts) {
+                if (mount != null) {
+                    mount.type = strings.intern(mount.type);
+                    mount.destination = strings.intern(mount.destination);
+                    mount.driver = strings.intern(mount.driver);
+                    mount.mode = strings.intern(mount.mode);
+                    mount.propagation = strings.intern(mount.propagation);
+                }
+            }
+        }
+    }
+
     public static class Port {
         @SerializedName("IP")
         private String ip;
@@ -273,6 +328,235 @@ public class Container {
         }
     }
 
+    /**
+     * Binds {@code /containers/json} entries without reflection, see {@link ModelTypeAdapterFactory}.
+     */
+    static final class Adapter extends ModelAdapter<Container> {
+        private final TypeAdapter<Object> objects;
+
+        Adapter(ModelTypeAdapterFactory factory, Gson gson, TypeAdapter<Container> delegate) {
+            super(factory, delegate);
+            this.objects = gson.getAdapter(Object.class);
+        }
+
+        @Override
+        void intern(Container value, StringPool strings) {
+            value.intern(strings);
+        }
+
+        @Override
+        Container bind(JsonReader in, Set<String> fields) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            Container container = new Container();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (fields != null && !fields.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "Id":
+                        container.id = JsonReaders.nextString(in);
+                        break;
+                    case "Names":
+                        container.names = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Image":
+                        container.image = JsonReaders.nextString(in);
+                        break;
+                    case "ImageID":
+                        container.imageId = JsonReaders.nextString(in);
+                        break;
+                    case "Command":
+                        container.command = JsonReaders.nextString(in);
+                        break;
+                    case "Created":
+                        container.created = JsonReaders.nextLong(in);
+                        break;
+                    case "State":
+                        container.state = JsonReaders.nextString(in);
+                        break;
+                    case "Status":
+                        container.status = JsonReaders.nextString(in);
+                        break;
+                    case "Ports":
+                        container.ports = JsonReaders.readList(in, Adapter::readPort);
+                        break;
+                    case "Labels":
+                        container.labels = JsonReaders.readMap(in, JsonReaders.STRING);
+                        break;
+                    case "SizeRw":
+                        container.sizeRw = JsonReaders.nextLong(in);
+                        break;
+                    case "SizeRootFs":
+                        container.sizeRootFs = JsonReaders.nextLong(in);
+                        break;
+                    case "HostConfig":
+                        container.hostConfig = readHostConfig(in);
+                        break;
+                    case "NetworkSettings":
+                        container.networkSettings = readNetworkSettings(in);
+                        break;
+                    case "Mounts":
+                        container.mounts = JsonReaders.readList(in, Adapter::readMountPoint);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return container;
+        }
+
+        private static Port readPort(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            Port port = new Port();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "IP":
+                        port.ip = JsonReaders.nextString(in);
+                        break;
+                    case "PrivatePort":
+                        port.privatePort = JsonReaders.nextInteger(in);
+                        break;
+                    case "PublicPort":
+                        port.publicPort = JsonReaders.nextInteger(in);
+                        break;
+                    case "Type":
+                        port.type = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return port;
+        }
+
+        private static ContainerHostConfig readHostConfig(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ContainerHostConfig hostConfig = new ContainerHostConfig();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("NetworkMode")) {
+                    hostConfig.networkMode = JsonReaders.nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return hostConfig;
+        }
+
+        private ContainerNetworkSettings readNetworkSettings(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ContainerNetworkSettings networkSettings = new ContainerNetworkSettings();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("Networks")) {
+                    networkSettings.networks = JsonReaders.readMap(in, network -> readNetworkInfo(network, objects));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return networkSettings;
+        }
+
+        static NetworkInfo readNetworkInfo(JsonReader in, TypeAdapter<Object> objects) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            NetworkInfo network = new NetworkInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "IPAMConfig":
+                        network.ipamConfig = objects.read(in);
+                        break;
+                    case "Links":
+                        network.links = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Aliases":
+                        network.aliases = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "NetworkID":
+                        network.networkId = JsonReaders.nextString(in);
+                        break;
+                    case "EndpointID":
+                        network.endpointId = JsonReaders.nextString(in);
+                        break;
+                    case "Gateway":
+                        network.gateway = JsonReaders.nextString(in);
+                        break;
+                    case "IPAddress":
+                        network.ipAddress = JsonReaders.nextString(in);
+                        break;
+                    case "IPPrefixLen":
+                        network.ipPrefixLen = JsonReaders.nextInteger(in);
+                        break;
+                    case "MacAddress":
+                        network.macAddress = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return network;
+        }
+
+        static MountPoint readMountPoint(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            MountPoint mount = new MountPoint();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Type":
+                        mount.type = JsonReaders.nextString(in);
+                        break;
+                    case "Name":
+                        mount.name = JsonReaders.nextString(in);
+                        break;
+                    case "Source":
+                        mount.source = JsonReaders.nextString(in);
+                        break;
+                    case "Destination":
+                        mount.destination = JsonReaders.nextString(in);
+                        break;
+                    case "Driver":
+                        mount.driver = JsonReaders.nextString(in);
+                        break;
+                    case "Mode":
+                        mount.mode = JsonReaders.nextString(in);
+                        break;
+                    case "RW":
+                        mount.rw = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Propagation":
+                        mount.propagation = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return mount;
+        }
+    }
+
     @Override
     public String toString() {
         return "Container{" +
@@ -1,9 +1,16 @@
 package io.github.intisy.docker.model;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Finn Birich
@@ -83,6 +90,15 @@ public class ContainerInspect {
         return created;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedInstant() {
+        return DockerTimestamps.parseOptional(created);
+    }
+
     public String getPath() {
         return path;
     }
@@ -237,9 +253,27 @@ public class ContainerInspect {
             return startedAt;
         }
 
+        /**
+         * The start time as an instant.
+          *
+          * @return the time, or null if not set
+         */
+        public Instant getStartedAtInstant() {
+            return DockerTimestamps.parseOptional(startedAt);
+        }
+
         public String getFinishedAt() {
             return finishedAt;
         }
+
+        /**
+         * The exit time as an instant.
+          *
+          * @return the time, or null if not set
+         */
+        public Instant getFinishedAtInstant() {
+            return DockerTimestamps.parseOptional(finishedAt);
+        }
     }
 
     public static class NetworkSettings {
@@ -338,6 +372,233 @@ public class ContainerInspect {
         }
     }
 
+    /**
+     * Binds {@code /containers/{id}/json} without reflection, see {@link ModelTypeAdapterFactory}.
+     */
+    static final class Adapter extends ModelAdapter<ContainerInspect> {
+        private static final TypeToken<Map<String, List<PortBinding>>> PORTS = new TypeToken<Map<String, List<PortBinding>>>() {};
+
+        private final TypeAdapter<HostConfig> hostConfigs;
+        private final TypeAdapter<ContainerConfig> configs;
+        private final TypeAdapter<Map<String, List<PortBinding>>> ports;
+        private final TypeAdapter<Object> objects;
+
+        Adapter(ModelTypeAdapterFactory factory, Gson gson, TypeAdapter<ContainerInspect> delegate) {
+            super(factory, delegate);
+            this.hostConfigs = gson.getAdapter(HostConfig.class);
+            this.configs = gson.getAdapter(ContainerConfig.class);
+            this.ports = gson.getAdapter(PORTS);
+            this.objects = gson.getAdapter(Object.class);
+        }
+
+        @Override
+        ContainerInspect bind(JsonReader in, Set<String> fields) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ContainerInspect inspect = new ContainerInspect();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (fields != null && !fields.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "Id":
+                        inspect.id = JsonReaders.nextString(in);
+                        break;
+                    case "Created":
+                        inspect.created = JsonReaders.nextString(in);
+                        break;
+                    case "Path":
+                        inspect.path = JsonReaders.nextString(in);
+                        break;
+                    case "Args":
+                        inspect.args = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "State":
+                        inspect.state = readState(in);
+                        break;
+                    case "Image":
+                        inspect.image = JsonReaders.nextString(in);
+                        break;
+                    case "ResolvConfPath":
+                        inspect.resolvConfPath = JsonReaders.nextString(in);
+                        break;
+                    case "HostnamePath":
+                        inspect.hostnamePath = JsonReaders.nextString(in);
+                        break;
+                    case "HostsPath":
+                        inspect.hostsPath = JsonReaders.nextString(in);
+                        break;
+                    case "LogPath":
+                        inspect.logPath = JsonReaders.nextString(in);
+                        break;
+                    case "Name":
+                        inspect.name = JsonReaders.nextString(in);
+                        break;
+                    case "RestartCount":
+                        inspect.restartCount = JsonReaders.nextInteger(in);
+                        break;
+                    case "Driver":
+                        inspect.driver = JsonReaders.nextString(in);
+                        break;
+                    case "Platform":
+                        inspect.platform = JsonReaders.nextString(in);
+                        break;
+                    case "MountLabel":
+                        inspect.mountLabel = JsonReaders.nextString(in);
+                        break;
+                    case "ProcessLabel":
+                        inspect.processLabel = JsonReaders.nextString(in);
+                        break;
+                    case "AppArmorProfile":
+                        inspect.appArmorProfile = JsonReaders.nextString(in);
+                        break;
+                    case "ExecIDs":
+                        inspect.execIds = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "HostConfig":
+                        inspect.hostConfig = hostConfigs.read(in);
+                        break;
+                    case "Config":
+                        inspect.config = configs.read(in);
+                        break;
+                    case "NetworkSettings":
+                        inspect.networkSettings = readNetworkSettings(in);
+                        break;
+                    case "Mounts":
+                        inspect.mounts = JsonReaders.readList(in, Container.Adapter::readMountPoint);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return inspect;
+        }
+
+        private static ContainerState readState(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ContainerState state = new ContainerState();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Status":
+                        state.status = JsonReaders.nextString(in);
+                        break;
+                    case "Running":
+                        state.running = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Paused":
+                        state.paused = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Restarting":
+                        state.restarting = JsonReaders.nextBoolean(in);
+                        break;
+                    case "OOMKilled":
+                        state.oomKilled = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Dead":
+                        state.dead = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Pid":
+                        state.pid = JsonReaders.nextInteger(in);
+                        break;
+                    case "ExitCode":
+                        state.exitCode = JsonReaders.nextInteger(in);
+                        break;
+                    case "Error":
+                        state.error = JsonReaders.nextString(in);
+                        break;
+                    case "StartedAt":
+                        state.startedAt = JsonReaders.nextString(in);
+                        break;
+                    case "FinishedAt":
+                        state.finishedAt = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return state;
+        }
+
+        private NetworkSettings readNetworkSettings(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            NetworkSettings settings = new NetworkSettings();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Bridge":
+                        settings.bridge = JsonReaders.nextString(in);
+                        break;
+                    case "SandboxID":
+                        settings.sandboxId = JsonReaders.nextString(in);
+                        break;
+                    case "HairpinMode":
+                        settings.hairpinMode = JsonReaders.nextBoolean(in);
+                        break;
+                    case "LinkLocalIPv6Address":
+                        settings.linkLocalIPv6Address = JsonReaders.nextString(in);
+                        break;
+                    case "LinkLocalIPv6PrefixLen":
+                        settings.linkLocalIPv6PrefixLen = JsonReaders.nextInteger(in);
+                        break;
+                    case "Ports":
+                        settings.ports = ports.read(in);
+                        break;
+                    case "SandboxKey":
+                        settings.sandboxKey = JsonReaders.nextString(in);
+                        break;
+                    case "SecondaryIPAddresses":
+                        settings.secondaryIPAddresses = JsonReaders.readList(in, objects::read);
+                        break;
+                    case "SecondaryIPv6Addresses":
+                        settings.secondaryIPv6Addresses = JsonReaders.readList(in, objects::read);
+                        break;
+                    case "EndpointID":
+                        settings.endpointId = JsonReaders.nextString(in);
+                        break;
+                    case "Gateway":
+                        settings.gateway = JsonReaders.nextString(in);
+                        break;
+                    case "GlobalIPv6Address":
+                        settings.globalIPv6Address = JsonReaders.nextString(in);
+                        break;
+                    case "GlobalIPv6PrefixLen":
+                        settings.globalIPv6PrefixLen = JsonReaders.nextInteger(in);
+                        break;
+                    case "IPAddress":
+                        settings.ipAddress = JsonReaders.nextString(in);
+                        break;
+                    case "IPPrefixLen":
+                        settings.ipPrefixLen = JsonReaders.nextInteger(in);
+                        break;
+                    case "IPv6Gateway":
+                        settings.ipv6Gateway = JsonReaders.nextString(in);
+                        break;
+                    case "MacAddress":
+                        settings.macAddress = JsonReaders.nextString(in);
+                        break;
+                    case "Networks":
+                        settings.networks = JsonReaders.readMap(in, network -> Container.Adapter.readNetworkInfo(network, objects));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return settings;
+        }
+    }
+
     @Override
     public String toString() {
         return "ContainerInspect{" +
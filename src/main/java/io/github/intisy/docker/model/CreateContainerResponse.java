@@ -14,6 +14,16 @@ public class CreateContainerResponse {
     @SerializedName("Warnings")
     private List<String> warnings;
 
+    private transient boolean reused;
+
+    public CreateContainerResponse() {
+    }
+
+    public CreateContainerResponse(String id, boolean reused) {
+        this.id = id;
+        this.reused = reused;
+    }
+
     public String getId() {
         return id;
     }
@@ -22,11 +32,21 @@ public class CreateContainerResponse {
         return warnings;
     }
 
+    /**
+     * Check whether an existing container was reused instead of creating a new one.
+     *
+     * @return true if the container was reused
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
     @Override
     public String toString() {
         return "CreateContainerResponse{" +
                 "id='" + id + '\'' +
                 ", warnings=" + warnings +
+                ", reused=" + reused +
                 '}';
     }
 }
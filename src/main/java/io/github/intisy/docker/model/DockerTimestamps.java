@@ -0,0 +1,181 @@
+package io.github.intisy.docker.model;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parser for the RFC 3339 timestamps with up to nanosecond precision that the daemon writes in
+ * inspect responses, events and log lines, e.g. {@code 2024-03-14T09:26:53.589793238Z}.
+ * Parsing does not allocate apart from the resulting {@link Instant}.
+ * <p>
+ * Example usage, for logs requested with {@code withTimestamps(true)}:
+ * <pre>{@code
+ * int space = line.indexOf(' ');
+ * Instant time = DockerTimestamps.parse(line, 0, space);
+ * String message = line.substring(space + 1);
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class DockerTimestamps {
+    /** The zero time Go writes for unset timestamps, e.g. {@code FinishedAt} of a running container. */
+    public static final Instant ZERO = Instant.parse("0001-01-01T00:00:00Z");
+
+    private static final int[] NANO_SCALE = {
+            100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private DockerTimestamps() {
+    }
+
+    /**
+     * Parse a timestamp.
+      *
+      * @param text the timestamp
+      * @return the instant
+      * @throws DateTimeParseException if the text is not an RFC 3339 timestamp
+     */
+    public static Instant parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parse a timestamp within a larger text, such as a log line.
+      *
+      * @param text the text
+      * @param start the index of the first character of the timestamp
+      * @param end the index after the last character of the timestamp
+      * @return the instant
+      * @throws DateTimeParseException if the range is not an RFC 3339 timestamp
+     */
+    public static Instant parse(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || end - start < 20) {
+            throw error(text, start, end, start);
+        }
+        int year = digits(text, start, 4, start, end);
+        expect(text, start + 4, '-', start, end);
+        int month = digits(text, start + 5, 2, start, end);
+        expect(text, start + 7, '-', start, end);
+        int day = digits(text, start + 8, 2, start, end);
+        char t = text.charAt(start + 10);
+        if (t != 'T' && t != 't') {
+            throw error(text, start, end, start + 10);
+        }
+        int hour = digits(text, start + 11, 2, start, end);
+        expect(text, start + 13, ':', start, end);
+        int minute = digits(text, start + 14, 2, start, end);
+        expect(text, start + 16, ':', start, end);
+        int second = digits(text, start + 17, 2, start, end);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw error(text, start, end, start);
+        }
+
+        int pos = start + 19;
+        int nanos = 0;
+        if (text.charAt(pos) == '.') {
+            int fractionStart = ++pos;
+            while (pos < end && isDigit(text.charAt(pos))) {
+                if (pos - fractionStart < NANO_SCALE.length) {
+                    nanos += (text.charAt(pos) - '0') * NANO_SCALE[pos - fractionStart];
+                }
+                pos++;
+            }
+            if (pos == fractionStart) {
+                throw error(text, start, end, pos);
+            }
+        }
+
+        int offsetSeconds;
+        char zone = pos < end ? text.charAt(pos) : 0;
+        if (zone == 'Z' || zone == 'z') {
+            offsetSeconds = 0;
+            pos++;
+        } else if ((zone == '+' || zone == '-') && end - pos == 6) {
+            int offsetHours = digits(text, pos + 1, 2, start, end);
+            expect(text, pos + 3, ':', start, end);
+            int offsetMinutes = digits(text, pos + 4, 2, start, end);
+            if (offsetHours > 23 || offsetMinutes > 59) {
+                throw error(text, start, end, pos);
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (zone == '-' ? -1 : 1);
+            pos += 6;
+        } else {
+            throw error(text, start, end, pos);
+        }
+        if (pos != end) {
+            throw error(text, start, end, pos);
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86400L + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+
+    /**
+     * Parse an optional timestamp field.
+      *
+      * @param text the timestamp, may be null
+      * @return the instant, or null if the text is null, empty or the {@link #ZERO} time
+      * @throws DateTimeParseException if the text is not an RFC 3339 timestamp
+     */
+    public static Instant parseOptional(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        Instant instant = parse(text);
+        return instant.equals(ZERO) ? null : instant;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(CharSequence text, int pos, int count, int start, int end) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = i < end ? text.charAt(i) : 0;
+            if (!isDigit(c)) {
+                throw error(text, start, end, i);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void expect(CharSequence text, int pos, char expected, int start, int end) {
+        if (pos >= end || text.charAt(pos) != expected) {
+            throw error(text, start, end, pos);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static DateTimeParseException error(CharSequence text, int start, int end, int pos) {
+        String value = text.subSequence(Math.max(0, start), Math.min(text.length(), Math.max(start, end))).toString();
+        return new DateTimeParseException("Invalid RFC 3339 timestamp: " + value, value, Math.max(0, pos - start));
+    }
+}
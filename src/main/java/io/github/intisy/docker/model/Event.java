@@ -0,0 +1,88 @@
+package io.github.intisy.docker.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * @author Finn Birich
+ */
+public class Event {
+    @SerializedName("Type")
+    private String type;
+
+    @SerializedName("Action")
+    private String action;
+
+    @SerializedName("Actor")
+    private Actor actor;
+
+    @SerializedName("scope")
+    private String scope;
+
+    @SerializedName("time")
+    private Long time;
+
+    @SerializedName("timeNano")
+    private Long timeNano;
+
+    public String getType() {
+        return type;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Actor getActor() {
+        return actor;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public Long getTime() {
+        return time;
+    }
+
+    public Long getTimeNano() {
+        return timeNano;
+    }
+
+    /**
+     * The time of the event as an instant, with nanosecond precision when available.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getTimeInstant() {
+        return timeNano != null ? Instant.ofEpochSecond(0, timeNano) : time != null ? Instant.ofEpochSecond(time) : null;
+    }
+
+    public static class Actor {
+        @SerializedName("ID")
+        private String id;
+
+        @SerializedName("Attributes")
+        private Map<String, String> attributes;
+
+        public String getId() {
+            return id;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Event{" +
+                "type='" + type + '\'' +
+                ", action='" + action + '\'' +
+                ", actor=" + (actor != null ? actor.id : "null") +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.intisy.docker.model;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A set of top-level JSON fields to bind from a list or inspect response. Every other field is
+ * skipped while reading and stays null, so large subtrees like {@code NetworkSettings} or
+ * {@code Mounts} are never materialized.
+ * <p>
+ * Field names are the Docker API names, e.g. {@code Id}, {@code State}, {@code Labels}.
+ * Applies to {@link Container}, {@link Image}, {@link ContainerInspect} and {@link ImageInspect}
+ * when the {@link Gson} has a {@link ModelTypeAdapterFactory}; other types are bound in full.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * List<Container> containers = client.listContainers()
+ *     .withFields("Id", "State", "Labels")
+ *     .exec();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class FieldProjection {
+    private final Set<String> fields;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldProjection of(String... fields) {
+        return new FieldProjection(Collections.unmodifiableSet(new HashSet<>(Arrays.asList(fields))));
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Bind a JSON object.
+      *
+      * @param gson the Gson to bind with
+      * @param json the JSON object
+      * @param type the model type
+      * @return the model with only the projected fields set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(Gson gson, String json, Class<T> type) {
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        if (!(adapter instanceof ModelAdapter)) {
+            return gson.fromJson(json, type);
+        }
+        try {
+            JsonReader in = gson.newJsonReader(new StringReader(json));
+            return ((ModelAdapter<T>) adapter).read(in, fields);
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Bind a JSON array.
+      *
+      * @param gson the Gson to bind with
+      * @param json the JSON array
+      * @param type the model type of the elements
+      * @return the models with only the projected fields set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> readList(Gson gson, String json, Class<T> type) {
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        if (!(adapter instanceof ModelAdapter)) {
+            return gson.fromJson(json, TypeToken.getParameterized(List.class, type).getType());
+        }
+        ModelAdapter<T> model = (ModelAdapter<T>) adapter;
+        try {
+            JsonReader in = gson.newJsonReader(new StringReader(json));
+            return JsonReaders.readList(in, element -> model.read(element, fields));
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldProjection" + fields;
+    }
+}
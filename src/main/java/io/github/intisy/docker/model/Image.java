@@ -1,9 +1,14 @@
 package io.github.intisy.docker.model;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Finn Birich
@@ -59,6 +64,15 @@ public class Image {
         return created;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedInstant() {
+        return created != null ? Instant.ofEpochSecond(created) : null;
+    }
+
     public Long getSize() {
         return size;
     }
@@ -79,6 +93,79 @@ public class Image {
         return containers;
     }
 
+    void intern(StringPool strings) {
+        parentId = strings.intern(parentId);
+        strings.internAll(repoTags);
+        labels = strings.internAll(labels);
+    }
+
+    /**
+     * Binds {@code /images/json} entries without reflection, see {@link ModelTypeAdapterFactory}.
+     */
+    static final class Adapter extends ModelAdapter<Image> {
+
+        Adapter(ModelTypeAdapterFactory factory, TypeAdapter<Image> delegate) {
+            super(factory, delegate);
+        }
+
+        @Override
+        void intern(Image value, StringPool strings) {
+            value.intern(strings);
+        }
+
+        @Override
+        Image bind(JsonReader in, Set<String> fields) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            Image image = new Image();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (fields != null && !fields.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "Id":
+                        image.id = JsonReaders.nextString(in);
+                        break;
+                    case "ParentId":
+                        image.parentId = JsonReaders.nextString(in);
+                        break;
+                    case "RepoTags":
+                        image.repoTags = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "RepoDigests":
+                        image.repoDigests = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Created":
+                        image.created = JsonReaders.nextLong(in);
+                        break;
+                    case "Size":
+                        image.size = JsonReaders.nextLong(in);
+                        break;
+                    case "VirtualSize":
+                        image.virtualSize = JsonReaders.nextLong(in);
+                        break;
+                    case "SharedSize":
+                        image.sharedSize = JsonReaders.nextLong(in);
+                        break;
+                    case "Labels":
+                        image.labels = JsonReaders.readMap(in, JsonReaders.STRING);
+                        break;
+                    case "Containers":
+                        image.containers = JsonReaders.nextInteger(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return image;
+        }
+    }
+
     @Override
     public String toString() {
         return "Image{" +
@@ -1,9 +1,15 @@
 package io.github.intisy.docker.model;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Finn Birich
@@ -84,6 +90,15 @@ public class ImageInspect {
         return created;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedInstant() {
+        return DockerTimestamps.parseOptional(created);
+    }
+
     public String getContainer() {
         return container;
     }
@@ -251,6 +266,209 @@ public class ImageInspect {
         public String getLastTagTime() {
             return lastTagTime;
         }
+
+        /**
+         * The time the image was last tagged as an instant.
+          *
+          * @return the time, or null if not set
+         */
+        public Instant getLastTagTimeInstant() {
+            return DockerTimestamps.parseOptional(lastTagTime);
+        }
+    }
+
+    /**
+     * Binds {@code /images/{name}/json} without reflection, see {@link ModelTypeAdapterFactory}.
+     */
+    static final class Adapter extends ModelAdapter<ImageInspect> {
+        private final TypeAdapter<Object> objects;
+
+        Adapter(ModelTypeAdapterFactory factory, Gson gson, TypeAdapter<ImageInspect> delegate) {
+            super(factory, delegate);
+            this.objects = gson.getAdapter(Object.class);
+        }
+
+        @Override
+        ImageInspect bind(JsonReader in, Set<String> fields) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ImageInspect inspect = new ImageInspect();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (fields != null && !fields.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "Id":
+                        inspect.id = JsonReaders.nextString(in);
+                        break;
+                    case "RepoTags":
+                        inspect.repoTags = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "RepoDigests":
+                        inspect.repoDigests = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Parent":
+                        inspect.parent = JsonReaders.nextString(in);
+                        break;
+                    case "Comment":
+                        inspect.comment = JsonReaders.nextString(in);
+                        break;
+                    case "Created":
+                        inspect.created = JsonReaders.nextString(in);
+                        break;
+                    case "Container":
+                        inspect.container = JsonReaders.nextString(in);
+                        break;
+                    case "DockerVersion":
+                        inspect.dockerVersion = JsonReaders.nextString(in);
+                        break;
+                    case "Author":
+                        inspect.author = JsonReaders.nextString(in);
+                        break;
+                    case "Config":
+                        inspect.config = readConfig(in);
+                        break;
+                    case "Architecture":
+                        inspect.architecture = JsonReaders.nextString(in);
+                        break;
+                    case "Os":
+                        inspect.os = JsonReaders.nextString(in);
+                        break;
+                    case "OsVersion":
+                        inspect.osVersion = JsonReaders.nextString(in);
+                        break;
+                    case "Size":
+                        inspect.size = JsonReaders.nextLong(in);
+                        break;
+                    case "VirtualSize":
+                        inspect.virtualSize = JsonReaders.nextLong(in);
+                        break;
+                    case "RootFS":
+                        inspect.rootFS = readRootFS(in);
+                        break;
+                    case "Metadata":
+                        inspect.metadata = readMetadata(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return inspect;
+        }
+
+        private ImageConfig readConfig(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            ImageConfig config = new ImageConfig();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Hostname":
+                        config.hostname = JsonReaders.nextString(in);
+                        break;
+                    case "Domainname":
+                        config.domainname = JsonReaders.nextString(in);
+                        break;
+                    case "User":
+                        config.user = JsonReaders.nextString(in);
+                        break;
+                    case "AttachStdin":
+                        config.attachStdin = JsonReaders.nextBoolean(in);
+                        break;
+                    case "AttachStdout":
+                        config.attachStdout = JsonReaders.nextBoolean(in);
+                        break;
+                    case "AttachStderr":
+                        config.attachStderr = JsonReaders.nextBoolean(in);
+                        break;
+                    case "ExposedPorts":
+                        config.exposedPorts = JsonReaders.readMap(in, objects::read);
+                        break;
+                    case "Tty":
+                        config.tty = JsonReaders.nextBoolean(in);
+                        break;
+                    case "OpenStdin":
+                        config.openStdin = JsonReaders.nextBoolean(in);
+                        break;
+                    case "StdinOnce":
+                        config.stdinOnce = JsonReaders.nextBoolean(in);
+                        break;
+                    case "Env":
+                        config.env = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Cmd":
+                        config.cmd = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Entrypoint":
+                        config.entrypoint = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    case "Image":
+                        config.image = JsonReaders.nextString(in);
+                        break;
+                    case "Volumes":
+                        config.volumes = JsonReaders.readMap(in, objects::read);
+                        break;
+                    case "WorkingDir":
+                        config.workingDir = JsonReaders.nextString(in);
+                        break;
+                    case "Labels":
+                        config.labels = JsonReaders.readMap(in, JsonReaders.STRING);
+                        break;
+                    case "StopSignal":
+                        config.stopSignal = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return config;
+        }
+
+        private static RootFS readRootFS(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            RootFS rootFS = new RootFS();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Type":
+                        rootFS.type = JsonReaders.nextString(in);
+                        break;
+                    case "Layers":
+                        rootFS.layers = JsonReaders.readList(in, JsonReaders.STRING);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return rootFS;
+        }
+
+        private static Metadata readMetadata(JsonReader in) throws IOException {
+            if (JsonReaders.nextNull(in)) {
+                return null;
+            }
+            Metadata metadata = new Metadata();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("LastTagTime")) {
+                    metadata.lastTagTime = JsonReaders.nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return metadata;
+        }
     }
 
     @Override
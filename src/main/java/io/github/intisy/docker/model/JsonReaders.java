@@ -0,0 +1,114 @@
+package io.github.intisy.docker.model;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value readers shared by the hand-written model adapters. They accept the same input as
+ * Gson's built-in adapters, so a payload binds the same way with or without them.
+ *
+ * @author Finn Birich
+ */
+final class JsonReaders {
+
+    interface ElementReader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    static final ElementReader<String> STRING = JsonReaders::nextString;
+
+    private JsonReaders() {
+    }
+
+    /**
+     * Consume a null token.
+     *
+     * @return true if the next value was null
+     */
+    static boolean nextNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    static Long nextLong(JsonReader in) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    static Integer nextInteger(JsonReader in) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    static Boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    static <T> List<T> readList(JsonReader in, ElementReader<T> element) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(element.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    static <T> Map<String, T> readMap(JsonReader in, ElementReader<T> value) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+        Map<String, T> map = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            map.put(in.nextName(), value.read(in));
+        }
+        in.endObject();
+        return map;
+    }
+}
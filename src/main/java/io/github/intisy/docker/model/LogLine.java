@@ -0,0 +1,54 @@
+package io.github.intisy.docker.model;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A container log line with the time the daemon received it, as returned by
+ * {@code LogsContainerCmd.execLines()}.
+ *
+ * @author Finn Birich
+ */
+public class LogLine {
+    private final Instant timestamp;
+    private final String message;
+
+    public LogLine(Instant timestamp, String message) {
+        this.timestamp = timestamp;
+        this.message = message;
+    }
+
+    /**
+     * Split a log line requested with timestamps into its time and message.
+      *
+      * @param line the log line without its stream header
+      * @return the log line, without a timestamp if the line does not start with one
+     */
+    public static LogLine parse(String line) {
+        int space = line.indexOf(' ');
+        if (space > 0) {
+            try {
+                return new LogLine(DockerTimestamps.parse(line, 0, space), line.substring(space + 1));
+            } catch (DateTimeParseException e) {
+                // the line does not start with a timestamp
+            }
+        }
+        return new LogLine(null, line);
+    }
+
+    /**
+     * @return the time the daemon received the line, or null if it has none
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp != null ? timestamp + " " + message : message;
+    }
+}
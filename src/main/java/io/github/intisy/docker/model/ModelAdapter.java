@@ -0,0 +1,58 @@
+package io.github.intisy.docker.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Base of the hand-written model adapters. Reading can be limited to a set of top-level fields,
+ * the others are skipped without being materialized; writing is left to Gson's reflective adapter.
+ *
+ * @author Finn Birich
+ */
+abstract class ModelAdapter<T> extends TypeAdapter<T> {
+    private final ModelTypeAdapterFactory factory;
+    private final TypeAdapter<T> delegate;
+
+    ModelAdapter(ModelTypeAdapterFactory factory, TypeAdapter<T> delegate) {
+        this.factory = factory;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Read a model, binding only the given top-level fields.
+     *
+     * @param in the reader
+     * @param fields the JSON names of the fields to bind, or null for all
+     * @return the model, or null for a JSON null
+     */
+    final T read(JsonReader in, Set<String> fields) throws IOException {
+        T value = bind(in, fields);
+        StringPool strings = factory.getStringPool();
+        if (value != null && strings != null) {
+            intern(value, strings);
+        }
+        return value;
+    }
+
+    abstract T bind(JsonReader in, Set<String> fields) throws IOException;
+
+    /**
+     * Replace repeating strings of a model with pooled ones. Only list models deduplicate.
+     */
+    void intern(T value, StringPool strings) {
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        return read(in, null);
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        delegate.write(out, value);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.intisy.docker.model;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.function.BiConsumer;
+
+/**
+ * Hand-written adapters for the models that are read in bulk: {@link Container}, {@link Image},
+ * {@link ContainerInspect} and {@link ImageInspect}. They dispatch on the field name and skip
+ * unknown fields, instead of going through Gson's reflective binding. Serialization is left to
+ * Gson. {@link Instant} values are read and written as RFC 3339 timestamps with
+ * {@link DockerTimestamps}.
+ * <p>
+ * With a {@link StringPool} set, repeating strings of {@link Container}, {@link Image},
+ * {@link Network} and {@link Volume} are deduplicated as they are read.
+ * <p>
+ * Registered by {@code DockerHttpClient}; to bind the models with another {@link Gson}:
+ * <pre>{@code
+ * Gson gson = new GsonBuilder()
+ *     .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+ *     .create();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+    private volatile StringPool stringPool;
+
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * Deduplicate repeating strings of list models, also for adapters already in use.
+      *
+      * @param stringPool the pool, or null to keep every string as parsed
+     */
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == Container.class) {
+            return (TypeAdapter<T>) new Container.Adapter(this, gson, gson.getDelegateAdapter(this, TypeToken.get(Container.class)));
+        }
+        if (raw == Image.class) {
+            return (TypeAdapter<T>) new Image.Adapter(this, gson.getDelegateAdapter(this, TypeToken.get(Image.class)));
+        }
+        if (raw == ContainerInspect.class) {
+            return (TypeAdapter<T>) new ContainerInspect.Adapter(this, gson, gson.getDelegateAdapter(this, TypeToken.get(ContainerInspect.class)));
+        }
+        if (raw == ImageInspect.class) {
+            return (TypeAdapter<T>) new ImageInspect.Adapter(this, gson, gson.getDelegateAdapter(this, TypeToken.get(ImageInspect.class)));
+        }
+        if (raw == Network.class) {
+            return (TypeAdapter<T>) new Interning<>(gson.getDelegateAdapter(this, TypeToken.get(Network.class)), Network::intern);
+        }
+        if (raw == Volume.class) {
+            return (TypeAdapter<T>) new Interning<>(gson.getDelegateAdapter(this, TypeToken.get(Volume.class)), Volume::intern);
+        }
+        if (raw == Instant.class) {
+            return (TypeAdapter<T>) new InstantAdapter();
+        }
+        return null;
+    }
+
+    /**
+     * Deduplicates strings of a model bound by Gson's reflective adapter.
+     */
+    private final class Interning<T> extends TypeAdapter<T> {
+        private final TypeAdapter<T> delegate;
+        private final BiConsumer<T, StringPool> intern;
+
+        Interning(TypeAdapter<T> delegate, BiConsumer<T, StringPool> intern) {
+            this.delegate = delegate;
+            this.intern = intern;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            delegate.write(out, value);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            T value = delegate.read(in);
+            StringPool strings = stringPool;
+            if (value != null && strings != null) {
+                intern.accept(value, strings);
+            }
+            return value;
+        }
+    }
+
+    private static final class InstantAdapter extends TypeAdapter<Instant> {
+        @Override
+        public void write(JsonWriter out, Instant value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.toString());
+            }
+        }
+
+        @Override
+        public Instant read(JsonReader in) throws IOException {
+            String text = JsonReaders.nextString(in);
+            if (text == null) {
+                return null;
+            }
+            try {
+                return DockerTimestamps.parse(text);
+            } catch (DateTimeParseException e) {
+                throw new JsonSyntaxException(e.getMessage() + " at " + in.getPath(), e);
+            }
+        }
+    }
+}
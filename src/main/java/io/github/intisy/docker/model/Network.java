@@ -2,6 +2,7 @@ package io.github.intisy.docker.model;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -60,6 +61,15 @@ public class Network {
         return created;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedInstant() {
+        return DockerTimestamps.parseOptional(created);
+    }
+
     public String getScope() {
         return scope;
     }
@@ -100,6 +110,17 @@ public class Network {
         return labels;
     }
 
+    void intern(StringPool strings) {
+        scope = strings.intern(scope);
+        driver = strings.intern(driver);
+        options = strings.internAll(options);
+        labels = strings.internAll(labels);
+        if (ipam != null) {
+            ipam.driver = strings.intern(ipam.driver);
+            ipam.options = strings.internAll(ipam.options);
+        }
+    }
+
     public static class IPAM {
         @SerializedName("Driver")
         private String driver;
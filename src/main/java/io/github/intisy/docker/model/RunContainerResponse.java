@@ -0,0 +1,91 @@
+package io.github.intisy.docker.model;
+
+/**
+ * Result of a {@code RunContainerCmd}: the exit status of the container, its output and
+ * how long each phase of the run took on the client side.
+ *
+ * @author Finn Birich
+ */
+public class RunContainerResponse {
+    private final String id;
+    private final int statusCode;
+    private final String output;
+    private final long createMillis;
+    private final long attachMillis;
+    private final long startMillis;
+    private final long runMillis;
+    private final long totalMillis;
+
+    public RunContainerResponse(String id, int statusCode, String output,
+                                long createMillis, long attachMillis, long startMillis,
+                                long runMillis, long totalMillis) {
+        this.id = id;
+        this.statusCode = statusCode;
+        this.output = output;
+        this.createMillis = createMillis;
+        this.attachMillis = attachMillis;
+        this.startMillis = startMillis;
+        this.runMillis = runMillis;
+        this.totalMillis = totalMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the combined stdout/stderr output.
+     *
+     * @return the output, or null if the output was delivered to a callback instead
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    public long getCreateMillis() {
+        return createMillis;
+    }
+
+    /**
+     * Get the time spent opening the attach and wait streams before the container was started.
+     *
+     * @return the attach phase duration in milliseconds
+     */
+    public long getAttachMillis() {
+        return attachMillis;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Get the time between the start request returning and the container exit being reported.
+     *
+     * @return the run phase duration in milliseconds
+     */
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RunContainerResponse{" +
+                "id='" + (id != null ? id.substring(0, Math.min(12, id.length())) : "null") + '\'' +
+                ", statusCode=" + statusCode +
+                ", createMillis=" + createMillis +
+                ", attachMillis=" + attachMillis +
+                ", startMillis=" + startMillis +
+                ", runMillis=" + runMillis +
+                ", totalMillis=" + totalMillis +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.intisy.docker.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool that deduplicates strings which repeat across many models, such as label keys,
+ * image names, states and network names in a large container list. Each value is kept in one
+ * slot chosen by its hash; a colliding value replaces it, so the pool never grows and never
+ * holds on to more than its capacity.
+ * <p>
+ * Only retained heap is saved, parsing still allocates every string once. The pool is thread-safe.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DockerClient client = DockerClient.builder()
+ *     .withStringPool(new StringPool(4096))
+ *     .build();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class StringPool {
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public StringPool(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid string pool capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @param value the string, may be null
+     * @return an equal string from the pool, or the value itself
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String pooled = slots.get(index);
+        if (value.equals(pooled)) {
+            return pooled;
+        }
+        slots.lazySet(index, value);
+        return value;
+    }
+
+    void internAll(List<String> values) {
+        if (values == null) {
+            return;
+        }
+        for (ListIterator<String> it = values.listIterator(); it.hasNext(); ) {
+            it.set(intern(it.next()));
+        }
+    }
+
+    Map<String, String> internAll(Map<String, String> values) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, String> interned = new LinkedHashMap<>(values.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            interned.put(intern(entry.getKey()), intern(entry.getValue()));
+        }
+        return interned;
+    }
+
+    <V> Map<String, V> internKeys(Map<String, V> values) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, V> interned = new LinkedHashMap<>(values.size() * 4 / 3 + 1);
+        for (Map.Entry<String, V> entry : values.entrySet()) {
+            interned.put(intern(entry.getKey()), entry.getValue());
+        }
+        return interned;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.intisy.docker.model;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -51,6 +52,15 @@ public class Volume {
         return createdAt;
     }
 
+    /**
+     * The creation time as an instant.
+      *
+      * @return the time, or null if not set
+     */
+    public Instant getCreatedAtInstant() {
+        return DockerTimestamps.parseOptional(createdAt);
+    }
+
     public Map<String, Object> getStatus() {
         return status;
     }
@@ -71,6 +81,13 @@ public class Volume {
         return usageData;
     }
 
+    void intern(StringPool strings) {
+        driver = strings.intern(driver);
+        scope = strings.intern(scope);
+        labels = strings.internAll(labels);
+        options = strings.internAll(options);
+    }
+
     public static class UsageData {
         @SerializedName("Size")
         private Long size;
@@ -0,0 +1,129 @@
+package io.github.intisy.docker.transport;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of the byte buffers that response bodies and streamed lines are read into, so
+ * that steady request processing does not allocate a new buffer per request or per chunk.
+ * <p>
+ * Every thread keeps one released 8 KiB buffer for itself and takes it back without locking, so
+ * a thread that ends holds on to no more than that. Further buffers, and those grown for a large
+ * body, are shared through a stack of at most {@code maxBuffers}; buffers larger than
+ * {@code maxBufferSize} are dropped instead of kept. The pool is
+ * thread-safe; {@link #shared()} is used by all clients unless they are given their own.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BufferPool buffers = new BufferPool(32, 256 * 1024);
+ * DockerClient client = DockerClient.builder().withBufferPool(buffers).build();
+ * // ...
+ * System.out.println(buffers.getHits() + " hits, " + buffers.getMisses() + " misses");
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class BufferPool {
+    static final int BUFFER_SIZE = 8192;
+    private static final BufferPool SHARED = new BufferPool(64, 256 * 1024);
+
+    private final ThreadLocal<byte[][]> local = ThreadLocal.withInitial(() -> new byte[1][]);
+    private final ArrayDeque<byte[]> buffers = new ArrayDeque<>();
+    private final int maxBuffers;
+    private final int maxBufferSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxBuffers how many buffers to share between threads, in addition to one per thread
+     * @param maxBufferSize the size in bytes above which buffers are not kept
+     */
+    public BufferPool(int maxBuffers, int maxBufferSize) {
+        if (maxBuffers < 0 || maxBufferSize < BUFFER_SIZE) {
+            throw new IllegalArgumentException("Invalid buffer pool size: " + maxBuffers + " buffers of " + maxBufferSize + " bytes");
+        }
+        this.maxBuffers = maxBuffers;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * @return the pool used by clients without one of their own
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Take a buffer from the pool, or allocate one if none is large enough.
+      *
+      * @param minSize the size needed in bytes
+      * @return a buffer of at least that size, at least 8 KiB
+     */
+    public byte[] acquire(int minSize) {
+        if (minSize <= maxBufferSize) {
+            byte[][] slot = local.get();
+            byte[] buffer = slot[0];
+            if (buffer != null && buffer.length >= minSize) {
+                slot[0] = null;
+                hits.increment();
+                return buffer;
+            }
+            synchronized (buffers) {
+                buffer = buffers.peekFirst();
+                if (buffer != null && buffer.length >= minSize) {
+                    buffers.pollFirst();
+                    hits.increment();
+                    return buffer;
+                }
+            }
+        }
+        misses.increment();
+        return new byte[Math.max(minSize, BUFFER_SIZE)];
+    }
+
+    /**
+     * Return a buffer taken with {@link #acquire(int)}. It must not be used afterwards.
+      *
+      * @param buffer the buffer
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length < BUFFER_SIZE || buffer.length > maxBufferSize) {
+            return;
+        }
+        if (buffer.length == BUFFER_SIZE) {
+            byte[][] slot = local.get();
+            if (slot[0] == null) {
+                slot[0] = buffer;
+                return;
+            }
+        }
+        synchronized (buffers) {
+            if (buffers.size() < maxBuffers) {
+                buffers.addFirst(buffer);
+            }
+        }
+    }
+
+    /**
+     * @return how many buffers were taken from the pool
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how many buffers had to be allocated
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return how many buffers are shared between threads right now, not counting those kept per thread
+     */
+    public int getSharedBuffers() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+}
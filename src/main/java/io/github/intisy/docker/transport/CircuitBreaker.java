@@ -0,0 +1,230 @@
+package io.github.intisy.docker.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fails requests fast while the daemon is unreachable or stalled, as a {@link DockerInterceptor}.
+ * <p>
+ * After a number of consecutive connection failures or timeouts the circuit opens and every
+ * request fails immediately with a {@link CircuitOpenException}, instead of blocking its thread
+ * for the full timeout. While open, a background probe pings the daemon; once a ping succeeds
+ * the circuit is half-open and lets a single trial request through, failing the others fast
+ * until the trial has an outcome. A response to the trial closes the circuit, a connection
+ * failure or timeout opens it again. Any HTTP response counts as success, since the daemon
+ * answered. Timeouts the daemon is not to blame for are not counted: those at the caller's own
+ * request deadline, and those of a stream that stays idle after its response head.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DockerClient client = DockerClient.builder()
+ *     .withCircuitBreaker(CircuitBreaker.builder()
+ *         .withFailureThreshold(3)
+ *         .withProbeInterval(500, TimeUnit.MILLISECONDS)
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class CircuitBreaker implements DockerInterceptor, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long probeIntervalNanos;
+    private final ThreadLocal<Boolean> probing = new ThreadLocal<>();
+    private final ScheduledExecutorService executor;
+    private volatile BooleanSupplier probe;
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private DockerExchange trial;
+    private boolean closed;
+
+    private CircuitBreaker(Builder builder) {
+        this.failureThreshold = builder.failureThreshold;
+        this.probeIntervalNanos = builder.probeIntervalNanos;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-circuit-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Set the health check run while the circuit is open. {@code DockerClient} sets a {@code PingCmd}.
+     *
+     * @param probe returns true if the daemon is healthy
+     */
+    public void setProbe(BooleanSupplier probe) {
+        this.probe = probe;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public DockerResponse beforeSend(DockerExchange exchange) throws CircuitOpenException {
+        if (state == State.CLOSED || probing.get() != null) {
+            return null;
+        }
+        synchronized (this) {
+            if (state == State.OPEN || (state == State.HALF_OPEN && trial != null)) {
+                throw new CircuitOpenException("Docker daemon is unavailable, failing fast: " + exchange);
+            }
+            if (state == State.HALF_OPEN) {
+                trial = exchange;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void afterHeaders(DockerExchange exchange) {
+        // a stream may stay open for long, its response head already shows the daemon answered
+        if (probing.get() == null) {
+            succeeded();
+        }
+    }
+
+    @Override
+    public void onComplete(DockerExchange exchange, DockerResponse response) {
+        if (probing.get() == null) {
+            succeeded();
+        }
+    }
+
+    private synchronized void succeeded() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            trial = null;
+            transition(State.CLOSED);
+        }
+    }
+
+    @Override
+    public void onError(DockerExchange exchange, Throwable error) {
+        if (probing.get() != null) {
+            return;
+        }
+        synchronized (this) {
+            if (exchange == trial) {
+                // also if another interceptor failed the trial before it was sent, to let the next one through
+                trial = null;
+            }
+        }
+        if (!(error instanceof ConnectException || isDaemonTimeout(exchange, error))) {
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("Opening circuit after {} consecutive failures, last: {}", consecutiveFailures, error.toString());
+                transition(State.OPEN);
+                scheduleProbe();
+            }
+        }
+    }
+
+    private static boolean isDaemonTimeout(DockerExchange exchange, Throwable error) {
+        return error instanceof SocketTimeoutException
+                && exchange.getStatusCode() < 0
+                && !RequestScope.currentDeadline().isExpired();
+    }
+
+    private void scheduleProbe() {
+        if (!closed) {
+            executor.schedule(this::runProbe, probeIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void runProbe() {
+        BooleanSupplier probe = this.probe;
+        boolean healthy;
+        probing.set(Boolean.TRUE);
+        try {
+            healthy = probe != null && probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            healthy = false;
+        } finally {
+            probing.remove();
+        }
+        synchronized (this) {
+            if (state != State.OPEN) {
+                return;
+            }
+            if (healthy) {
+                consecutiveFailures = 0;
+                transition(State.HALF_OPEN);
+            } else {
+                scheduleProbe();
+            }
+        }
+    }
+
+    private void transition(State next) {
+        log.debug("Circuit {} -> {}", state, next);
+        state = next;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    public static class Builder {
+        private int failureThreshold = 5;
+        private long probeIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+
+        private Builder() {
+        }
+
+        /**
+         * The number of consecutive connection failures or timeouts that opens the circuit (default: 5).
+          *
+          * @param failureThreshold the failure threshold
+          * @return this builder
+         */
+        public Builder withFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * How often the daemon is pinged while the circuit is open (default: 1 second).
+          *
+          * @param interval the probe interval
+          * @param unit the time unit
+          * @return this builder
+         */
+        public Builder withProbeInterval(long interval, TimeUnit unit) {
+            this.probeIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            if (failureThreshold < 1 || probeIntervalNanos <= 0) {
+                throw new IllegalArgumentException("Invalid circuit breaker settings: threshold=" + failureThreshold
+                        + ", probe interval=" + probeIntervalNanos + "ns");
+            }
+            return new CircuitBreaker(this);
+        }
+    }
+}
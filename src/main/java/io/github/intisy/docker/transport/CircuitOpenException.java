@@ -0,0 +1,15 @@
+package io.github.intisy.docker.transport;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the {@link CircuitBreaker} considers the daemon unhealthy.
+ *
+ * @author Finn Birich
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.intisy.docker.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kept-alive connections to one daemon endpoint. Idle connections are handed out most recently
+ * used first, so a steady load runs on a few warm connections while the rest expire.
+ *
+ * @author Finn Birich
+ */
+final class ConnectionPool implements Closeable {
+    private final Connector connector;
+    private final ArrayDeque<HttpConnection> idle = new ArrayDeque<>();
+    private volatile int maxIdleConnections;
+    private volatile long keepAliveNanos;
+    private boolean closed;
+
+    ConnectionPool(Connector connector, int maxIdleConnections, long keepAliveMs) {
+        this.connector = connector;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMs);
+    }
+
+    int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+        trim();
+    }
+
+    void setKeepAlive(long keepAliveMs) {
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMs);
+    }
+
+    /**
+     * Take the most recently used idle connection. Connections idle for longer than the keep-alive
+     * time are closed instead.
+      *
+      * @return the connection, or null if none is idle
+     */
+    HttpConnection acquire() {
+        long now = System.nanoTime();
+        synchronized (idle) {
+            HttpConnection connection = idle.pollFirst();
+            if (connection == null || now - connection.getIdleSince() < keepAliveNanos) {
+                return connection;
+            }
+            // the others have been idle even longer
+            connection.close();
+            while ((connection = idle.pollFirst()) != null) {
+                connection.close();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Open a new connection.
+      *
+      * @param connectTimeoutMs the connect timeout in milliseconds, 0 meaning infinite
+      * @return the connection
+      * @throws java.net.ConnectException if the daemon could not be reached
+     */
+    HttpConnection connect(int connectTimeoutMs) throws IOException {
+        Socket socket = connector.connect(connectTimeoutMs);
+        try {
+            return new HttpConnection(socket);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a connection after its response was read. It is kept for the next request if it is
+     * reusable and the pool has room, and closed otherwise.
+      *
+      * @param connection the connection
+     */
+    void release(HttpConnection connection) {
+        if (connection.isReusable() && maxIdleConnections > 0) {
+            connection.setIdleSince(System.nanoTime());
+            synchronized (idle) {
+                if (!closed) {
+                    idle.addFirst(connection);
+                    connection = idle.size() > maxIdleConnections ? idle.pollLast() : null;
+                }
+            }
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private void trim() {
+        synchronized (idle) {
+            while (idle.size() > maxIdleConnections) {
+                idle.pollLast().close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            HttpConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Opens sockets to the daemon.
+     */
+    interface Connector {
+        /**
+         * @param timeoutMs the connect timeout in milliseconds, 0 meaning infinite
+         * @return the connected socket
+         * @throws java.net.ConnectException if the daemon could not be reached
+         */
+        Socket connect(int timeoutMs) throws IOException;
+    }
+}
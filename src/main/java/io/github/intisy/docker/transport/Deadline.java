@@ -0,0 +1,69 @@
+package io.github.intisy.docker.transport;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in {@link System#nanoTime()} by which a request has to be done, or none.
+ *
+ * @author Finn Birich
+ */
+final class Deadline {
+    static final Deadline NONE = new Deadline(0, false);
+
+    private final long at;
+    private final boolean bounded;
+
+    private Deadline(long at, boolean bounded) {
+        this.at = at;
+        this.bounded = bounded;
+    }
+
+    static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout), true);
+    }
+
+    boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * @return the earlier of the two deadlines
+     */
+    Deadline min(Deadline other) {
+        if (!other.bounded) {
+            return this;
+        }
+        if (!bounded) {
+            return other;
+        }
+        return other.at - at < 0 ? other : this;
+    }
+
+    boolean isExpired() {
+        return bounded && at - System.nanoTime() <= 0;
+    }
+
+    long remainingNanos() {
+        return bounded ? at - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Shorten a socket timeout so it does not run past this deadline.
+     *
+     * @param timeoutMs the timeout in milliseconds, 0 meaning infinite
+     * @return the timeout to use, 0 meaning infinite
+     * @throws SocketTimeoutException if the deadline has passed
+     */
+    int clamp(int timeoutMs) throws SocketTimeoutException {
+        if (!bounded) {
+            return timeoutMs;
+        }
+        long remaining = at - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Request deadline exceeded");
+        }
+        long remainingMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining + 999_999));
+        return (int) (timeoutMs == 0 ? Math.min(remainingMs, Integer.MAX_VALUE) : Math.min(remainingMs, timeoutMs));
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.intisy.docker.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+/**
+ * Enforces a read timeout and an overall deadline on a socket's input: before every read the
+ * socket timeout is shortened to what is left of the deadline. Without a socket only the deadline
+ * is checked between reads.
+ *
+ * @author Finn Birich
+ */
+class DeadlineInputStream extends FilterInputStream {
+    private final Socket socket;
+    private Deadline deadline;
+    private int readTimeoutMs;
+    private int armedTimeoutMs = -1;
+
+    DeadlineInputStream(InputStream in, Socket socket, int readTimeoutMs, Deadline deadline) {
+        super(in);
+        this.socket = socket;
+        this.readTimeoutMs = readTimeoutMs;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Change the read timeout, e.g. to the idle timeout once a stream has started.
+     *
+     * @param readTimeoutMs the timeout in milliseconds, 0 meaning infinite
+     */
+    void setReadTimeout(int readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * Start the next request on a kept-alive connection.
+     *
+     * @param readTimeoutMs the timeout in milliseconds, 0 meaning infinite
+     * @param deadline the deadline of the request
+     */
+    void reset(int readTimeoutMs, Deadline deadline) {
+        this.readTimeoutMs = readTimeoutMs;
+        this.deadline = deadline;
+    }
+
+    private void arm() throws IOException {
+        int timeout = deadline.clamp(readTimeoutMs);
+        if (socket != null && timeout != armedTimeoutMs) {
+            socket.setSoTimeout(timeout);
+            armedTimeoutMs = timeout;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        arm();
+        return in.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        arm();
+        return in.read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        arm();
+        return in.skip(n);
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.intisy.docker.transport;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One request to the daemon and what is known about its response, as seen by a {@link DockerInterceptor}.
+ *
+ * @author Finn Birich
+ */
+public class DockerExchange {
+    private final String method;
+    private final String path;
+    private final RequestPath requestPath;
+    private final JsonBody body;
+    private final boolean streaming;
+    private final long startNanos;
+    private RequestPriority priority;
+    private Map<String, Object> attributes;
+    private int statusCode = -1;
+    private Map<String, List<String>> headers = Collections.emptyMap();
+    private long bytesSent = -1;
+    private long bytesReceived = -1;
+    private boolean connectionReused;
+    private String responseBody;
+
+    DockerExchange(String method, RequestPath path, JsonBody body, boolean streaming) {
+        this.method = method;
+        this.path = path.toString();
+        this.requestPath = path;
+        this.body = body;
+        this.streaming = streaming;
+        this.startNanos = System.nanoTime();
+        this.priority = RequestScope.currentPriority();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the request path including the query string, without the API version prefix.
+     *
+     * @return the request path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the endpoint template of the path, e.g. {@code /containers/{id}/json}.
+     *
+     * @return the endpoint template
+     */
+    public String getEndpoint() {
+        return requestPath.getTemplate();
+    }
+
+    /**
+     * Get the scheduling priority: the one set by the command, or the endpoint's default.
+     *
+     * @return the priority
+     */
+    public RequestPriority getPriority() {
+        if (priority == null) {
+            priority = RequestPriority.defaultFor(this);
+        }
+        return priority;
+    }
+
+    /**
+     * Get the JSON request body, decoded on each call.
+     *
+     * @return the request body, or null if the request has none
+     */
+    public String getBody() {
+        return body != null ? body.toString() : null;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Get the {@link System#nanoTime()} at which the exchange was created, before any interceptor ran.
+     *
+     * @return the start time in nanoseconds
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Get the HTTP status code, or -1 before the headers have been received.
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public long getBytesSent() {
+        if (bytesSent < 0) {
+            bytesSent = body != null ? body.length() : 0;
+        }
+        return bytesSent;
+    }
+
+    /**
+     * Get the number of response body bytes received so far.
+     *
+     * @return the received byte count
+     */
+    public long getBytesReceived() {
+        if (bytesReceived < 0) {
+            bytesReceived = utf8Length(responseBody);
+        }
+        return bytesReceived;
+    }
+
+    /**
+     * Check whether the request was sent on a connection that had carried an earlier request.
+     *
+     * @return true if the connection was reused
+     */
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    void setConnectionReused(boolean connectionReused) {
+        this.connectionReused = connectionReused;
+    }
+
+    public Object getAttribute(String name) {
+        return attributes != null ? attributes.get(name) : null;
+    }
+
+    public void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        attributes.put(name, value);
+    }
+
+    void setResponseHeaders(int statusCode, Map<String, List<String>> headers) {
+        this.statusCode = statusCode;
+        this.headers = headers != null ? headers : Collections.emptyMap();
+    }
+
+    void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+        this.bytesReceived = -1;
+    }
+
+    void addBytesReceived(long bytes) {
+        bytesReceived = Math.max(bytesReceived, 0) + bytes;
+    }
+
+    static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (statusCode >= 0 ? " -> " + statusCode : "");
+    }
+}
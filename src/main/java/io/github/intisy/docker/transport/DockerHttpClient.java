@@ -2,17 +2,26 @@ package io.github.intisy.docker.transport;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import io.github.intisy.docker.jfr.DockerEvents;
+import io.github.intisy.docker.metrics.DockerClientMetrics;
+import io.github.intisy.docker.model.ModelTypeAdapterFactory;
+import io.github.intisy.docker.model.StringPool;
 import org.newsclub.net.unix.AFUNIXSocket;
 import org.newsclub.net.unix.AFUNIXSocketAddress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.HttpURLConnection;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.net.URL;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Finn Birich
@@ -20,13 +29,37 @@ import java.util.*;
 public class DockerHttpClient implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(DockerHttpClient.class);
     
-    private static final String API_VERSION = "v1.44";
+    static final String API_VERSION = "v1.44";
     private static final int DEFAULT_TIMEOUT = 30000;
+    private static final int DEFAULT_TCP_PORT = 2375;
+    private static final int DEFAULT_TLS_PORT = 2376;
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 8;
+    private static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = 30000;
+    private static final int DEFAULT_PIPELINE_DEPTH = 16;
+    private static final long PIPELINING_RETRY_NANOS = TimeUnit.MINUTES.toNanos(10);
 
     private final String dockerHost;
     private final Gson gson;
-    private final int timeout;
-    private Socket currentSocket;
+    private final ModelTypeAdapterFactory modelAdapters = new ModelTypeAdapterFactory();
+    private volatile int connectTimeout;
+    private volatile int readTimeout;
+    private volatile int requestTimeout;
+    private volatile int streamIdleTimeout;
+    private volatile boolean tcpNoDelay = true;
+    private volatile int sendBufferSize;
+    private volatile int receiveBufferSize;
+    private volatile TlsConfig tls;
+    private final ConnectionPool connectionPool;
+    private volatile Socket currentSocket;
+    private volatile int pipelineDepth = DEFAULT_PIPELINE_DEPTH;
+    private volatile BufferPool bufferPool = BufferPool.shared();
+    private volatile boolean pipeliningFailed;
+    private volatile long pipeliningFailedAt;
+    private volatile RequestCoalescer coalescer;
+    private volatile RetryPolicy retryPolicy;
+    private volatile DockerInterceptor[] interceptors = new DockerInterceptor[0];
+    private MetricsInterceptor metricsInterceptor;
+    private FlightRecorderInterceptor flightRecorderInterceptor;
 
     public DockerHttpClient(String dockerHost) {
         this(dockerHost, DEFAULT_TIMEOUT);
@@ -34,10 +67,15 @@ public class DockerHttpClient implements Closeable {
 
     public DockerHttpClient(String dockerHost, int timeoutMs) {
         this.dockerHost = dockerHost;
-        this.timeout = timeoutMs;
+        this.connectTimeout = timeoutMs;
+        this.readTimeout = timeoutMs;
         this.gson = new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'")
+                .registerTypeAdapterFactory(modelAdapters)
                 .create();
+        this.connectionPool = createConnectionPool();
+        if (dockerHost.startsWith("https://")) {
+            this.tls = TlsConfig.builder().build();
+        }
         log.debug("Created DockerHttpClient for host: {}", dockerHost);
     }
 
@@ -45,232 +83,568 @@ public class DockerHttpClient implements Closeable {
         return gson;
     }
 
+    /**
+     * Deduplicate repeating strings, such as labels and image names, of the containers, images,
+     * networks and volumes read by this client.
+     *
+     * @param stringPool the pool, or null to keep every string as parsed
+     */
+    public void setStringPool(StringPool stringPool) {
+        modelAdapters.setStringPool(stringPool);
+    }
+
+    /**
+     * Share one in-flight GET among identical concurrent callers, keyed by method, path and query.
+     * With a positive cache TTL successful responses are also reused for that long. Once a
+     * non-GET request completes, the cache is cleared and GETs already in flight are neither
+     * joined nor cached, since they may have read the state before the change.
+     *
+     * @param enabled whether to coalesce identical concurrent GET requests
+     * @param cacheTtlMs how long to reuse successful responses, or 0 to only share in-flight requests
+     */
+    public void setRequestCoalescing(boolean enabled, long cacheTtlMs) {
+        this.coalescer = enabled ? new RequestCoalescer(cacheTtlMs) : null;
+    }
+
+    /**
+     * Set how long connecting to the daemon may take.
+     *
+     * @param connectTimeoutMs the connect timeout in milliseconds, or 0 for none
+     */
+    public void setConnectTimeout(int connectTimeoutMs) {
+        this.connectTimeout = connectTimeoutMs;
+    }
+
+    /**
+     * Set how long a request may wait for data from the daemon, and a stream for its headers.
+     * Not used for requests of a command with its own timeout, see {@link RequestScope}.
+     *
+     * @param readTimeoutMs the read timeout in milliseconds, or 0 for none
+     */
+    public void setReadTimeout(int readTimeoutMs) {
+        this.readTimeout = readTimeoutMs;
+    }
+
+    /**
+     * Set how long a non-streaming request may take in total, from connecting to the end of the body.
+     *
+     * @param requestTimeoutMs the total timeout in milliseconds, or 0 for none
+     */
+    public void setRequestTimeout(int requestTimeoutMs) {
+        this.requestTimeout = requestTimeoutMs;
+    }
+
+    /**
+     * Set how long an open stream may go without data before it fails, e.g. logs of a hung container.
+     *
+     * @param streamIdleTimeoutMs the idle timeout in milliseconds, or 0 for none
+     */
+    public void setStreamIdleTimeout(int streamIdleTimeoutMs) {
+        this.streamIdleTimeout = streamIdleTimeoutMs;
+    }
+
+    /**
+     * Set whether TCP connections send small writes right away instead of coalescing them (TCP_NODELAY).
+     * Enabled by default, as requests are written in one piece and a delay only adds latency.
+     *
+     * @param tcpNoDelay whether to disable Nagle's algorithm
+     */
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    /**
+     * Set the socket buffer sizes of TCP connections opened from now on, e.g. larger receive
+     * buffers for big lists from a remote daemon.
+     *
+     * @param sendBufferSize the send buffer size in bytes, or 0 for the system default
+     * @param receiveBufferSize the receive buffer size in bytes, or 0 for the system default
+     */
+    public void setSocketBufferSizes(int sendBufferSize, int receiveBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    /**
+     * Connect to a tcp:// daemon over TLS. An https:// daemon uses TLS anyway, verified against the
+     * JVM's trusted CAs unless set here.
+     *
+     * @param tls the TLS settings, or null for plain TCP
+     */
+    public void setTls(TlsConfig tls) {
+        if (tls == null && dockerHost.startsWith("https://")) {
+            tls = TlsConfig.builder().build();
+        }
+        this.tls = tls;
+    }
+
+    /**
+     * Set how many idle connections are kept open for reuse (default: 8). Not used for named pipes.
+     *
+     * @param maxIdleConnections the number of idle connections, or 0 to connect for every request
+     */
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        if (connectionPool != null) {
+            connectionPool.setMaxIdleConnections(maxIdleConnections);
+        }
+    }
+
+    /**
+     * Set how long an idle connection is kept open for reuse (default: 30 seconds).
+     *
+     * @param idleConnectionTimeoutMs the idle time in milliseconds
+     */
+    public void setIdleConnectionTimeout(int idleConnectionTimeoutMs) {
+        if (connectionPool != null) {
+            connectionPool.setKeepAlive(idleConnectionTimeoutMs);
+        }
+    }
+
+    /**
+     * Read responses into buffers from this pool instead of the shared one.
+     *
+     * @param bufferPool the buffer pool, or null for {@link BufferPool#shared()}
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool != null ? bufferPool : BufferPool.shared();
+    }
+
+    /**
+     * Set how many requests of {@link #getAll(List)} are written to a connection before their
+     * responses are read (default: 16).
+     *
+     * @param pipelineDepth the number of pipelined requests, or 1 to send batches as concurrent requests
+     */
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * Retry transient failures of non-streaming requests. Every attempt passes through the interceptors.
+     *
+     * @param retryPolicy the retry policy, or null to surface every failure directly
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Report every request sent to the daemon to a metrics sink.
+     *
+     * @param metrics the metrics sink, or null to disable metrics
+     */
+    public synchronized void setMetrics(DockerClientMetrics metrics) {
+        if (metricsInterceptor != null) {
+            removeInterceptor(metricsInterceptor);
+        }
+        metricsInterceptor = metrics != null ? new MetricsInterceptor(metrics) : null;
+        if (metricsInterceptor != null) {
+            addInterceptor(metricsInterceptor);
+        }
+    }
+
+    /**
+     * Emit a {@link DockerEvents} JFR event for every request sent to the daemon. Ignored where
+     * JFR is not available, e.g. on Java 8.
+     *
+     * @param enabled whether to emit request and stream events
+     */
+    public synchronized void setFlightRecorderEvents(boolean enabled) {
+        if (enabled && flightRecorderInterceptor == null && DockerEvents.isAvailable()) {
+            flightRecorderInterceptor = new FlightRecorderInterceptor();
+            addInterceptor(flightRecorderInterceptor);
+        } else if (!enabled && flightRecorderInterceptor != null) {
+            removeInterceptor(flightRecorderInterceptor);
+            flightRecorderInterceptor = null;
+        }
+    }
+
+    /**
+     * Add an interceptor that is called around every request, after those already added.
+     *
+     * @param interceptor the interceptor
+     */
+    public synchronized void addInterceptor(DockerInterceptor interceptor) {
+        DockerInterceptor[] current = interceptors;
+        DockerInterceptor[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = interceptor;
+        interceptors = updated;
+    }
+
+    public synchronized void removeInterceptor(DockerInterceptor interceptor) {
+        List<DockerInterceptor> updated = new ArrayList<>(Arrays.asList(interceptors));
+        if (updated.remove(interceptor)) {
+            interceptors = updated.toArray(new DockerInterceptor[0]);
+        }
+    }
+
     public DockerResponse get(String path) throws IOException {
-        return request("GET", path, null);
+        return request("GET", RequestPath.of(path), null);
     }
 
     public DockerResponse get(String path, Map<String, String> queryParams) throws IOException {
-        String fullPath = buildPathWithQuery(path, queryParams);
-        return request("GET", fullPath, null);
+        return request("GET", RequestPath.of(path).query(queryParams), null);
+    }
+
+    public DockerResponse get(RequestPath path) throws IOException {
+        return request("GET", path, null);
+    }
+
+    /**
+     * Get many paths at once, e.g. to inspect thousands of containers. Over unix and TCP sockets the
+     * requests are pipelined: a window of them is written to one kept-alive connection before the
+     * responses are read in order, so the batch waits for a round trip once per window instead of
+     * once per request. Pipelined requests pass through the interceptors, but are neither retried
+     * nor coalesced.
+     * <p>
+     * If the daemon, or a proxy in front of it, fails a pipelined connection, pipelining is turned
+     * off for this client for ten minutes and the remaining requests are sent concurrently on
+     * pooled connections, as they are for named pipes.
+     * <p>
+     * A {@link DockerRateLimiter} limiting concurrency also limits the window to the slots free
+     * when it is written, since every request of a window holds a slot until its response is read.
+     *
+     * @param paths the paths
+     * @return the responses, in the order of the paths
+     */
+    public List<DockerResponse> getAll(List<RequestPath> paths) throws IOException {
+        DockerInterceptor[] chain = interceptors;
+        DockerExchange[] exchanges = chain.length > 0 ? new DockerExchange[paths.size()] : null;
+        DockerResponse[] responses = new DockerResponse[paths.size()];
+        int answered = 0;
+        if (connectionPool != null && pipelineDepth > 1 && isPipeliningEnabled()) {
+            answered = pipeline(paths, chain, exchanges, responses, pipelineDepth);
+        }
+        if (answered < responses.length) {
+            getConcurrently(paths, chain, exchanges, responses, answered);
+        }
+        return Arrays.asList(responses);
+    }
+
+    private boolean isPipeliningEnabled() {
+        return !pipeliningFailed || System.nanoTime() - pipeliningFailedAt > PIPELINING_RETRY_NANOS;
     }
 
     public DockerResponse post(String path, Object body) throws IOException {
-        String jsonBody = body != null ? gson.toJson(body) : null;
-        return request("POST", path, jsonBody);
+        return post(RequestPath.of(path), body);
     }
 
     public DockerResponse post(String path) throws IOException {
-        return request("POST", path, null);
+        return request("POST", RequestPath.of(path), null);
     }
 
     public DockerResponse post(String path, Map<String, String> queryParams, Object body) throws IOException {
-        String fullPath = buildPathWithQuery(path, queryParams);
-        String jsonBody = body != null ? gson.toJson(body) : null;
-        if (jsonBody != null && path.contains("/containers/create")) {
-            log.info("Creating container with JSON: {}", jsonBody);
+        return post(RequestPath.of(path).query(queryParams), body);
+    }
+
+    public DockerResponse post(RequestPath path) throws IOException {
+        return request("POST", path, null);
+    }
+
+    public DockerResponse post(RequestPath path, Object body) throws IOException {
+        JsonBody jsonBody = body != null ? JsonBody.of(gson, body) : null;
+        if (jsonBody != null && log.isDebugEnabled() && path.getTemplate().equals("/containers/create")) {
+            log.debug("Creating container with JSON: {}", jsonBody);
         }
-        return request("POST", fullPath, jsonBody);
+        return request("POST", path, jsonBody);
     }
 
     public DockerResponse delete(String path) throws IOException {
-        return request("DELETE", path, null);
+        return request("DELETE", RequestPath.of(path), null);
     }
 
     public DockerResponse delete(String path, Map<String, String> queryParams) throws IOException {
-        String fullPath = buildPathWithQuery(path, queryParams);
-        return request("DELETE", fullPath, null);
+        return request("DELETE", RequestPath.of(path).query(queryParams), null);
+    }
+
+    public DockerResponse delete(RequestPath path) throws IOException {
+        return request("DELETE", path, null);
     }
 
     public void postStream(String path, Map<String, String> queryParams, StreamCallback<String> callback) throws IOException {
-        String fullPath = buildPathWithQuery(path, queryParams);
-        requestStream("POST", fullPath, null, callback);
+        requestStream("POST", RequestPath.of(path).query(queryParams), null, callback);
+    }
+
+    public void postStream(RequestPath path, StreamCallback<String> callback) throws IOException {
+        requestStream("POST", path, null, callback);
     }
 
     public void getStream(String path, Map<String, String> queryParams, StreamCallback<String> callback) throws IOException {
-        String fullPath = buildPathWithQuery(path, queryParams);
-        requestStream("GET", fullPath, null, callback);
+        requestStream("GET", RequestPath.of(path).query(queryParams), null, callback);
     }
 
-    private String buildPathWithQuery(String path, Map<String, String> queryParams) {
-        if (queryParams == null || queryParams.isEmpty()) {
-            return path;
-        }
-        StringBuilder sb = new StringBuilder(path);
-        sb.append("?");
-        boolean first = true;
-        for (Map.Entry<String, String> entry : queryParams.entrySet()) {
-            if (!first) {
-                sb.append("&");
+    public void getStream(RequestPath path, StreamCallback<String> callback) throws IOException {
+        requestStream("GET", path, null, callback);
+    }
+
+    private DockerResponse request(String method, RequestPath path, JsonBody body) throws IOException {
+        RequestCoalescer coalescer = this.coalescer;
+        if (coalescer != null) {
+            if (method.equals("GET")) {
+                return coalescer.execute(method + " " + path, () -> executeWithRetry(method, path, body));
+            }
+            try {
+                return executeWithRetry(method, path, body);
+            } finally {
+                // also after a failure, the daemon may have applied the change
+                coalescer.invalidate();
             }
-            sb.append(urlEncode(entry.getKey())).append("=").append(urlEncode(entry.getValue()));
-            first = false;
         }
-        return sb.toString();
+        return executeWithRetry(method, path, body);
     }
 
-    private String urlEncode(String value) {
+    private DockerResponse executeWithRetry(String method, RequestPath path, JsonBody body) throws IOException {
+        RetryPolicy retryPolicy = this.retryPolicy;
+        if (retryPolicy == null) {
+            return execute(method, path, body);
+        }
+        return retryPolicy.execute(method, path, () -> execute(method, path, body));
+    }
+
+    private DockerResponse execute(String method, RequestPath path, JsonBody body) throws IOException {
+        DockerInterceptor[] chain = interceptors;
+        if (chain.length == 0) {
+            return dispatch(null, null, method, path.toString(), body);
+        }
+        DockerExchange exchange = new DockerExchange(method, path, body, false);
+        DockerResponse response;
         try {
-            return java.net.URLEncoder.encode(value, StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            return value;
+            response = beforeSend(chain, exchange);
+            if (response == null) {
+                response = dispatch(chain, exchange, method, path.toString(), body);
+            }
+        } catch (IOException | RuntimeException e) {
+            onError(chain, exchange, e);
+            throw e;
+        }
+        complete(chain, exchange, response);
+        return response;
+    }
+
+    private static DockerResponse beforeSend(DockerInterceptor[] chain, DockerExchange exchange) throws IOException {
+        DockerResponse response = null;
+        for (int i = 0; i < chain.length && response == null; i++) {
+            response = chain[i].beforeSend(exchange);
+        }
+        return response;
+    }
+
+    /**
+     * Finish an exchange with its response. Interceptors that have not seen the headers yet, because
+     * they were not read separately, get {@link DockerInterceptor#afterHeaders} first.
+     */
+    private static void complete(DockerInterceptor[] chain, DockerExchange exchange, DockerResponse response) {
+        if (exchange.getStatusCode() < 0) {
+            headersReceived(chain, exchange, response.getStatusCode(), response.getHeaders());
+        }
+        exchange.setResponseBody(response.getBody());
+        for (int i = chain.length - 1; i >= 0; i--) {
+            try {
+                chain[i].onComplete(exchange, response);
+            } catch (RuntimeException e) {
+                log.warn("Interceptor {} failed in onComplete: {}", chain[i].getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    static void headersReceived(DockerInterceptor[] chain, DockerExchange exchange, int statusCode,
+                                Map<String, List<String>> headers) {
+        exchange.setResponseHeaders(statusCode, headers);
+        for (int i = chain.length - 1; i >= 0; i--) {
+            try {
+                chain[i].afterHeaders(exchange);
+            } catch (RuntimeException e) {
+                log.warn("Interceptor {} failed in afterHeaders: {}", chain[i].getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    private static void onError(DockerInterceptor[] chain, DockerExchange exchange, Throwable error) {
+        for (int i = chain.length - 1; i >= 0; i--) {
+            try {
+                chain[i].onError(exchange, error);
+            } catch (RuntimeException e) {
+                log.warn("Interceptor {} failed in onError: {}", chain[i].getClass().getName(), e.getMessage());
+            }
         }
     }
 
-    private DockerResponse request(String method, String path, String body) throws IOException {
+    /**
+     * @param chain the interceptors of the exchange, or null without interceptors
+     * @param exchange the exchange to record the connection and headers on, or null without interceptors
+     */
+    private DockerResponse dispatch(DockerInterceptor[] chain, DockerExchange exchange, String method, String path,
+                                    JsonBody body) throws IOException {
         log.trace("{} {}", method, path);
-        if (dockerHost.startsWith("unix://")) {
-            return unixSocketRequest(method, path, body);
+        Deadline deadline = RequestScope.currentDeadline();
+        int readTimeout = deadline.isBounded() ? 0 : this.readTimeout;
+        int requestTimeout = this.requestTimeout;
+        if (requestTimeout > 0) {
+            deadline = deadline.min(Deadline.after(requestTimeout, TimeUnit.MILLISECONDS));
+        }
+        if (connectionPool != null) {
+            return socketRequest(chain, exchange, method, path, body, readTimeout, deadline);
         } else if (dockerHost.startsWith("npipe://")) {
+            // pipe reads cannot time out; the deadline is only checked before sending
+            deadline.clamp(0);
             return namedPipeRequest(method, path, body);
-        } else if (dockerHost.startsWith("tcp://") || dockerHost.startsWith("http://")) {
-            return tcpRequest(method, path, body);
         } else {
             throw new IOException("Unsupported Docker host: " + dockerHost);
         }
     }
 
-    private void requestStream(String method, String path, String body, StreamCallback<String> callback) throws IOException {
+    private void requestStream(String method, RequestPath path, JsonBody body, StreamCallback<String> callback) throws IOException {
+        DockerInterceptor[] chain = interceptors;
+        if (chain.length == 0) {
+            dispatchStream(null, method, path.toString(), body, callback);
+            return;
+        }
+        DockerExchange exchange = new DockerExchange(method, path, body, true);
+        InterceptedStreamCallback intercepted = new InterceptedStreamCallback(callback, chain, exchange);
+        try {
+            for (DockerInterceptor interceptor : chain) {
+                interceptor.beforeSend(exchange);
+            }
+            dispatchStream(exchange, method, path.toString(), body, intercepted);
+        } catch (IOException | RuntimeException e) {
+            intercepted.failed(e);
+            throw e;
+        } finally {
+            if (intercepted.error != null) {
+                onError(chain, exchange, intercepted.error);
+            } else {
+                for (int i = chain.length - 1; i >= 0; i--) {
+                    try {
+                        chain[i].onComplete(exchange, null);
+                    } catch (RuntimeException e) {
+                        log.warn("Interceptor {} failed in onComplete: {}", chain[i].getClass().getName(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void dispatchStream(DockerExchange exchange, String method, String path, JsonBody body,
+                                StreamCallback<String> callback) throws IOException {
         log.trace("{} {} (streaming)", method, path);
-        if (dockerHost.startsWith("unix://")) {
-            unixSocketRequestStream(method, path, body, callback);
+        Deadline deadline = RequestScope.currentDeadline();
+        int readTimeout = deadline.isBounded() ? 0 : this.readTimeout;
+        if (connectionPool != null) {
+            socketRequestStream(exchange, method, path, body, callback, readTimeout, deadline);
         } else if (dockerHost.startsWith("npipe://")) {
+            deadline.clamp(0);
             namedPipeRequestStream(method, path, body, callback);
-        } else if (dockerHost.startsWith("tcp://") || dockerHost.startsWith("http://")) {
-            tcpRequestStream(method, path, body, callback);
         } else {
             throw new IOException("Unsupported Docker host: " + dockerHost);
         }
     }
 
-    private DockerResponse unixSocketRequest(String method, String path, String body) throws IOException {
-        String socketPath = dockerHost.substring(7);
-        
-        File socketFile = new File(socketPath);
-        AFUNIXSocketAddress address = AFUNIXSocketAddress.of(socketFile);
-        
-        try (AFUNIXSocket socket = AFUNIXSocket.newInstance()) {
-            socket.connect(address);
-            socket.setSoTimeout(timeout);
-            
-            return sendHttpRequest(socket, method, path, body);
+    private ConnectionPool createConnectionPool() {
+        ConnectionPool.Connector connector;
+        if (dockerHost.startsWith("unix://")) {
+            connector = this::connectUnixSocket;
+        } else if (dockerHost.startsWith("tcp://") || dockerHost.startsWith("http://") || dockerHost.startsWith("https://")) {
+            connector = this::connectTcpSocket;
+        } else {
+            return null;
         }
+        return new ConnectionPool(connector, DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_IDLE_CONNECTION_TIMEOUT);
     }
 
-    private void unixSocketRequestStream(String method, String path, String body, StreamCallback<String> callback) throws IOException {
-        String socketPath = dockerHost.substring(7);
-        
-        File socketFile = new File(socketPath);
-        AFUNIXSocketAddress address = AFUNIXSocketAddress.of(socketFile);
-        
+    private Socket connectUnixSocket(int timeoutMs) throws IOException {
+        AFUNIXSocketAddress address = AFUNIXSocketAddress.of(new File(dockerHost.substring(7)));
         AFUNIXSocket socket = AFUNIXSocket.newInstance();
         try {
-            socket.connect(address);
-            socket.setSoTimeout(0);
-            this.currentSocket = socket;
-            
-            sendHttpRequestStream(socket, method, path, body, callback);
-        } finally {
-            this.currentSocket = null;
-            try {
-                socket.close();
-            } catch (IOException ignored) {}
+            connect(socket, address, timeoutMs);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
         }
+        return socket;
     }
 
-    private DockerResponse namedPipeRequest(String method, String path, String body) throws IOException {
-        String pipePath = dockerHost.substring(8);
-        pipePath = pipePath.replace("/", "\\");
-        if (!pipePath.startsWith("\\\\.\\pipe\\")) {
-            pipePath = "\\\\.\\pipe\\" + pipePath;
+    private Socket connectTcpSocket(int timeoutMs) throws IOException {
+        TlsConfig tls = this.tls;
+        InetSocketAddress address = tcpAddress(tls != null ? DEFAULT_TLS_PORT : DEFAULT_TCP_PORT);
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(tcpNoDelay);
+            if (sendBufferSize > 0) {
+                socket.setSendBufferSize(sendBufferSize);
+            }
+            if (receiveBufferSize > 0) {
+                // before connecting, so the window scale can be negotiated
+                socket.setReceiveBufferSize(receiveBufferSize);
+            }
+            socket.connect(address, timeoutMs);
+        } catch (IOException e) {
+            socket.close();
+            throw connectFailed(address.toString(), e);
         }
-        
-        try (RandomAccessFile pipe = new RandomAccessFile(pipePath, "rw")) {
-            return sendHttpRequestViaPipe(pipe, method, path, body);
+        if (tls != null) {
+            return tls.handshake(socket, address.getHostString(), address.getPort(), timeoutMs);
         }
+        return socket;
     }
 
-    private void namedPipeRequestStream(String method, String path, String body, StreamCallback<String> callback) throws IOException {
-        String pipePath = dockerHost.substring(8);
-        pipePath = pipePath.replace("/", "\\");
-        if (!pipePath.startsWith("\\\\.\\pipe\\")) {
-            pipePath = "\\\\.\\pipe\\" + pipePath;
+    private InetSocketAddress tcpAddress(int defaultPort) throws IOException {
+        String authority = dockerHost.substring(dockerHost.indexOf("://") + 3);
+        int slash = authority.indexOf('/');
+        if (slash >= 0) {
+            authority = authority.substring(0, slash);
         }
-        
-        try (RandomAccessFile pipe = new RandomAccessFile(pipePath, "rw")) {
-            sendHttpRequestStreamViaPipe(pipe, method, path, body, callback);
+        try {
+            URI uri = new URI("tcp://" + authority);
+            if (uri.getHost() == null) {
+                throw new IOException("Invalid Docker host: " + dockerHost);
+            }
+            return new InetSocketAddress(uri.getHost(), uri.getPort() != -1 ? uri.getPort() : defaultPort);
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid Docker host: " + dockerHost, e);
         }
     }
 
-    private DockerResponse tcpRequest(String method, String path, String body) throws IOException {
-        String host = dockerHost.replace("tcp://", "http://").replace("http://", "");
-        URL url = new URL("http://" + host + "/" + API_VERSION + path);
-        log.debug("TCP request: {} {} (timeout: {}ms)", method, url, timeout);
-        
+    private DockerResponse socketRequest(DockerInterceptor[] chain, DockerExchange exchange, String method, String path,
+                                         JsonBody body, int readTimeout, Deadline deadline) throws IOException {
+        HttpConnection connection = open(exchange, method, path, body, true, readTimeout, deadline);
+        DockerResponse response;
         try {
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            conn.setConnectTimeout(timeout);
-            conn.setReadTimeout(timeout);
-            conn.setRequestProperty("Host", "docker");
-            conn.setRequestProperty("Content-Type", "application/json");
-            
-            if (body != null) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    os.write(body.getBytes(StandardCharsets.UTF_8));
-                }
-            }
-            
-            int statusCode = conn.getResponseCode();
-            log.debug("TCP response status: {}", statusCode);
-            Map<String, List<String>> headers = conn.getHeaderFields();
-            
-            String responseBody;
-            try (InputStream is = statusCode >= 400 ? conn.getErrorStream() : conn.getInputStream()) {
-                if (is != null) {
-                    responseBody = readStream(is);
-                } else {
-                    responseBody = "";
-                }
+            if (exchange != null) {
+                HttpConnection.ResponseHead head = connection.getResponseHead();
+                headersReceived(chain, exchange, head.statusCode, head.headers);
             }
-            
-            return new DockerResponse(statusCode, headers, responseBody);
-        } catch (IOException e) {
-            log.debug("TCP request failed: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+            response = connection.readResponse(bufferPool);
+        } catch (IOException | RuntimeException e) {
+            connection.close();
             throw e;
         }
+        connectionPool.release(connection);
+        return response;
     }
 
-    private void tcpRequestStream(String method, String path, String body, StreamCallback<String> callback) throws IOException {
-        String host = dockerHost.replace("tcp://", "http://").replace("http://", "");
-        URL url = new URL("http://" + host + "/" + API_VERSION + path);
-        
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod(method);
-        conn.setConnectTimeout(timeout);
-        conn.setReadTimeout(0);
-        conn.setRequestProperty("Host", "docker");
-        conn.setRequestProperty("Content-Type", "application/json");
-        
-        if (body != null) {
-            conn.setDoOutput(true);
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(body.getBytes(StandardCharsets.UTF_8));
-            }
-        }
-        
-        int statusCode = conn.getResponseCode();
-        if (statusCode >= 400) {
-            String errorBody;
-            try (InputStream is = conn.getErrorStream()) {
-                errorBody = is != null ? readStream(is) : "";
+    private void socketRequestStream(DockerExchange exchange, String method, String path, JsonBody body,
+                                     StreamCallback<String> callback, int readTimeout, Deadline deadline) throws IOException {
+        HttpConnection connection = open(exchange, method, path, body, false, readTimeout, deadline);
+        this.currentSocket = connection.getSocket();
+        try {
+            callback.onStart(connection::close);
+            HttpConnection.ResponseHead head = connection.getResponseHead();
+            notifyHeaders(callback, head.statusCode, head.headers);
+            if (head.statusCode >= 400) {
+                callback.onError(new IOException("HTTP " + head.statusCode + ": " + connection.readResponse(bufferPool).getBody()));
+                return;
             }
-            callback.onError(new IOException("HTTP " + statusCode + ": " + errorBody));
-            return;
+            callback.onOpen();
+            connection.setReadTimeout(streamIdleTimeout);
+            readLines(connection.body(), callback);
+        } finally {
+            this.currentSocket = null;
+            connection.close();
         }
-        
-        try (InputStream is = conn.getInputStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+    }
+
+    private void readLines(InputStream body, StreamCallback<String> callback) {
+        try (LineReader reader = new LineReader(body, bufferPool)) {
             String line;
             while ((line = reader.readLine()) != null && !callback.isCancelled()) {
                 if (!line.isEmpty()) {
@@ -283,514 +657,437 @@ public class DockerHttpClient implements Closeable {
         }
     }
 
-    private DockerResponse sendHttpRequest(Socket socket, String method, String path, String body) throws IOException {
-        OutputStream out = socket.getOutputStream();
-        InputStream in = socket.getInputStream();
-        
-        StringBuilder request = new StringBuilder();
-        request.append(method).append(" /").append(API_VERSION).append(path).append(" HTTP/1.1\r\n");
-        request.append("Host: docker\r\n");
-        request.append("Content-Type: application/json\r\n");
-        request.append("Connection: close\r\n");
-        
-        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
-        if (bodyBytes.length > 0) {
-            request.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
+    /**
+     * Send GET requests pipelined, one window of at most {@code depth} requests after another.
+     * Requests the daemon did not answer before closing a connection are sent again on a new one.
+     * The interceptors see every request once, also when it is sent again.
+     *
+     * @return how many of the first requests were answered; if fewer than all, pipelining failed
+     *         and the exchanges of the others are left open for {@link #getConcurrently}
+     */
+    private int pipeline(List<RequestPath> paths, DockerInterceptor[] chain, DockerExchange[] exchanges,
+                         DockerResponse[] responses, int depth) throws IOException {
+        Deadline scope = RequestScope.currentDeadline();
+        int readTimeout = scope.isBounded() ? 0 : this.readTimeout;
+        int[] window = new int[depth];
+        HttpConnection connection = null;
+        boolean pooled = false;
+        boolean fresh = false;
+        int answered = 0;
+        try {
+            while (answered < paths.size()) {
+                int size = Math.min(depth, freeSlots(chain));
+                int count = 0;
+                int end = answered;
+                for (; end < paths.size() && count < size; end++) {
+                    if (exchanges != null && exchanges[end] == null) {
+                        exchanges[end] = new DockerExchange("GET", paths.get(end), null, false);
+                        responses[end] = beforeSend(chain, exchanges[end]);
+                        if (responses[end] != null) {
+                            complete(chain, exchanges[end], responses[end]);
+                        }
+                    }
+                    if (responses[end] == null) {
+                        window[count++] = end;
+                    }
+                }
+                if (count == 0) {
+                    answered = end;
+                    continue;
+                }
+
+                Deadline deadline = scope;
+                if (requestTimeout > 0) {
+                    deadline = deadline.min(Deadline.after(requestTimeout, TimeUnit.MILLISECONDS));
+                }
+                if (connection == null) {
+                    connection = connectionPool.acquire();
+                    pooled = connection != null;
+                    if (connection == null) {
+                        connection = connectionPool.connect(deadline.clamp(connectTimeout));
+                    }
+                    fresh = !pooled;
+                }
+                int read = 0;
+                try {
+                    for (int i = 0; i < count; i++) {
+                        connection.write("GET", paths.get(window[i]).toString(), null, true, readTimeout, deadline);
+                    }
+                    connection.flush();
+                    while (read < count) {
+                        HttpConnection.ResponseHead head = connection.readHead();
+                        int index = window[read];
+                        if (exchanges != null) {
+                            exchanges[index].setConnectionReused(!fresh || read > 0);
+                            headersReceived(chain, exchanges[index], head.statusCode, head.headers);
+                        }
+                        DockerResponse response = connection.readResponse(bufferPool);
+                        read++;
+                        responses[index] = response;
+                        if (exchanges != null) {
+                            complete(chain, exchanges[index], response);
+                        }
+                        if (!connection.isReusable()) {
+                            if (fresh && read == 1 && read < count) {
+                                throw new IOException("Daemon closed the connection with pipelined requests outstanding");
+                            }
+                            break;
+                        }
+                    }
+                } catch (IOException e) {
+                    connection.close();
+                    connection = null;
+                    if (e instanceof InterruptedIOException) {
+                        throw e;
+                    }
+                    if (pooled && read == 0) {
+                        log.debug("Idle connection was closed by the daemon, reconnecting: {}", e.getMessage());
+                        continue;
+                    }
+                    pipeliningFailed = true;
+                    pipeliningFailedAt = System.nanoTime();
+                    log.warn("Pipelined requests failed, sending batches as concurrent requests from now on: {}", e.getMessage());
+                    return read < count ? window[read] : end;
+                }
+                answered = read < count ? window[read] : end;
+                fresh = false;
+                if (!connection.isReusable()) {
+                    connection.close();
+                    connection = null;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            failOutstanding(chain, exchanges, responses, e);
+            throw e;
         }
-        request.append("\r\n");
-        
-        out.write(request.toString().getBytes(StandardCharsets.UTF_8));
-        if (bodyBytes.length > 0) {
-            out.write(bodyBytes);
+        if (connection != null) {
+            connectionPool.release(connection);
         }
-        out.flush();
-        
-        return parseHttpResponse(in);
+        return paths.size();
     }
 
-    private void sendHttpRequestStream(Socket socket, String method, String path, String body, StreamCallback<String> callback) throws IOException {
-        OutputStream out = socket.getOutputStream();
-        InputStream in = socket.getInputStream();
-        
-        StringBuilder request = new StringBuilder();
-        request.append(method).append(" /").append(API_VERSION).append(path).append(" HTTP/1.1\r\n");
-        request.append("Host: docker\r\n");
-        request.append("Content-Type: application/json\r\n");
-        request.append("Connection: close\r\n");
-        
-        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
-        if (bodyBytes.length > 0) {
-            request.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
-        }
-        request.append("\r\n");
-        
-        out.write(request.toString().getBytes(StandardCharsets.UTF_8));
-        if (bodyBytes.length > 0) {
-            out.write(bodyBytes);
-        }
-        out.flush();
-        
-        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-        String statusLine = reader.readLine();
-        if (statusLine == null) {
-            callback.onError(new IOException("No response from server"));
+    private static void failOutstanding(DockerInterceptor[] chain, DockerExchange[] exchanges, DockerResponse[] responses,
+                                        Throwable error) {
+        if (exchanges == null) {
             return;
         }
-        
-        int statusCode = parseStatusCode(statusLine);
-        
-        Map<String, List<String>> headers = new HashMap<>();
-        boolean isChunked = false;
-        String headerLine;
-        while ((headerLine = reader.readLine()) != null && !headerLine.isEmpty()) {
-            int colonIndex = headerLine.indexOf(':');
-            if (colonIndex > 0) {
-                String name = headerLine.substring(0, colonIndex).trim();
-                String value = headerLine.substring(colonIndex + 1).trim();
-                headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
-                if (name.equalsIgnoreCase("Transfer-Encoding") && value.equalsIgnoreCase("chunked")) {
-                    isChunked = true;
-                }
+        for (int i = 0; i < exchanges.length; i++) {
+            if (exchanges[i] != null && responses[i] == null) {
+                onError(chain, exchanges[i], error);
             }
         }
-        
-        if (statusCode >= 400) {
-            StringBuilder errorBody = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                errorBody.append(line);
+    }
+
+    /**
+     * @return how many requests the concurrency limiters of the chain let one caller hold right now
+     */
+    private static int freeSlots(DockerInterceptor[] chain) {
+        int slots = Integer.MAX_VALUE;
+        for (DockerInterceptor interceptor : chain) {
+            if (interceptor instanceof DockerRateLimiter) {
+                slots = Math.min(slots, ((DockerRateLimiter) interceptor).getFreeSlots(RequestScope.currentPriority()));
             }
-            callback.onError(new IOException("HTTP " + statusCode + ": " + errorBody.toString()));
-            return;
         }
-        
-        try {
-            if (isChunked) {
-                readChunkedStream(reader, callback);
-            } else {
-                String line;
-                while ((line = reader.readLine()) != null && !callback.isCancelled()) {
-                    if (!line.isEmpty()) {
-                        callback.onNext(line);
+        return slots;
+    }
+
+    /**
+     * Send the requests without a response from {@code from} on concurrently, each on a pooled
+     * connection, with the priority and deadline of the caller. Requests whose exchange was
+     * already opened by {@link #pipeline} are sent once more without retries, the others as
+     * single requests.
+     */
+    private void getConcurrently(List<RequestPath> paths, DockerInterceptor[] chain, DockerExchange[] exchanges,
+                                 DockerResponse[] responses, int from) throws IOException {
+        int parallelism = connectionPool != null ? Math.max(1, connectionPool.getMaxIdleConnections()) : DEFAULT_MAX_IDLE_CONNECTIONS;
+        RequestPriority priority = RequestScope.currentPriority();
+        Deadline deadline = RequestScope.currentDeadline();
+        AtomicInteger next = new AtomicInteger(from);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            try (RequestScope ignored = RequestScope.inherit(priority, deadline)) {
+                int index;
+                while (failure.get() == null && (index = next.getAndIncrement()) < responses.length) {
+                    if (responses[index] == null) {
+                        DockerExchange exchange = exchanges != null ? exchanges[index] : null;
+                        if (exchange != null) {
+                            exchanges[index] = null;
+                            responses[index] = resend(chain, exchange);
+                        } else {
+                            responses[index] = request("GET", paths.get(index), null);
+                        }
                     }
                 }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
             }
-            callback.onComplete();
-        } catch (IOException e) {
-            callback.onError(e);
+        };
+        Thread[] threads = new Thread[Math.min(parallelism, responses.length - from) - 1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(worker, "docker-batch-request");
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        worker.run();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for batch requests");
+        }
+        Exception e = failure.get();
+        if (e != null) {
+            failOutstanding(chain, exchanges, responses, e);
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e != null) {
+            throw (RuntimeException) e;
         }
     }
-    
+
+    private DockerResponse resend(DockerInterceptor[] chain, DockerExchange exchange) throws IOException {
+        DockerResponse response;
+        try {
+            response = dispatch(chain, exchange, exchange.getMethod(), exchange.getPath(), null);
+        } catch (IOException | RuntimeException e) {
+            onError(chain, exchange, e);
+            throw e;
+        }
+        complete(chain, exchange, response);
+        return response;
+    }
+
     /**
-     * Read a chunked transfer encoding stream and pass JSON objects to the callback.
+     * Send a request and read the response head, on an idle connection if there is one. If the
+     * daemon closed that connection in the meantime, the request is sent again on a new one when
+     * that is safe; see {@link HttpConnection#canRetry(String, IOException)}. Whether the
+     * connection was reused is recorded on the exchange, if there is one.
      */
-    private void readChunkedStream(BufferedReader reader, StreamCallback<String> callback) throws IOException {
-        while (!callback.isCancelled()) {
-            String chunkSizeLine = reader.readLine();
-            if (chunkSizeLine == null) {
-                break;
-            }
-            
-            String sizeStr = chunkSizeLine.trim();
-            if (sizeStr.isEmpty()) {
-                continue;
-            }
-            
-            int semicolonIndex = sizeStr.indexOf(';');
-            if (semicolonIndex > 0) {
-                sizeStr = sizeStr.substring(0, semicolonIndex);
-            }
-            
-            int chunkSize;
+    private HttpConnection open(DockerExchange exchange, String method, String path, JsonBody body, boolean keepAlive,
+                                int readTimeout, Deadline deadline) throws IOException {
+        HttpConnection connection = connectionPool.acquire();
+        if (connection != null) {
             try {
-                chunkSize = Integer.parseInt(sizeStr, 16);
-            } catch (NumberFormatException e) {
-                if (!chunkSizeLine.isEmpty()) {
-                    callback.onNext(chunkSizeLine);
+                connection.send(method, path, body, keepAlive, readTimeout, deadline);
+                connection.readHead();
+                if (exchange != null) {
+                    exchange.setConnectionReused(connection.isReused());
                 }
-                continue;
-            }
-            
-            if (chunkSize == 0) {
-                break;
-            }
-            
-            char[] chunkData = new char[chunkSize];
-            int totalRead = 0;
-            while (totalRead < chunkSize) {
-                int read = reader.read(chunkData, totalRead, chunkSize - totalRead);
-                if (read == -1) break;
-                totalRead += read;
-            }
-            
-            String data = new String(chunkData, 0, totalRead).trim();
-            if (!data.isEmpty()) {
-                for (String line : data.split("\n")) {
-                    String trimmed = line.trim();
-                    if (!trimmed.isEmpty()) {
-                        callback.onNext(trimmed);
-                    }
+                return connection;
+            } catch (IOException e) {
+                connection.close();
+                if (!connection.canRetry(method, e)) {
+                    throw e;
                 }
+                log.debug("Idle connection was closed by the daemon, reconnecting: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        connection = connectionPool.connect(deadline.clamp(connectTimeout));
+        try {
+            connection.send(method, path, body, keepAlive, readTimeout, deadline);
+            connection.readHead();
+            if (exchange != null) {
+                exchange.setConnectionReused(connection.isReused());
             }
-            
-            reader.readLine();
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
         }
     }
 
-    private DockerResponse sendHttpRequestViaPipe(RandomAccessFile pipe, String method, String path, String body) throws IOException {
-        StringBuilder request = new StringBuilder();
-        request.append(method).append(" /").append(API_VERSION).append(path).append(" HTTP/1.1\r\n");
-        request.append("Host: docker\r\n");
-        request.append("Content-Type: application/json\r\n");
-        request.append("Connection: close\r\n");
-        
-        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
-        if (bodyBytes.length > 0) {
-            request.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
-        }
-        request.append("\r\n");
-        
-        pipe.write(request.toString().getBytes(StandardCharsets.UTF_8));
-        if (bodyBytes.length > 0) {
-            pipe.write(bodyBytes);
+    /**
+     * Connect, reporting failures as {@link ConnectException} so callers know nothing was sent.
+     */
+    private static void connect(AFUNIXSocket socket, AFUNIXSocketAddress address, int timeoutMs) throws IOException {
+        try {
+            socket.connect(address, timeoutMs);
+        } catch (IOException e) {
+            throw connectFailed(address.toString(), e);
         }
-        
-        return parseHttpResponseFromPipe(pipe);
     }
 
-    private void sendHttpRequestStreamViaPipe(RandomAccessFile pipe, String method, String path, String body, StreamCallback<String> callback) throws IOException {
-        StringBuilder request = new StringBuilder();
-        request.append(method).append(" /").append(API_VERSION).append(path).append(" HTTP/1.1\r\n");
-        request.append("Host: docker\r\n");
-        request.append("Content-Type: application/json\r\n");
-        
-        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
-        if (bodyBytes.length > 0) {
-            request.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
-        }
-        request.append("\r\n");
-        
-        pipe.write(request.toString().getBytes(StandardCharsets.UTF_8));
-        if (bodyBytes.length > 0) {
-            pipe.write(bodyBytes);
-        }
-        
-        StringBuilder headerBuilder = new StringBuilder();
-        int ch;
-        int newlineCount = 0;
-        while ((ch = pipe.read()) != -1) {
-            headerBuilder.append((char) ch);
-            if (ch == '\n') {
-                newlineCount++;
-                if (newlineCount >= 2 || headerBuilder.toString().endsWith("\r\n\r\n")) {
-                    break;
-                }
-            } else if (ch != '\r') {
-                newlineCount = 0;
-            }
+    private static RandomAccessFile openPipe(String pipePath) throws IOException {
+        try {
+            return new RandomAccessFile(pipePath, "rw");
+        } catch (IOException e) {
+            throw connectFailed(pipePath, e);
         }
-        
-        String headerStr = headerBuilder.toString();
-        String[] headerLines = headerStr.split("\r\n");
-        if (headerLines.length == 0) {
-            callback.onError(new IOException("No response from server"));
-            return;
+    }
+
+    private static ConnectException connectFailed(String target, IOException cause) {
+        if (cause instanceof ConnectException) {
+            return (ConnectException) cause;
         }
-        
-        int statusCode = parseStatusCode(headerLines[0]);
-        if (statusCode >= 400) {
-            StringBuilder errorBody = new StringBuilder();
-            while ((ch = pipe.read()) != -1) {
-                errorBody.append((char) ch);
-            }
-            callback.onError(new IOException("HTTP " + statusCode + ": " + errorBody.toString()));
-            return;
+        ConnectException e = new ConnectException("Cannot connect to " + target + ": " + cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+
+    private DockerResponse namedPipeRequest(String method, String path, JsonBody body) throws IOException {
+        String pipePath = dockerHost.substring(8);
+        pipePath = pipePath.replace("/", "\\");
+        if (!pipePath.startsWith("\\\\.\\pipe\\")) {
+            pipePath = "\\\\.\\pipe\\" + pipePath;
         }
         
-        try {
-            StringBuilder lineBuilder = new StringBuilder();
-            while ((ch = pipe.read()) != -1 && !callback.isCancelled()) {
-                if (ch == '\n') {
-                    String line = lineBuilder.toString().trim();
-                    if (!line.isEmpty()) {
-                        callback.onNext(line);
-                    }
-                    lineBuilder.setLength(0);
-                } else if (ch != '\r') {
-                    lineBuilder.append((char) ch);
-                }
-            }
-            callback.onComplete();
-        } catch (IOException e) {
-            callback.onError(e);
+        try (RandomAccessFile pipe = openPipe(pipePath)) {
+            return sendHttpRequestViaPipe(pipe, method, path, body);
         }
     }
 
-    private DockerResponse parseHttpResponse(InputStream in) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-        
-        String statusLine = reader.readLine();
-        if (statusLine == null) {
-            throw new IOException("No response from server");
+    private void namedPipeRequestStream(String method, String path, JsonBody body, StreamCallback<String> callback) throws IOException {
+        String pipePath = dockerHost.substring(8);
+        pipePath = pipePath.replace("/", "\\");
+        if (!pipePath.startsWith("\\\\.\\pipe\\")) {
+            pipePath = "\\\\.\\pipe\\" + pipePath;
         }
-        int statusCode = parseStatusCode(statusLine);
-        log.trace("Response status: {}", statusCode);
         
-        Map<String, List<String>> headers = new HashMap<>();
-        boolean isChunked = false;
-        int contentLength = -1;
-        String headerLine;
-        while ((headerLine = reader.readLine()) != null && !headerLine.isEmpty()) {
-            int colonIndex = headerLine.indexOf(':');
-            if (colonIndex > 0) {
-                String name = headerLine.substring(0, colonIndex).trim();
-                String value = headerLine.substring(colonIndex + 1).trim();
-                headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
-                
-                if (name.equalsIgnoreCase("Transfer-Encoding") && value.equalsIgnoreCase("chunked")) {
-                    isChunked = true;
-                }
-                if (name.equalsIgnoreCase("Content-Length")) {
-                    try {
-                        contentLength = Integer.parseInt(value);
-                    } catch (NumberFormatException ignored) {}
-                }
-            }
+        try (RandomAccessFile pipe = openPipe(pipePath)) {
+            sendHttpRequestStreamViaPipe(pipe, method, path, body, callback);
         }
-        log.trace("Response isChunked={}, contentLength={}", isChunked, contentLength);
-        
-        String body;
-        if (isChunked) {
-            log.trace("Reading chunked body...");
-            body = readChunkedBody(reader);
-            log.trace("Chunked body read complete, length={}", body.length());
-        } else if (contentLength > 0) {
-            log.trace("Reading fixed-length body, contentLength={}", contentLength);
-            char[] buffer = new char[contentLength];
-            int totalRead = 0;
-            while (totalRead < contentLength) {
-                int read = reader.read(buffer, totalRead, contentLength - totalRead);
-                if (read == -1) break;
-                totalRead += read;
-            }
-            body = new String(buffer, 0, totalRead);
-            log.trace("Fixed-length body read complete");
-        } else {
-            log.trace("Reading body until EOF...");
-            StringBuilder sb = new StringBuilder();
-            char[] buffer = new char[4096];
-            int read;
-            while ((read = reader.read(buffer)) != -1) {
-                sb.append(buffer, 0, read);
-            }
-            body = sb.toString();
-            log.trace("EOF body read complete, length={}", body.length());
+    }
+
+    private static void notifyHeaders(StreamCallback<String> callback, int statusCode, Map<String, List<String>> headers) {
+        if (callback instanceof InterceptedStreamCallback) {
+            ((InterceptedStreamCallback) callback).onHeaders(statusCode, headers);
         }
-        
-        return new DockerResponse(statusCode, headers, body);
     }
-    
-    /**
-     * Read a chunked transfer encoding body.
-     * Format: &lt;size-in-hex&gt;\r\n&lt;chunk-data&gt;\r\n... 0\r\n\r\n
-     */
-    private String readChunkedBody(BufferedReader reader) throws IOException {
-        StringBuilder body = new StringBuilder();
-        
-        while (true) {
-            String chunkSizeLine = reader.readLine();
-            if (chunkSizeLine == null || chunkSizeLine.isEmpty()) {
-                break;
-            }
-            
-            String sizeStr = chunkSizeLine.trim();
-            if (sizeStr.isEmpty()) {
-                continue;
-            }
-            
-            int semicolonIndex = sizeStr.indexOf(';');
-            if (semicolonIndex > 0) {
-                sizeStr = sizeStr.substring(0, semicolonIndex);
-            }
-            
-            int chunkSize;
-            try {
-                chunkSize = Integer.parseInt(sizeStr, 16);
-            } catch (NumberFormatException e) {
-                break;
-            }
-            
-            if (chunkSize == 0) {
-                break;
-            }
-            
-            char[] chunkData = new char[chunkSize];
-            int totalRead = 0;
-            while (totalRead < chunkSize) {
-                int read = reader.read(chunkData, totalRead, chunkSize - totalRead);
-                if (read == -1) break;
-                totalRead += read;
-            }
-            body.append(chunkData, 0, totalRead);
-            
-            reader.readLine();
+
+    private DockerResponse sendHttpRequestViaPipe(RandomAccessFile pipe, String method, String path, JsonBody body) throws IOException {
+        writePipeRequest(pipe, method, path, body, true);
+        BufferPool buffers = bufferPool;
+        try (PipeInputStream in = new PipeInputStream(pipe, buffers)) {
+            StringBuilder line = new StringBuilder(128);
+            HttpConnection.ResponseHead head = HttpConnection.readHead(in, line);
+            return new DockerResponse(head.statusCode, head.headers, HttpConnection.readBody(in, head, line, buffers));
         }
-        
-        return body.toString();
     }
 
-    private DockerResponse parseHttpResponseFromPipe(RandomAccessFile pipe) throws IOException {
-        StringBuilder responseBuilder = new StringBuilder();
-        int ch;
-        while ((ch = pipe.read()) != -1) {
-            responseBuilder.append((char) ch);
-            String current = responseBuilder.toString();
-            if (current.contains("\r\n\r\n")) {
-                break;
+    private void sendHttpRequestStreamViaPipe(RandomAccessFile pipe, String method, String path, JsonBody body, StreamCallback<String> callback) throws IOException {
+        writePipeRequest(pipe, method, path, body, false);
+        callback.onStart(pipe);
+        BufferPool buffers = bufferPool;
+        try (PipeInputStream in = new PipeInputStream(pipe, buffers)) {
+            StringBuilder line = new StringBuilder(128);
+            HttpConnection.ResponseHead head = HttpConnection.readHead(in, line);
+            notifyHeaders(callback, head.statusCode, head.headers);
+            if (head.statusCode >= 400) {
+                callback.onError(new IOException("HTTP " + head.statusCode + ": " + HttpConnection.readBody(in, head, line, buffers)));
+                return;
             }
+            callback.onOpen();
+            readLines(HttpConnection.bodyStream(in, head), callback);
         }
-        
-        String headerPart = responseBuilder.toString();
-        String[] parts = headerPart.split("\r\n\r\n", 2);
-        String[] headerLines = parts[0].split("\r\n");
-        
-        if (headerLines.length == 0) {
-            throw new IOException("No response from server");
+    }
+
+    private static void writePipeRequest(RandomAccessFile pipe, String method, String path, JsonBody body, boolean close) throws IOException {
+        StringBuilder request = new StringBuilder(128);
+        request.append(method).append(" /").append(API_VERSION).append(path).append(" HTTP/1.1\r\n");
+        request.append("Host: docker\r\n");
+        request.append("Content-Type: application/json\r\n");
+        if (close) {
+            request.append("Connection: close\r\n");
         }
-        
-        int statusCode = parseStatusCode(headerLines[0]);
-        
-        Map<String, List<String>> headers = new HashMap<>();
-        int contentLength = -1;
-        boolean isChunked = false;
-        for (int i = 1; i < headerLines.length; i++) {
-            String headerLine = headerLines[i];
-            int colonIndex = headerLine.indexOf(':');
-            if (colonIndex > 0) {
-                String name = headerLine.substring(0, colonIndex).trim();
-                String value = headerLine.substring(colonIndex + 1).trim();
-                headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
-                if (name.equalsIgnoreCase("Content-Length")) {
-                    try {
-                        contentLength = Integer.parseInt(value);
-                    } catch (NumberFormatException ignored) {}
-                }
-                if (name.equalsIgnoreCase("Transfer-Encoding") && value.equalsIgnoreCase("chunked")) {
-                    isChunked = true;
-                }
-            }
+        if (body != null) {
+            request.append("Content-Length: ").append(body.length()).append("\r\n");
         }
-        
-        String body;
-        String initialBody = parts.length > 1 ? parts[1] : "";
-        
-        if (isChunked) {
-            body = readChunkedBodyFromPipe(pipe, initialBody);
-        } else if (contentLength > 0) {
-            StringBuilder sb = new StringBuilder(initialBody);
-            int remaining = contentLength - initialBody.length();
-            for (int i = 0; i < remaining; i++) {
-                int c = pipe.read();
-                if (c == -1) break;
-                sb.append((char) c);
-            }
-            body = sb.toString();
-        } else {
-            StringBuilder sb = new StringBuilder(initialBody);
-            while ((ch = pipe.read()) != -1) {
-                sb.append((char) ch);
-            }
-            body = sb.toString();
+        request.append("\r\n");
+
+        pipe.write(request.toString().getBytes(StandardCharsets.UTF_8));
+        if (body != null) {
+            body.writeTo(pipe);
         }
-        
-        return new DockerResponse(statusCode, headers, body);
     }
-    
+
+    static DockerResponse parseHttpResponse(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(in);
+        StringBuilder line = new StringBuilder(128);
+        HttpConnection.ResponseHead head = HttpConnection.readHead(buffered, line);
+        return new DockerResponse(head.statusCode, head.headers, HttpConnection.readBody(buffered, head, line, BufferPool.shared()));
+    }
+
     /**
-     * Read a chunked transfer encoding body from a pipe.
+     * A named pipe as a buffered input stream, reading into a buffer from the pool. Closing returns
+     * the buffer, the pipe is left open.
      */
-    private String readChunkedBodyFromPipe(RandomAccessFile pipe, String initialData) throws IOException {
-        StringBuilder body = new StringBuilder();
-        StringBuilder lineBuilder = new StringBuilder(initialData);
-        
-        while (true) {
-            while (!lineBuilder.toString().contains("\n")) {
-                int c = pipe.read();
-                if (c == -1) {
-                    return body.toString();
-                }
-                lineBuilder.append((char) c);
-            }
-            
-            String data = lineBuilder.toString();
-            int newlineIndex = data.indexOf('\n');
-            String chunkSizeLine = data.substring(0, newlineIndex).trim();
-            lineBuilder = new StringBuilder(data.substring(newlineIndex + 1));
-            
-            int semicolonIndex = chunkSizeLine.indexOf(';');
-            if (semicolonIndex > 0) {
-                chunkSizeLine = chunkSizeLine.substring(0, semicolonIndex);
-            }
-            
-            int chunkSize;
-            try {
-                chunkSize = Integer.parseInt(chunkSizeLine.trim(), 16);
-            } catch (NumberFormatException e) {
-                break;
-            }
-            
-            if (chunkSize == 0) {
-                break;
-            }
-            
-            while (lineBuilder.length() < chunkSize) {
-                int c = pipe.read();
-                if (c == -1) break;
-                lineBuilder.append((char) c);
-            }
-            
-            body.append(lineBuilder.substring(0, Math.min(chunkSize, lineBuilder.length())));
-            lineBuilder = new StringBuilder(lineBuilder.length() > chunkSize ? lineBuilder.substring(chunkSize) : "");
-            
-            while (lineBuilder.length() < 2) {
-                int c = pipe.read();
-                if (c == -1) break;
-                lineBuilder.append((char) c);
+    private static final class PipeInputStream extends InputStream {
+        private final RandomAccessFile pipe;
+        private final BufferPool buffers;
+        private byte[] buffer;
+        private int position;
+        private int limit;
+
+        PipeInputStream(RandomAccessFile pipe, BufferPool buffers) {
+            this.pipe = pipe;
+            this.buffers = buffers;
+            this.buffer = buffers.acquire(BufferPool.BUFFER_SIZE);
+        }
+
+        private boolean fill() throws IOException {
+            int read = pipe.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
             }
-            if (lineBuilder.length() >= 2) {
-                lineBuilder = new StringBuilder(lineBuilder.substring(lineBuilder.toString().startsWith("\r\n") ? 2 : (lineBuilder.toString().startsWith("\n") ? 1 : 0)));
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
             }
+            return buffer[position++] & 0xff;
         }
-        
-        return body.toString();
-    }
 
-    private int parseStatusCode(String statusLine) {
-        String[] parts = statusLine.split(" ");
-        if (parts.length >= 2) {
-            try {
-                return Integer.parseInt(parts[1]);
-            } catch (NumberFormatException e) {
-                return 500;
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
             }
+            if (position == limit) {
+                if (len >= buffer.length) {
+                    return pipe.read(b, off, len);
+                }
+                if (!fill()) {
+                    return -1;
+                }
+            }
+            int count = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
         }
-        return 500;
-    }
 
-    private String readStream(InputStream is) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        byte[] buffer = new byte[8192];
-        int bytesRead;
-        while ((bytesRead = is.read(buffer)) != -1) {
-            sb.append(new String(buffer, 0, bytesRead, StandardCharsets.UTF_8));
+        @Override
+        public void close() {
+            if (buffer != null) {
+                buffers.release(buffer);
+                buffer = null;
+            }
         }
-        return sb.toString();
     }
 
     @Override
     public void close() throws IOException {
-        if (currentSocket != null) {
-            currentSocket.close();
+        Socket socket = currentSocket;
+        if (socket != null) {
+            socket.close();
+        }
+        if (connectionPool != null) {
+            connectionPool.close();
         }
     }
 }
@@ -0,0 +1,57 @@
+package io.github.intisy.docker.transport;
+
+import java.io.IOException;
+
+/**
+ * Hook around every request that {@link DockerHttpClient} sends to the daemon, for tracing,
+ * rate limiting, caching and auditing without touching the command classes.
+ * <p>
+ * Interceptors run on the requesting thread. {@link #beforeSend} is called in registration
+ * order; {@link #afterHeaders}, {@link #onComplete} and {@link #onError} are called in reverse
+ * order, so the first interceptor wraps all others. Per-request state can be kept in
+ * {@link DockerExchange#setAttribute(String, Object)}.
+ * <p>
+ * For every exchange exactly one of {@link #onComplete} or {@link #onError} is called:
+ * {@code onComplete} once a response was received (whatever its status) and, for streaming
+ * requests, the stream has ended; {@code onError} when no response could be obtained or
+ * the stream failed.
+ *
+ * @author Finn Birich
+ */
+public interface DockerInterceptor {
+
+    /**
+     * Called before the request is sent. May block, e.g. to wait for a rate limit permit.
+      *
+      * @param exchange the request
+      * @return a response to use instead of sending the request, or null to send it;
+      *         ignored for streaming requests
+      * @throws IOException to fail the request without sending it
+     */
+    default DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+        return null;
+    }
+
+    /**
+     * Called once the status line and headers have been received.
+      *
+      * @param exchange the request, with status code and headers set
+     */
+    default void afterHeaders(DockerExchange exchange) {}
+
+    /**
+     * Called after the response has been read completely.
+      *
+      * @param exchange the request
+      * @param response the response, or null for streaming requests
+     */
+    default void onComplete(DockerExchange exchange, DockerResponse response) {}
+
+    /**
+     * Called when the request or stream failed without a complete response.
+      *
+      * @param exchange the request
+      * @param error the failure
+     */
+    default void onError(DockerExchange exchange, Throwable error) {}
+}
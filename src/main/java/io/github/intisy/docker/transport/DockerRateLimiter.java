@@ -0,0 +1,403 @@
+package io.github.intisy.docker.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side rate limiting and concurrency control toward the daemon, as a {@link DockerInterceptor}.
+ * <p>
+ * Two independent mechanisms:
+ * <ul>
+ *   <li>A token bucket per {@link EndpointClass}, e.g. at most 50 container creates per second.</li>
+ *   <li>A concurrency limit on non-streaming requests. With adaptive concurrency the limit is
+ *       tuned by AIMD: it grows by one per window of successful requests while the limit is
+ *       being used, and shrinks multiplicatively when a request is much slower than the fastest
+ *       recently seen for its endpoint (a sign of queueing in the daemon), times out, or gets a
+ *       5xx/429 response.</li>
+ * </ul>
+ * Requests over the limit wait on the calling thread instead of piling up in the daemon, so
+ * fanning out thousands of calls keeps the daemon near its best throughput. Waiting requests
+ * are admitted in {@link RequestPriority} order, and {@link Builder#withReservedSlots(int)} keeps
+ * slots free for {@link RequestPriority#CRITICAL} requests only.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DockerClient client = DockerClient.builder()
+ *     .withRateLimiter(DockerRateLimiter.builder()
+ *         .withRateLimit(EndpointClass.CREATE, 50, 10)
+ *         .withAdaptiveConcurrency(8, 2, 64)
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class DockerRateLimiter implements DockerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(DockerRateLimiter.class);
+    private static final String SENT_AT_ATTRIBUTE = DockerRateLimiter.class.getName() + ".sentAt";
+    private static final int BASELINE_WINDOW = 500;
+    private static final long MIN_SLOWDOWN_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final double TIMEOUT_BACKOFF_RATIO = 0.5;
+
+    private final Map<EndpointClass, TokenBucket> buckets;
+    private final boolean limitConcurrency;
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+    private final int reservedSlots;
+    private final Map<String, LatencyBaseline> baselines = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition[] slotAvailable = new Condition[RequestPriority.values().length];
+    private final int[] waiting = new int[RequestPriority.values().length];
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt = System.nanoTime();
+
+    private DockerRateLimiter(Builder builder) {
+        this.buckets = new EnumMap<>(builder.buckets);
+        this.limitConcurrency = builder.initialLimit > 0;
+        this.adaptive = builder.adaptive;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.tolerance = builder.tolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.maxWaitNanos = builder.maxWaitNanos;
+        this.reservedSlots = builder.reservedSlots;
+        this.limit = builder.initialLimit;
+        for (int i = 0; i < slotAvailable.length; i++) {
+            slotAvailable[i] = lock.newCondition();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+        TokenBucket bucket = buckets.get(EndpointClass.of(exchange));
+        if (bucket != null) {
+            long delay = bucket.reserve();
+            if (delay > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for rate limit");
+                }
+            }
+        }
+        if (limitConcurrency && !exchange.isStreaming()) {
+            acquire(exchange.getPriority());
+            exchange.setAttribute(SENT_AT_ATTRIBUTE, System.nanoTime());
+        }
+        return null;
+    }
+
+    @Override
+    public void onComplete(DockerExchange exchange, DockerResponse response) {
+        int status = exchange.getStatusCode();
+        release(exchange, status >= 500 || status == 429 ? backoffRatio : 0);
+    }
+
+    @Override
+    public void onError(DockerExchange exchange, Throwable error) {
+        release(exchange, error instanceof SocketTimeoutException ? TIMEOUT_BACKOFF_RATIO : 0);
+    }
+
+    /**
+     * Get the current concurrency limit, or 0 if concurrency is not limited.
+     *
+     * @return the concurrency limit
+     */
+    public int getConcurrencyLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority the priority, null meaning not critical
+     * @return how many more requests of the priority would get a slot right now, at least 1;
+     *         unlimited if concurrency is not limited
+     */
+    int getFreeSlots(RequestPriority priority) {
+        if (!limitConcurrency) {
+            return Integer.MAX_VALUE;
+        }
+        lock.lock();
+        try {
+            int slots = (int) limit;
+            if (priority != RequestPriority.CRITICAL) {
+                slots = Math.max(1, slots - reservedSlots);
+            }
+            return Math.max(1, slots - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(RequestPriority priority) throws IOException {
+        int rank = priority.ordinal();
+        try {
+            lock.lockInterruptibly();
+            try {
+                waiting[rank]++;
+                try {
+                    long remaining = Math.min(maxWaitNanos, RequestScope.currentDeadline().remainingNanos());
+                    while (!canAcquire(rank)) {
+                        if (remaining <= 0) {
+                            throw new RequestSlotTimeoutException("Timed out waiting for a request slot (limit " + (int) limit
+                                    + ", priority " + priority + ")");
+                        }
+                        remaining = slotAvailable[rank].awaitNanos(remaining);
+                    }
+                    inFlight++;
+                } finally {
+                    waiting[rank]--;
+                    // pass the wakeup on, whether this waiter got a slot or gave up
+                    signalNext();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request slot");
+        }
+    }
+
+    private boolean canAcquire(int rank) {
+        for (int i = 0; i < rank; i++) {
+            if (waiting[i] > 0) {
+                return false;
+            }
+        }
+        int slots = (int) limit;
+        if (rank > RequestPriority.CRITICAL.ordinal()) {
+            slots = Math.max(1, slots - reservedSlots);
+        }
+        return inFlight < slots;
+    }
+
+    /**
+     * Wake one waiter of the highest waiting priority; if it cannot get a slot, no lower priority can.
+     */
+    private void signalNext() {
+        for (int i = 0; i < waiting.length; i++) {
+            if (waiting[i] > 0) {
+                slotAvailable[i].signal();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param overloadBackoff the factor to shrink the limit by because of an overload signal, or 0
+     */
+    private void release(DockerExchange exchange, double overloadBackoff) {
+        Object sentAt = exchange.getAttribute(SENT_AT_ATTRIBUTE);
+        if (sentAt == null) {
+            return;
+        }
+        long sentAtNanos = (Long) sentAt;
+        long now = System.nanoTime();
+        double factor = overloadBackoff;
+        if (adaptive && factor == 0) {
+            long latency = now - sentAtNanos;
+            LatencyBaseline baseline = baselines.computeIfAbsent(exchange.getEndpoint(), k -> new LatencyBaseline());
+            if (baseline.isSlow(latency, tolerance)) {
+                factor = backoffRatio;
+            }
+        }
+        lock.lock();
+        try {
+            int before = (int) limit;
+            if (adaptive) {
+                if (factor > 0) {
+                    // requests sent before the last decrease saw the old limit; count one signal per window
+                    if (sentAtNanos - lastDecreaseAt > 0) {
+                        limit = Math.max(minLimit, limit * factor);
+                        lastDecreaseAt = now;
+                    }
+                } else if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+            inFlight--;
+            signalNext();
+            if ((int) limit != before) {
+                log.debug("Docker concurrency limit changed from {} to {}", before, (int) limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fastest recent latency of one endpoint: the minimum over the current and the previous window.
+     */
+    private static class LatencyBaseline {
+        private long previousMin = Long.MAX_VALUE;
+        private long currentMin = Long.MAX_VALUE;
+        private int samples;
+
+        synchronized boolean isSlow(long latency, double tolerance) {
+            long baseline = Math.min(previousMin, currentMin);
+            currentMin = Math.min(currentMin, latency);
+            if (++samples >= BASELINE_WINDOW) {
+                previousMin = currentMin;
+                currentMin = Long.MAX_VALUE;
+                samples = 0;
+            }
+            return baseline != Long.MAX_VALUE
+                    && latency > Math.max(baseline * tolerance, baseline + MIN_SLOWDOWN_NANOS);
+        }
+    }
+
+    public static class Builder {
+        private final Map<EndpointClass, TokenBucket> buckets = new EnumMap<>(EndpointClass.class);
+        private boolean adaptive = false;
+        private int initialLimit = 0;
+        private int minLimit = 1;
+        private int maxLimit = 0;
+        private double tolerance = 2.0;
+        private double backoffRatio = 0.9;
+        private long maxWaitNanos = TimeUnit.SECONDS.toNanos(60);
+        private int reservedSlots = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Limit the request rate of an endpoint class.
+          *
+          * @param endpointClass the endpoint class
+          * @param permitsPerSecond the sustained rate
+          * @param burst the number of requests allowed at once after an idle period
+          * @return this builder
+         */
+        public Builder withRateLimit(EndpointClass endpointClass, double permitsPerSecond, int burst) {
+            buckets.put(endpointClass, new TokenBucket(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Limit the number of concurrent non-streaming requests to a fixed value.
+          *
+          * @param maxConcurrency the concurrency limit
+          * @return this builder
+         */
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            this.adaptive = false;
+            this.initialLimit = maxConcurrency;
+            this.minLimit = maxConcurrency;
+            this.maxLimit = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Limit the number of concurrent non-streaming requests, adapting the limit to the daemon's latency.
+          *
+          * @param initial the starting limit
+          * @param min the lowest the limit may shrink to
+          * @param max the highest the limit may grow to
+          * @return this builder
+         */
+        public Builder withAdaptiveConcurrency(int initial, int min, int max) {
+            this.adaptive = true;
+            this.initialLimit = initial;
+            this.minLimit = min;
+            this.maxLimit = max;
+            return this;
+        }
+
+        /**
+         * How many times slower than the endpoint's recent best a request may be before the
+         * adaptive limit is reduced (default: 2.0).
+          *
+          * @param tolerance the latency tolerance factor
+          * @return this builder
+         */
+        public Builder withLatencyTolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * The factor the adaptive limit is multiplied by on an overload signal (default: 0.9).
+          *
+          * @param backoffRatio the multiplicative decrease factor
+          * @return this builder
+         */
+        public Builder withBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * How long a request may wait for a concurrency slot before it fails (default: 60 seconds).
+          *
+          * @param maxWait the maximum wait
+          * @param unit the time unit
+          * @return this builder
+          * @see RequestSlotTimeoutException
+         */
+        public Builder withMaxWait(long maxWait, TimeUnit unit) {
+            this.maxWaitNanos = unit.toNanos(maxWait);
+            return this;
+        }
+
+        /**
+         * Keep some of the concurrency limit free for {@link RequestPriority#CRITICAL} requests, so
+         * health checks never wait for a slot behind bulk work (default: 0).
+          *
+          * @param reservedSlots the number of slots only critical requests may use
+          * @return this builder
+         */
+        public Builder withReservedSlots(int reservedSlots) {
+            this.reservedSlots = reservedSlots;
+            return this;
+        }
+
+        public DockerRateLimiter build() {
+            if (initialLimit > 0 && (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit)) {
+                throw new IllegalArgumentException("Invalid concurrency limits: initial=" + initialLimit
+                        + ", min=" + minLimit + ", max=" + maxLimit);
+            }
+            if (reservedSlots < 0 || (initialLimit > 0 && reservedSlots >= minLimit)) {
+                throw new IllegalArgumentException("Reserved slots must be below the minimum limit: " + reservedSlots);
+            }
+            if (backoffRatio <= 0 || backoffRatio >= 1 || tolerance <= 1) {
+                throw new IllegalArgumentException("Invalid adaptive settings: backoff=" + backoffRatio
+                        + ", tolerance=" + tolerance);
+            }
+            return new DockerRateLimiter(this);
+        }
+    }
+}
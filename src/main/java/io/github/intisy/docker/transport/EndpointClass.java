@@ -0,0 +1,39 @@
+package io.github.intisy.docker.transport;
+
+/**
+ * Coarse classes of Docker API endpoints, used to apply separate rate limits.
+ *
+ * @author Finn Birich
+ */
+public enum EndpointClass {
+    /** Creating containers, networks and volumes. */
+    CREATE,
+    /** Other state-changing calls: start, stop, kill, remove, connect, ... */
+    MUTATE,
+    /** Reading a single object: inspect, ping, version, ... */
+    INSPECT,
+    /** Listing collections. */
+    LIST,
+    /** Streaming requests: logs, events, attach, pull, build. */
+    STREAM;
+
+    /**
+     * Classify an exchange.
+     *
+     * @param exchange the exchange
+     * @return the endpoint class
+     */
+    public static EndpointClass of(DockerExchange exchange) {
+        if (exchange.isStreaming()) {
+            return STREAM;
+        }
+        String endpoint = exchange.getEndpoint();
+        if (!exchange.getMethod().equals("GET")) {
+            return endpoint.endsWith("/create") ? CREATE : MUTATE;
+        }
+        if (endpoint.endsWith("/json") && endpoint.indexOf('{') < 0) {
+            return LIST;
+        }
+        return INSPECT;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.intisy.docker.transport;
+
+import io.github.intisy.docker.jfr.DockerEvents;
+
+/**
+ * Emits {@link DockerEvents} JFR events for every exchange. Only installed when JFR is available
+ * and the client opted in, see {@link DockerHttpClient#setFlightRecorderEvents(boolean)}.
+ *
+ * @author Finn Birich
+ */
+class FlightRecorderInterceptor implements DockerInterceptor {
+    private static final String EVENT_ATTRIBUTE = FlightRecorderInterceptor.class.getName() + ".event";
+
+    @Override
+    public DockerResponse beforeSend(DockerExchange exchange) {
+        Object event = exchange.isStreaming() ? DockerEvents.beginStream() : DockerEvents.beginRequest();
+        if (event != null) {
+            exchange.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return null;
+    }
+
+    @Override
+    public void onComplete(DockerExchange exchange, DockerResponse response) {
+        commit(exchange);
+    }
+
+    @Override
+    public void onError(DockerExchange exchange, Throwable error) {
+        commit(exchange);
+    }
+
+    private static void commit(DockerExchange exchange) {
+        Object event = exchange.getAttribute(EVENT_ATTRIBUTE);
+        if (event == null) {
+            return;
+        }
+        if (exchange.isStreaming()) {
+            DockerEvents.commitStream(event, exchange.getMethod(), exchange.getEndpoint(),
+                    exchange.getStatusCode(), exchange.getBytesReceived());
+        } else {
+            DockerEvents.commitRequest(event, exchange.getMethod(), exchange.getEndpoint(),
+                    exchange.getStatusCode(), exchange.getBytesSent(), exchange.getBytesReceived());
+        }
+    }
+}
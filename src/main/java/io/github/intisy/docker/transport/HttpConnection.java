@@ -0,0 +1,545 @@
+package io.github.intisy.docker.transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One HTTP/1.1 connection to the daemon, over a unix or TCP socket. Responses are read byte by
+ * byte as framed by {@code Content-Length} or chunked encoding, so the connection can be kept alive
+ * and reused for the next request; see {@link ConnectionPool}.
+ *
+ * @author Finn Birich
+ */
+final class HttpConnection implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final Socket socket;
+    private final DeadlineInputStream deadlineIn;
+    private final InputStream in;
+    private final OutputStream out;
+    private final StringBuilder line = new StringBuilder(128);
+    private byte[] head = new byte[256];
+    private ResponseHead response;
+    private int exchanges;
+    private boolean sent;
+    private boolean reusable;
+    private long idleSince;
+
+    HttpConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.deadlineIn = new DeadlineInputStream(socket.getInputStream(), socket, 0, Deadline.NONE);
+        this.in = new BufferedInputStream(deadlineIn, BUFFER_SIZE);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+    }
+
+    Socket getSocket() {
+        return socket;
+    }
+
+    /**
+     * @return whether the current request is not the first one on this connection
+     */
+    boolean isReused() {
+        return exchanges > 1;
+    }
+
+    /**
+     * @return whether the last response was read completely and the daemon keeps the connection open
+     */
+    boolean isReusable() {
+        return reusable;
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdleSince(long nanoTime) {
+        this.idleSince = nanoTime;
+    }
+
+    /**
+     * Write a request. The request line and headers go out together with a small body in one write.
+      *
+      * @param method the HTTP method
+      * @param path the path below the API version, with its query string
+      * @param body the body, or null
+      * @param keepAlive whether to ask the daemon to keep the connection open afterwards
+      * @param readTimeoutMs the read timeout in milliseconds, 0 meaning infinite
+      * @param deadline the deadline of the request
+     */
+    void send(String method, String path, JsonBody body, boolean keepAlive, int readTimeoutMs, Deadline deadline) throws IOException {
+        write(method, path, body, keepAlive, readTimeoutMs, deadline);
+        flush();
+    }
+
+    /**
+     * Write a request without flushing it, so several requests can be pipelined and go out together
+     * on {@link #flush()}. Their responses are read in the order the requests were written.
+     */
+    void write(String method, String path, JsonBody body, boolean keepAlive, int readTimeoutMs, Deadline deadline) throws IOException {
+        exchanges++;
+        sent = false;
+        reusable = false;
+        response = null;
+        deadlineIn.reset(readTimeoutMs, deadline);
+
+        int length = 0;
+        length = put(length, method);
+        length = put(length, " /");
+        length = put(length, DockerHttpClient.API_VERSION);
+        length = put(length, path);
+        length = put(length, " HTTP/1.1\r\nHost: docker\r\nContent-Type: application/json\r\n");
+        if (!keepAlive) {
+            length = put(length, "Connection: close\r\n");
+        }
+        if (body != null) {
+            length = put(length, "Content-Length: ");
+            length = put(length, Integer.toString(body.length()));
+            length = put(length, "\r\n");
+        }
+        length = put(length, "\r\n");
+
+        out.write(head, 0, length);
+        if (body != null) {
+            body.writeTo(out);
+        }
+    }
+
+    void flush() throws IOException {
+        out.flush();
+        sent = true;
+    }
+
+    private int put(int length, String value) {
+        int end = length + value.length();
+        if (end > head.length) {
+            head = Arrays.copyOf(head, Math.max(head.length * 2, end));
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return put(length, value.substring(i).getBytes(StandardCharsets.UTF_8));
+            }
+            head[length++] = (byte) c;
+        }
+        return length;
+    }
+
+    private int put(int length, byte[] bytes) {
+        if (length + bytes.length > head.length) {
+            head = Arrays.copyOf(head, Math.max(head.length * 2, length + bytes.length));
+        }
+        System.arraycopy(bytes, 0, head, length, bytes.length);
+        return length + bytes.length;
+    }
+
+    /**
+     * Read the status line and headers of the response.
+      *
+      * @return the response head
+     */
+    ResponseHead readHead() throws IOException {
+        response = readHead(in, line);
+        return response;
+    }
+
+    ResponseHead getResponseHead() {
+        return response;
+    }
+
+    /**
+     * Read the body of the response whose head was read last. Afterwards the connection is
+     * reusable unless the daemon closes it or the body ran until the end of the stream.
+      *
+      * @param buffers the pool to take the body buffer from
+      * @return the response
+     */
+    DockerResponse readResponse(BufferPool buffers) throws IOException {
+        String body = readBody(in, response, line, buffers);
+        reusable = response.keepAlive && response.isFramed();
+        return new DockerResponse(response.statusCode, response.headers, body);
+    }
+
+    /**
+     * Get the body of the response whose head was read last, as a stream that ends with it.
+      *
+      * @return the body stream
+     */
+    InputStream body() {
+        return bodyStream(in, response);
+    }
+
+    /**
+     * Change the read timeout, e.g. to the idle timeout once a stream has started.
+      *
+      * @param readTimeoutMs the timeout in milliseconds, 0 meaning infinite
+     */
+    void setReadTimeout(int readTimeoutMs) {
+        deadlineIn.setReadTimeout(readTimeoutMs);
+    }
+
+    /**
+     * Whether a request that failed on this kept-alive connection can be sent again on a new one.
+     * That is the case when the daemon had closed the connection while it was idle: the request
+     * was not written, or a GET got no response at all. Timeouts are never retried.
+      *
+      * @param method the HTTP method of the failed request
+      * @param failure the failure
+      * @return whether to retry on a new connection
+     */
+    boolean canRetry(String method, IOException failure) {
+        if (!isReused() || failure instanceof InterruptedIOException) {
+            return false;
+        }
+        if (!sent) {
+            return true;
+        }
+        return failure instanceof EmptyResponseException && (method.equals("GET") || method.equals("HEAD"));
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {}
+    }
+
+    // ==================== Parsing ====================
+
+    static ResponseHead readHead(InputStream in, StringBuilder line) throws IOException {
+        String statusLine = readLine(in, line);
+        while (statusLine != null && statusLine.isEmpty()) {
+            statusLine = readLine(in, line);
+        }
+        if (statusLine == null) {
+            throw new EmptyResponseException();
+        }
+        int statusCode = parseStatusCode(statusLine);
+        boolean keepAlive = !statusLine.startsWith("HTTP/1.0");
+        Map<String, List<String>> headers = new HashMap<>();
+        long contentLength = -1;
+        boolean chunked = false;
+        String headerLine;
+        while ((headerLine = readLine(in, line)) != null && !headerLine.isEmpty()) {
+            int colonIndex = headerLine.indexOf(':');
+            if (colonIndex <= 0) {
+                continue;
+            }
+            String name = headerLine.substring(0, colonIndex).trim();
+            String value = headerLine.substring(colonIndex + 1).trim();
+            headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+            if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.equalsIgnoreCase("chunked");
+            } else if (name.equalsIgnoreCase("Content-Length")) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid Content-Length: " + value);
+                }
+            } else if (name.equalsIgnoreCase("Connection")) {
+                if (value.equalsIgnoreCase("close")) {
+                    keepAlive = false;
+                } else if (value.equalsIgnoreCase("keep-alive")) {
+                    keepAlive = true;
+                }
+            }
+        }
+        if (headerLine == null) {
+            throw new EOFException("Connection closed in response headers");
+        }
+        return new ResponseHead(statusCode, headers, chunked ? -1 : contentLength, chunked, keepAlive);
+    }
+
+    /**
+     * Read a response body into a buffer from the pool and decode it as UTF-8.
+     */
+    static String readBody(InputStream in, ResponseHead head, StringBuilder line, BufferPool buffers) throws IOException {
+        if (!head.hasBody() || head.contentLength == 0) {
+            return "";
+        }
+        if (head.contentLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("Response too large: " + head.contentLength + " bytes");
+        }
+        byte[] body = buffers.acquire(head.contentLength > 0 ? (int) head.contentLength : BUFFER_SIZE);
+        try {
+            int length = 0;
+            if (head.chunked) {
+                // <size-in-hex>\r\n<chunk-data>\r\n... 0\r\n\r\n
+                int chunkSize;
+                while ((chunkSize = readChunkSize(in, line)) > 0) {
+                    if (length + chunkSize > body.length) {
+                        body = grow(body, Math.max(body.length * 2, length + chunkSize), buffers);
+                    }
+                    readFully(in, body, length, chunkSize);
+                    length += chunkSize;
+                    readChunkEnd(in, line);
+                }
+                readTrailers(in, line);
+            } else if (head.contentLength > 0) {
+                length = (int) head.contentLength;
+                readFully(in, body, 0, length);
+            } else {
+                int read;
+                while ((read = in.read(body, length, body.length - length)) != -1) {
+                    length += read;
+                    if (length == body.length) {
+                        body = grow(body, body.length * 2, buffers);
+                    }
+                }
+            }
+            return new String(body, 0, length, StandardCharsets.UTF_8);
+        } finally {
+            buffers.release(body);
+        }
+    }
+
+    private static byte[] grow(byte[] buffer, int size, BufferPool buffers) {
+        byte[] larger = Arrays.copyOf(buffer, size);
+        buffers.release(buffer);
+        return larger;
+    }
+
+    static InputStream bodyStream(InputStream in, ResponseHead head) {
+        if (!head.hasBody()) {
+            return new BoundedInputStream(in, 0);
+        }
+        if (head.chunked) {
+            return new ChunkedInputStream(in);
+        }
+        if (head.contentLength >= 0) {
+            return new BoundedInputStream(in, head.contentLength);
+        }
+        return in;
+    }
+
+    private static int readChunkSize(InputStream in, StringBuilder line) throws IOException {
+        String sizeLine = readLine(in, line);
+        if (sizeLine == null) {
+            throw new EOFException("Connection closed in chunked body");
+        }
+        int end = sizeLine.indexOf(';');
+        String size = (end >= 0 ? sizeLine.substring(0, end) : sizeLine).trim();
+        try {
+            int chunkSize = Integer.parseInt(size, 16);
+            if (chunkSize < 0) {
+                throw new NumberFormatException();
+            }
+            return chunkSize;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid chunk size: " + sizeLine);
+        }
+    }
+
+    private static void readChunkEnd(InputStream in, StringBuilder line) throws IOException {
+        String end = readLine(in, line);
+        if (end == null || !end.isEmpty()) {
+            throw new IOException("Missing CRLF after chunk");
+        }
+    }
+
+    private static void readTrailers(InputStream in, StringBuilder line) throws IOException {
+        String trailer;
+        while ((trailer = readLine(in, line)) != null && !trailer.isEmpty()) {
+            // trailers are not used by the daemon
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            int read = in.read(buffer, offset, end - offset);
+            if (read == -1) {
+                throw new EOFException("Connection closed with " + (end - offset) + " bytes of the body left");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Read a line of the response head, which is ISO-8859-1, without its line terminator.
+     *
+     * @return the line, or null at the end of the stream
+     */
+    private static String readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() == MAX_LINE_LENGTH) {
+                throw new IOException("Response header line too long");
+            }
+            line.append((char) c);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    static int parseStatusCode(String statusLine) {
+        int start = statusLine.indexOf(' ');
+        if (start < 0 || statusLine.length() < start + 4) {
+            return 500;
+        }
+        int statusCode = 0;
+        for (int i = start + 1; i < start + 4; i++) {
+            char c = statusLine.charAt(i);
+            if (c < '0' || c > '9') {
+                return 500;
+            }
+            statusCode = statusCode * 10 + (c - '0');
+        }
+        return statusCode;
+    }
+
+    /**
+     * Status line and headers of a response, with how its body is framed.
+     */
+    static final class ResponseHead {
+        final int statusCode;
+        final Map<String, List<String>> headers;
+        final long contentLength;
+        final boolean chunked;
+        final boolean keepAlive;
+
+        ResponseHead(int statusCode, Map<String, List<String>> headers, long contentLength, boolean chunked, boolean keepAlive) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.contentLength = contentLength;
+            this.chunked = chunked;
+            this.keepAlive = keepAlive;
+        }
+
+        boolean hasBody() {
+            return statusCode >= 200 && statusCode != 204 && statusCode != 304;
+        }
+
+        /**
+         * @return whether the end of the body is known without the connection being closed
+         */
+        boolean isFramed() {
+            return !hasBody() || chunked || contentLength >= 0;
+        }
+    }
+
+    /**
+     * The daemon closed the connection without sending anything.
+     */
+    static final class EmptyResponseException extends EOFException {
+        EmptyResponseException() {
+            super("No response from server");
+        }
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed in response body");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read == -1) {
+                throw new EOFException("Connection closed in response body");
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+
+    private static final class ChunkedInputStream extends InputStream {
+        private final InputStream in;
+        private final StringBuilder line = new StringBuilder(16);
+        private int remaining;
+        private boolean started;
+        private boolean done;
+
+        ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (done) {
+                return false;
+            }
+            if (started) {
+                readChunkEnd(in, line);
+            }
+            started = true;
+            remaining = readChunkSize(in, line);
+            if (remaining == 0) {
+                readTrailers(in, line);
+                done = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0 && !nextChunk()) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed in chunked body");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining == 0 && !nextChunk()) {
+                return -1;
+            }
+            int read = in.read(b, off, Math.min(len, remaining));
+            if (read == -1) {
+                throw new EOFException("Connection closed in chunked body");
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.intisy.docker.transport;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forwards to another callback while keeping a {@link DockerExchange} up to date and
+ * notifying the interceptors when the response headers arrive.
+ *
+ * @author Finn Birich
+ */
+class InterceptedStreamCallback implements StreamCallback<String> {
+    private final StreamCallback<String> delegate;
+    private final DockerInterceptor[] chain;
+    private final DockerExchange exchange;
+    Throwable error;
+
+    InterceptedStreamCallback(StreamCallback<String> delegate, DockerInterceptor[] chain, DockerExchange exchange) {
+        this.delegate = delegate;
+        this.chain = chain;
+        this.exchange = exchange;
+    }
+
+    void onHeaders(int statusCode, Map<String, List<String>> headers) {
+        DockerHttpClient.headersReceived(chain, exchange, statusCode, headers);
+    }
+
+    @Override
+    public void onStart(Closeable stream) {
+        delegate.onStart(stream);
+    }
+
+    @Override
+    public void onOpen() {
+        delegate.onOpen();
+    }
+
+    @Override
+    public void onNext(String item) {
+        // the line and its terminator, as UTF-8 bytes like the body of a plain request
+        exchange.addBytesReceived(DockerExchange.utf8Length(item) + 1);
+        delegate.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failed(throwable);
+        delegate.onError(throwable);
+    }
+
+    /**
+     * Remember a failure, unless it only reports an HTTP error status, which counts as a response.
+     */
+    void failed(Throwable throwable) {
+        if (exchange.getStatusCode() >= 400 || error != null) {
+            return;
+        }
+        error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+        delegate.onComplete();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.intisy.docker.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A JSON request body, serialized by Gson's {@link JsonWriter} directly into UTF-8 bytes. There is
+ * no intermediate {@code String}, and the length is known for {@code Content-Length} before the
+ * request is written. The bytes are reused as they are when a request is retried.
+ *
+ * @author Finn Birich
+ */
+final class JsonBody extends Writer {
+    private static final int INITIAL_CAPACITY = 512;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+    private char highSurrogate;
+
+    private JsonBody() {
+    }
+
+    static JsonBody of(Gson gson, Object value) throws IOException {
+        JsonBody body = new JsonBody();
+        JsonWriter writer = gson.newJsonWriter(body);
+        gson.toJson(value, value.getClass(), writer);
+        writer.flush();
+        return body;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    @Override
+    public void write(int c) {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) {
+        ensureCapacity(len);
+        for (int i = off; i < off + len; i++) {
+            encode(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        ensureCapacity(len);
+        for (int i = off; i < off + len; i++) {
+            encode(str.charAt(i));
+        }
+    }
+
+    private void encode(char c) {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                ensureCapacity(4);
+                bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+                return;
+            }
+            put((byte) '?');
+        }
+        if (c < 0x80) {
+            put((byte) c);
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            bytes[length++] = (byte) (0xc0 | (c >> 6));
+            bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            put((byte) '?');
+        } else {
+            ensureCapacity(3);
+            bytes[length++] = (byte) (0xe0 | (c >> 12));
+            bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void put(byte b) {
+        if (length == bytes.length) {
+            ensureCapacity(1);
+        }
+        bytes[length++] = b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            put((byte) '?');
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
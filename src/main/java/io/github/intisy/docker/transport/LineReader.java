@@ -0,0 +1,93 @@
+package io.github.intisy.docker.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a streamed response body, such as pull progress or events, into a buffer from
+ * a {@link BufferPool} and decodes each line as UTF-8. Like {@link java.io.BufferedReader#readLine()},
+ * a line ends at LF, CR or CRLF. Closing returns the buffer, the stream is left open.
+ *
+ * @author Finn Birich
+ */
+final class LineReader implements Closeable {
+    private final InputStream in;
+    private final BufferPool pool;
+    private byte[] buffer;
+    private int start;
+    private int end;
+    private boolean skipLf;
+
+    LineReader(InputStream in, BufferPool pool) {
+        this.in = in;
+        this.pool = pool;
+        this.buffer = pool.acquire(BufferPool.BUFFER_SIZE);
+    }
+
+    /**
+     * @return the next line without its terminator, or null at the end of the stream
+     */
+    String readLine() throws IOException {
+        int scan = start;
+        while (true) {
+            if (skipLf && scan < end) {
+                skipLf = false;
+                if (buffer[scan] == '\n') {
+                    start = ++scan;
+                }
+            }
+            for (; scan < end; scan++) {
+                byte b = buffer[scan];
+                if (b == '\n' || b == '\r') {
+                    String line = new String(buffer, start, scan - start, StandardCharsets.UTF_8);
+                    start = scan + 1;
+                    skipLf = b == '\r';
+                    return line;
+                }
+            }
+            int scanned = scan - start;
+            if (!fill()) {
+                if (start == end) {
+                    return null;
+                }
+                String line = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+                start = end;
+                return line;
+            }
+            scan = start + scanned;
+        }
+    }
+
+    /**
+     * Move the partial line to the front of the buffer, growing it for long lines, and read more.
+     */
+    private boolean fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            byte[] larger = Arrays.copyOf(buffer, buffer.length * 2);
+            pool.release(buffer);
+            buffer = larger;
+        }
+        int read = in.read(buffer, end, buffer.length - end);
+        if (read == -1) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
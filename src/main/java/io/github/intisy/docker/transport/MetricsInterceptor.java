@@ -0,0 +1,33 @@
+package io.github.intisy.docker.transport;
+
+import io.github.intisy.docker.metrics.DockerClientMetrics;
+import io.github.intisy.docker.metrics.RequestMetric;
+
+/**
+ * Reports every exchange to a {@link DockerClientMetrics} sink.
+ *
+ * @author Finn Birich
+ */
+class MetricsInterceptor implements DockerInterceptor {
+    private final DockerClientMetrics metrics;
+
+    MetricsInterceptor(DockerClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onComplete(DockerExchange exchange, DockerResponse response) {
+        record(exchange, null);
+    }
+
+    @Override
+    public void onError(DockerExchange exchange, Throwable error) {
+        record(exchange, error);
+    }
+
+    private void record(DockerExchange exchange, Throwable error) {
+        metrics.record(new RequestMetric(exchange.getMethod(), exchange.getEndpoint(), exchange.getStatusCode(),
+                System.nanoTime() - exchange.getStartNanos(), exchange.getBytesSent(), exchange.getBytesReceived(),
+                exchange.isConnectionReused(), exchange.isStreaming(), error));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.intisy.docker.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request path with parameter slots, e.g. {@code /containers/{id}/logs}, parsed once and kept
+ * in a constant. Expanding it fills the slots without any parsing, and the resulting
+ * {@link RequestPath} carries the template, so metrics and interceptors see the endpoint
+ * without deriving it from the path.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * private static final PathTemplate LOGS = PathTemplate.compile("/containers/{id}/logs");
+ *
+ * client.get(LOGS.expand(containerId).query("tail", 100));
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class PathTemplate {
+    private final String template;
+    private final String[] literals;
+
+    private PathTemplate(String template, String[] literals) {
+        this.template = template;
+        this.literals = literals;
+    }
+
+    /**
+     * Parse a template.
+      *
+      * @param template the path, with each parameter written as {@code {name}}
+      * @return the compiled template
+     */
+    public static PathTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed parameter in path template: " + template);
+            }
+            literals.add(template.substring(start, open));
+            start = close + 1;
+        }
+        literals.add(template.substring(start));
+        return new PathTemplate(template, literals.toArray(new String[0]));
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Fill the parameter slots, in order. Characters that would end the path, such as {@code ?},
+     * {@code #} or a space, are percent-encoded; everything else is kept, so image names keep
+     * their slashes.
+      *
+      * @param values one value per parameter
+      * @return the path, to which query parameters can be added
+     */
+    public RequestPath expand(String... values) {
+        if (values.length != literals.length - 1) {
+            throw new IllegalArgumentException("Path template " + template + " takes " + (literals.length - 1)
+                    + " parameters, got " + values.length);
+        }
+        int capacity = template.length() + 32;
+        for (String value : values) {
+            capacity += value.length();
+        }
+        StringBuilder path = new StringBuilder(capacity).append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            RequestPath.encodePathSegment(path, values[i]);
+            path.append(literals[i + 1]);
+        }
+        return new RequestPath(path, template);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.intisy.docker.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads the PEM files of a Docker TLS setup: certificates, and unencrypted private keys in PKCS#8
+ * ({@code BEGIN PRIVATE KEY}), PKCS#1 ({@code BEGIN RSA PRIVATE KEY}) or SEC1
+ * ({@code BEGIN EC PRIVATE KEY}) form, as written by {@code openssl} and {@code docker-machine}.
+ * PKCS#1 and SEC1 keys are wrapped into PKCS#8 so the JDK can load them without extra libraries.
+ *
+ * @author Finn Birich
+ */
+final class Pem {
+    private static final byte[] RSA_ALGORITHM = {
+            0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00
+    };
+    private static final byte[] EC_ALGORITHM_OID = {
+            0x06, 0x07, 0x2a, (byte) 0x86, 0x48, (byte) 0xce, 0x3d, 0x02, 0x01
+    };
+    private static final byte[] VERSION_0 = {0x02, 0x01, 0x00};
+
+    private Pem() {
+    }
+
+    static List<X509Certificate> readCertificates(Path file) throws IOException, GeneralSecurityException {
+        List<X509Certificate> certificates = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            for (Certificate certificate : CertificateFactory.getInstance("X.509").generateCertificates(in)) {
+                certificates.add((X509Certificate) certificate);
+            }
+        }
+        if (certificates.isEmpty()) {
+            throw new GeneralSecurityException("No certificate in " + file);
+        }
+        return certificates;
+    }
+
+    static PrivateKey readPrivateKey(Path file) throws IOException, GeneralSecurityException {
+        String pem = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+        int begin = pem.indexOf("-----BEGIN ");
+        int typeEnd = begin >= 0 ? pem.indexOf("-----", begin + 11) : -1;
+        if (typeEnd < 0) {
+            throw new GeneralSecurityException("No PEM private key in " + file);
+        }
+        String type = pem.substring(begin + 11, typeEnd);
+        int end = pem.indexOf("-----END " + type + "-----", typeEnd);
+        if (end < 0) {
+            throw new GeneralSecurityException("Unterminated PEM block in " + file);
+        }
+        byte[] der = Base64.getMimeDecoder().decode(pem.substring(typeEnd + 5, end));
+        switch (type) {
+            case "PRIVATE KEY":
+                return readPkcs8(der);
+            case "RSA PRIVATE KEY":
+                return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(
+                        sequence(VERSION_0, RSA_ALGORITHM, tlv(0x04, der))));
+            case "EC PRIVATE KEY":
+                byte[] curve = ecCurve(der);
+                return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(
+                        sequence(VERSION_0, sequence(EC_ALGORITHM_OID, curve), tlv(0x04, der))));
+            default:
+                throw new GeneralSecurityException("Unsupported private key type " + type + " in " + file
+                        + "; encrypted keys have to be decrypted first");
+        }
+    }
+
+    private static PrivateKey readPkcs8(byte[] der) throws GeneralSecurityException {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(der);
+        GeneralSecurityException failure = null;
+        for (String algorithm : new String[]{"RSA", "EC", "Ed25519"}) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+            } catch (GeneralSecurityException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Find the named curve of a SEC1 {@code ECPrivateKey}, the OID in its {@code [0]} parameters.
+     */
+    private static byte[] ecCurve(byte[] der) throws GeneralSecurityException {
+        int[] position = {0};
+        if (readTag(der, position) != 0x30) {
+            throw new GeneralSecurityException("Malformed EC private key");
+        }
+        int end = readLength(der, position) + position[0];
+        while (position[0] < end) {
+            int tag = readTag(der, position);
+            int length = readLength(der, position);
+            if (tag == 0xa0) {
+                byte[] curve = new byte[length];
+                System.arraycopy(der, position[0], curve, 0, length);
+                return curve;
+            }
+            position[0] += length;
+        }
+        throw new GeneralSecurityException("EC private key without named curve");
+    }
+
+    private static int readTag(byte[] der, int[] position) throws GeneralSecurityException {
+        if (position[0] >= der.length) {
+            throw new GeneralSecurityException("Truncated DER structure");
+        }
+        return der[position[0]++] & 0xff;
+    }
+
+    private static int readLength(byte[] der, int[] position) throws GeneralSecurityException {
+        int length = readTag(der, position);
+        if (length >= 0x80) {
+            int bytes = length & 0x7f;
+            if (bytes > 3) {
+                throw new GeneralSecurityException("DER length too large");
+            }
+            length = 0;
+            for (int i = 0; i < bytes; i++) {
+                length = (length << 8) | readTag(der, position);
+            }
+        }
+        if (position[0] + length > der.length) {
+            throw new GeneralSecurityException("Truncated DER structure");
+        }
+        return length;
+    }
+
+    private static byte[] sequence(byte[]... elements) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] element : elements) {
+            content.write(element, 0, element.length);
+        }
+        return tlv(0x30, content.toByteArray());
+    }
+
+    private static byte[] tlv(int tag, byte[] value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+        out.write(tag);
+        int length = value.length;
+        if (length < 0x80) {
+            out.write(length);
+        } else if (length < 0x100) {
+            out.write(0x81);
+            out.write(length);
+        } else if (length < 0x10000) {
+            out.write(0x82);
+            out.write(length >> 8);
+            out.write(length);
+        } else {
+            out.write(0x83);
+            out.write(length >> 16);
+            out.write(length >> 8);
+            out.write(length);
+        }
+        out.write(value, 0, value.length);
+        return out.toByteArray();
+    }
+}
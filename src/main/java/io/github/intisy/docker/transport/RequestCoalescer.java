@@ -0,0 +1,141 @@
+package io.github.intisy.docker.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares one in-flight request among identical concurrent callers (single-flight),
+ * optionally caching successful responses for a short time.
+ * <p>
+ * Every {@link #invalidate()} starts a new generation. Callers only join requests and reuse
+ * responses of the current generation, so a response read before a change of daemon state is
+ * neither shared nor cached afterwards.
+ *
+ * @author Finn Birich
+ */
+class RequestCoalescer {
+    private static final int CACHE_PRUNE_THRESHOLD = 1024;
+
+    private final Map<String, CompletableFuture<DockerResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long cacheTtlNanos;
+
+    RequestCoalescer(long cacheTtlMs) {
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+    }
+
+    DockerResponse execute(String key, Request request) throws IOException {
+        long current = generation.get();
+        if (cacheTtlNanos > 0) {
+            CachedResponse cached = cache.get(key);
+            if (cached != null && cached.generation == current && !cached.isExpired(System.nanoTime())) {
+                return cached.response;
+            }
+        }
+
+        CompletableFuture<DockerResponse> future = new CompletableFuture<>();
+        CompletableFuture<DockerResponse> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            DockerResponse response = request.execute();
+            if (cacheTtlNanos > 0 && response.isSuccessful()) {
+                store(key, response, current);
+            }
+            future.complete(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Start a new generation after a request that may have changed daemon state: later callers
+     * send a new request instead of joining one in flight, and cached responses are dropped.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        if (!cache.isEmpty()) {
+            cache.clear();
+        }
+    }
+
+    private void store(String key, DockerResponse response, long requestGeneration) {
+        if (generation.get() != requestGeneration) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (cache.size() >= CACHE_PRUNE_THRESHOLD) {
+            Iterator<CachedResponse> iterator = cache.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+        cache.put(key, new CachedResponse(response, requestGeneration, now + cacheTtlNanos));
+    }
+
+    /**
+     * Wait for the shared request, at most until the deadline of the caller's {@link RequestScope}.
+     */
+    private static DockerResponse await(CompletableFuture<DockerResponse> future) throws IOException {
+        Deadline deadline = RequestScope.currentDeadline();
+        try {
+            if (!deadline.isBounded()) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("Request deadline exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for shared request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    interface Request {
+        DockerResponse execute() throws IOException;
+    }
+
+    private static class CachedResponse {
+        private final DockerResponse response;
+        private final long generation;
+        private final long expiresAt;
+
+        private CachedResponse(DockerResponse response, long generation, long expiresAt) {
+            this.response = response;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
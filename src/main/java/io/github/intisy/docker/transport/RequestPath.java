@@ -0,0 +1,176 @@
+package io.github.intisy.docker.transport;
+
+import io.github.intisy.docker.metrics.EndpointTemplates;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A request path with its query string, built by {@link PathTemplate#expand(String...)}. Query
+ * parameters are percent-encoded straight into the path; names and values made only of
+ * unreserved characters, which is nearly all of them, are appended without any copy.
+ *
+ * @author Finn Birich
+ */
+public final class RequestPath {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final StringBuilder path;
+    private String template;
+    private boolean hasQuery;
+    private String value;
+
+    RequestPath(StringBuilder path, String template) {
+        this.path = path;
+        this.template = template;
+    }
+
+    /**
+     * Wrap a path built by hand. Its endpoint template is derived from the path when first needed.
+      *
+      * @param path the path, optionally with a query string
+      * @return the request path
+     */
+    public static RequestPath of(String path) {
+        RequestPath requestPath = new RequestPath(new StringBuilder(path), null);
+        requestPath.hasQuery = path.indexOf('?') >= 0;
+        return requestPath;
+    }
+
+    /**
+     * Add a query parameter. Null values are skipped, so optional parameters need no check.
+      *
+      * @param name the parameter name
+      * @param value the parameter value, or null to leave the parameter out
+      * @return this path
+     */
+    public RequestPath query(String name, String value) {
+        if (value == null) {
+            return this;
+        }
+        path.append(hasQuery ? '&' : '?');
+        hasQuery = true;
+        encodeQuery(path, name);
+        path.append('=');
+        encodeQuery(path, value);
+        this.value = null;
+        return this;
+    }
+
+    public RequestPath query(String name, boolean value) {
+        return query(name, value ? "true" : "false");
+    }
+
+    public RequestPath query(String name, int value) {
+        return query(name, Integer.toString(value));
+    }
+
+    /**
+     * Add a query parameter holding a number, if set.
+      *
+      * @param name the parameter name
+      * @param value the parameter value, or null to leave the parameter out
+      * @return this path
+     */
+    public RequestPath query(String name, Integer value) {
+        return value != null ? query(name, value.toString()) : this;
+    }
+
+    /**
+     * Add query parameters, in the map's iteration order.
+      *
+      * @param params the parameters, may be null
+      * @return this path
+     */
+    public RequestPath query(Map<String, String> params) {
+        if (params != null) {
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                query(entry.getKey(), entry.getValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Get the endpoint template, e.g. {@code /containers/{id}/json}.
+      *
+      * @return the template
+     */
+    public String getTemplate() {
+        if (template == null) {
+            template = EndpointTemplates.of(toString());
+        }
+        return template;
+    }
+
+    /**
+     * @return the path with its query string
+     */
+    @Override
+    public String toString() {
+        if (value == null) {
+            value = path.toString();
+        }
+        return value;
+    }
+
+    static void encodePathSegment(StringBuilder out, String value) {
+        encode(out, value, false);
+    }
+
+    private static void encodeQuery(StringBuilder out, String value) {
+        encode(out, value, true);
+    }
+
+    private static void encode(StringBuilder out, String value, boolean query) {
+        for (int i = 0; i < value.length(); i++) {
+            if (mustEncode(value.charAt(i), query)) {
+                out.append(value, 0, i);
+                for (int j = i; j < value.length(); j++) {
+                    char c = value.charAt(j);
+                    if (mustEncode(c, query)) {
+                        j = appendPercentEncoded(out, value, j);
+                    } else {
+                        out.append(c);
+                    }
+                }
+                return;
+            }
+        }
+        out.append(value);
+    }
+
+    /**
+     * Query parts keep only unreserved characters; path parameters only escape what would end the path.
+     */
+    private static boolean mustEncode(char c, boolean query) {
+        if (query) {
+            return !((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~');
+        }
+        return c == '?' || c == '#' || c == '%' || c <= ' ' || c >= 0x7f;
+    }
+
+    /**
+     * Append the UTF-8 bytes of the character at the index percent-encoded.
+     *
+     * @return the index of the last character consumed, which is past the index for a surrogate pair
+     */
+    private static int appendPercentEncoded(StringBuilder out, String value, int index) {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            appendByte(out, c);
+            return index;
+        }
+        int end = Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1)) ? index + 2 : index + 1;
+        for (byte b : value.substring(index, end).getBytes(StandardCharsets.UTF_8)) {
+            appendByte(out, b & 0xff);
+        }
+        return end - 1;
+    }
+
+    private static void appendByte(StringBuilder out, int b) {
+        out.append('%').append(HEX[b >> 4]).append(HEX[b & 0xf]);
+    }
+}
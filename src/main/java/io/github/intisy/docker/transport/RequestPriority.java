@@ -0,0 +1,34 @@
+package io.github.intisy.docker.transport;
+
+/**
+ * Scheduling priority of a request. When the concurrency limit of a {@link DockerRateLimiter}
+ * is saturated, waiting requests are admitted in priority order, so health checks and inspects
+ * are not stuck behind a bulk cleanup.
+ * <p>
+ * Commands set the priority with {@code withPriority(...)}, see {@link RequestScope}. Requests
+ * without one get a default from their endpoint: pings are {@link #CRITICAL}, pulls, builds,
+ * prunes and image removals are {@link #BULK}, everything else is {@link #NORMAL}.
+ *
+ * @author Finn Birich
+ */
+public enum RequestPriority {
+    /** Latency-sensitive calls such as health checks. */
+    CRITICAL,
+    /** Regular calls. */
+    NORMAL,
+    /** Background work that may wait: pulls, builds, cleanup. */
+    BULK;
+
+    static RequestPriority defaultFor(DockerExchange exchange) {
+        String endpoint = exchange.getEndpoint();
+        if (endpoint.equals("/_ping")) {
+            return CRITICAL;
+        }
+        if (exchange.isStreaming() || endpoint.equals("/images/create") || endpoint.equals("/build")
+                || endpoint.endsWith("/prune")
+                || (exchange.getMethod().equals("DELETE") && endpoint.startsWith("/images/"))) {
+            return BULK;
+        }
+        return NORMAL;
+    }
+}
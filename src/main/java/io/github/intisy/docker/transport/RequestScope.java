@@ -0,0 +1,109 @@
+package io.github.intisy.docker.transport;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call request settings of a command, applied to the requests made by the current thread
+ * until the scope is closed. Commands open one around their requests with try-with-resources.
+ * <p>
+ * A timeout set here is a deadline for all requests of the command together, retries included.
+ * It replaces the client's read timeout, so a long {@code WaitContainerCmd} can be given an hour
+ * while a ping fails after 200 milliseconds. Nested scopes keep the earlier deadline.
+ *
+ * @author Finn Birich
+ */
+public final class RequestScope implements AutoCloseable {
+    private static final ThreadLocal<RequestScope> CURRENT = new ThreadLocal<>();
+    private static final RequestScope NONE = new RequestScope(null, null, Deadline.NONE);
+
+    private final RequestScope previous;
+    private final RequestPriority priority;
+    private final Deadline deadline;
+
+    private RequestScope(RequestScope previous, RequestPriority priority, Deadline deadline) {
+        this.previous = previous;
+        this.priority = priority;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Enter a scope.
+     *
+     * @param priority the priority of the requests, or null to keep the current one
+     * @param timeout the deadline of the requests from now, or null to keep the current one
+     * @return the scope
+     */
+    public static RequestScope enter(RequestPriority priority, Duration timeout) {
+        if (priority == null && timeout == null) {
+            return NONE;
+        }
+        RequestScope previous = CURRENT.get();
+        Deadline deadline = timeout != null ? Deadline.after(timeout.toNanos(), TimeUnit.NANOSECONDS) : Deadline.NONE;
+        if (previous != null) {
+            deadline = deadline.min(previous.deadline);
+            if (priority == null) {
+                priority = previous.priority;
+            }
+        }
+        RequestScope scope = new RequestScope(previous, priority, deadline);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Enter a scope with the priority and deadline of a scope on another thread, e.g. in the
+     * workers of a batch.
+     *
+     * @param priority the priority, or null for none
+     * @param deadline the deadline
+     * @return the scope
+     */
+    static RequestScope inherit(RequestPriority priority, Deadline deadline) {
+        if (priority == null && !deadline.isBounded()) {
+            return NONE;
+        }
+        RequestScope scope = new RequestScope(CURRENT.get(), priority, deadline);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Wrap a task to run on another thread with the priority and deadline of the current thread's
+     * scope, e.g. a stream that a command reads in the background.
+     *
+     * @param task the task
+     * @return the task running in a scope like the current one
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestPriority priority = currentPriority();
+        Deadline deadline = currentDeadline();
+        return () -> {
+            try (RequestScope ignored = inherit(priority, deadline)) {
+                task.run();
+            }
+        };
+    }
+
+    static RequestPriority currentPriority() {
+        RequestScope scope = CURRENT.get();
+        return scope != null ? scope.priority : null;
+    }
+
+    static Deadline currentDeadline() {
+        RequestScope scope = CURRENT.get();
+        return scope != null ? scope.deadline : Deadline.NONE;
+    }
+
+    @Override
+    public void close() {
+        if (this == NONE) {
+            return;
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.intisy.docker.transport;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request that waited longer than allowed for a concurrency slot of
+ * the {@link DockerRateLimiter}. The request never reached the daemon and is not retried.
+ *
+ * @author Finn Birich
+ */
+public class RequestSlotTimeoutException extends IOException {
+
+    public RequestSlotTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.intisy.docker.transport;
+
+/**
+ * Shared allowance for retries: every request deposits a fraction of a retry and the balance also
+ * refills at a minimum rate over time. A retry withdraws one, and is skipped if the balance is empty.
+ *
+ * @author Finn Birich
+ */
+class RetryBudget {
+    private final double ratio;
+    private final double minPerNano;
+    private final double capacity;
+    private double balance;
+    private long lastRefill;
+
+    RetryBudget(double ratio, double minRetriesPerSecond) {
+        this.ratio = ratio;
+        this.minPerNano = minRetriesPerSecond / 1e9;
+        this.capacity = Math.max(1, minRetriesPerSecond * 10);
+        this.balance = minRetriesPerSecond;
+        this.lastRefill = System.nanoTime();
+    }
+
+    synchronized void deposit() {
+        refill();
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        balance = Math.min(capacity, balance + (now - lastRefill) * minPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.intisy.docker.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries transient failures of non-streaming requests.
+ * <p>
+ * A request that could not connect (daemon restarting, socket not there yet) never reached the
+ * daemon and is retried whatever its method. Other I/O errors and 429/502/503/504 responses are
+ * only retried for idempotent requests: GETs, and start/stop/kill/restart/pause/unpause/wait/tag.
+ * When a retried start or stop gets 304, or a retried kill, pause or unpause gets 409 ("not
+ * running", "already paused"), an earlier attempt has already been applied and the retry is
+ * reported as 204 No Content. Requests failed fast by the client itself, with a
+ * {@link CircuitOpenException} or {@link RequestSlotTimeoutException}, are not retried.
+ * <p>
+ * Attempts are spaced by exponential backoff with full jitter. All retries share a
+ * {@link RetryBudget}, so when the daemon is down for good retries stop instead of multiplying
+ * the load.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DockerClient client = DockerClient.builder()
+ *     .withRetryPolicy(RetryPolicy.builder()
+ *         .withMaxAttempts(5)
+ *         .withBackoff(100, 5000, TimeUnit.MILLISECONDS)
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class RetryPolicy {
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+    private static final Set<String> IDEMPOTENT_ACTIONS = new HashSet<>(Arrays.asList(
+            "/containers/{id}/start", "/containers/{id}/stop", "/containers/{id}/kill",
+            "/containers/{id}/restart", "/containers/{id}/pause", "/containers/{id}/unpause",
+            "/containers/{id}/wait", "/images/{name}/tag"));
+    private static final Map<String, Integer> ALREADY_APPLIED_STATUS = new HashMap<>();
+
+    static {
+        ALREADY_APPLIED_STATUS.put("/containers/{id}/start", 304);
+        ALREADY_APPLIED_STATUS.put("/containers/{id}/stop", 304);
+        ALREADY_APPLIED_STATUS.put("/containers/{id}/kill", 409);
+        ALREADY_APPLIED_STATUS.put("/containers/{id}/pause", 409);
+        ALREADY_APPLIED_STATUS.put("/containers/{id}/unpause", 409);
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Set<Integer> retryableStatus;
+    private final RetryBudget budget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoffNanos;
+        this.maxBackoffNanos = builder.maxBackoffNanos;
+        this.retryableStatus = new HashSet<>(builder.retryableStatus);
+        this.budget = new RetryBudget(builder.budgetRatio, builder.minRetriesPerSecond);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    DockerResponse execute(String method, RequestPath path, RequestCoalescer.Request request) throws IOException {
+        budget.deposit();
+        for (int attempt = 1; ; attempt++) {
+            DockerResponse response;
+            try {
+                response = request.execute();
+            } catch (InterruptedIOException | CircuitOpenException | RequestSlotTimeoutException e) {
+                throw e;
+            } catch (IOException e) {
+                boolean retryable = e instanceof ConnectException || isIdempotent(method, path.getTemplate());
+                if (!retryable || !shouldRetry(attempt) || !backoff(attempt, null)) {
+                    throw e;
+                }
+                log.debug("Retried {} {} after {} (attempt {})", method, path, e.toString(), attempt);
+                continue;
+            }
+            int status = response.getStatusCode();
+            if (attempt > 1 && (status == 304 || status == 409)) {
+                if (Integer.valueOf(status).equals(ALREADY_APPLIED_STATUS.get(path.getTemplate()))) {
+                    return new DockerResponse(204, response.getHeaders(), "");
+                }
+            }
+            if (!retryableStatus.contains(status)) {
+                return response;
+            }
+            if (!isIdempotent(method, path.getTemplate()) || !shouldRetry(attempt) || !backoff(attempt, response.getHeader("Retry-After"))) {
+                return response;
+            }
+            log.debug("Retried {} {} after status {} (attempt {})", method, path, status, attempt);
+        }
+    }
+
+    private boolean shouldRetry(int attempt) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            log.debug("Retry budget exhausted");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isIdempotent(String method, String endpoint) {
+        return method.equals("GET") || method.equals("HEAD") || (method.equals("POST") && IDEMPOTENT_ACTIONS.contains(endpoint));
+    }
+
+    /**
+     * @return false if the backoff would run past the command's deadline
+     */
+    private boolean backoff(int attempt, String retryAfter) throws InterruptedIOException {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null) {
+            try {
+                delay = Math.min(maxBackoffNanos, Math.max(delay, TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()))));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (delay >= RequestScope.currentDeadline().remainingNanos()) {
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+        return true;
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        private long maxBackoffNanos = TimeUnit.SECONDS.toNanos(2);
+        private Set<Integer> retryableStatus = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+        private double budgetRatio = 0.2;
+        private double minRetriesPerSecond = 10;
+
+        private Builder() {
+        }
+
+        /**
+         * The maximum number of attempts per request, including the first (default: 3).
+          *
+          * @param maxAttempts the maximum number of attempts
+          * @return this builder
+         */
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * The backoff before the first retry and the cap for later ones (default: 50 ms and 2 seconds).
+         * The actual delay is drawn uniformly from zero to the exponential backoff.
+          *
+          * @param initial the backoff before the first retry
+          * @param max the maximum backoff
+          * @param unit the time unit
+          * @return this builder
+         */
+        public Builder withBackoff(long initial, long max, TimeUnit unit) {
+            this.initialBackoffNanos = unit.toNanos(initial);
+            this.maxBackoffNanos = unit.toNanos(max);
+            return this;
+        }
+
+        /**
+         * The response codes that are retried for idempotent requests (default: 429, 502, 503, 504).
+          *
+          * @param statusCodes the retryable status codes
+          * @return this builder
+         */
+        public Builder withRetryableStatus(Integer... statusCodes) {
+            this.retryableStatus = new HashSet<>(Arrays.asList(statusCodes));
+            return this;
+        }
+
+        /**
+         * Limit retries to a fraction of requests, plus a minimum rate so a quiet client can still
+         * ride out a daemon restart (default: 20% and 10 per second).
+          *
+          * @param ratio the retries allowed per request
+          * @param minRetriesPerSecond the retries allowed per second regardless of traffic
+          * @return this builder
+         */
+        public Builder withRetryBudget(double ratio, double minRetriesPerSecond) {
+            this.budgetRatio = ratio;
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (maxAttempts < 1 || initialBackoffNanos < 0 || maxBackoffNanos < initialBackoffNanos) {
+                throw new IllegalArgumentException("Invalid retry settings: attempts=" + maxAttempts
+                        + ", backoff=" + initialBackoffNanos + "-" + maxBackoffNanos + "ns");
+            }
+            if (budgetRatio < 0 || minRetriesPerSecond < 0) {
+                throw new IllegalArgumentException("Invalid retry budget: " + budgetRatio + ", " + minRetriesPerSecond + "/s");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.intisy.docker.transport;
 
+import java.io.Closeable;
+
 /**
  * Callback interface for streaming Docker responses (logs, pull progress, etc.).
  *
@@ -15,6 +17,21 @@ public interface StreamCallback<T> {
      */
     void onNext(T item);
 
+    /**
+     * Called once the request was sent, with a handle that closes the stream from another thread.
+     * A read blocked on a quiet stream, such as events, then fails right away instead of waiting
+     * for the next item; check {@link #isCancelled()} in {@link #onError(Throwable)} to tell apart.
+     *
+     * @param stream the handle that closes the stream
+     */
+    default void onStart(Closeable stream) {}
+
+    /**
+     * Called once the response headers have been received and the stream is open,
+     * before the first item is delivered.
+     */
+    default void onOpen() {}
+
     /**
      * Called when an error occurs during streaming.
      *
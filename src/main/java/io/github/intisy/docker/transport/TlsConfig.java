@@ -0,0 +1,237 @@
+package io.github.intisy.docker.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLS settings for a daemon listening on TCP with {@code --tlsverify}, usually on port 2376: the
+ * CA that signed the daemon's certificate and the client certificate to authenticate with, read
+ * from PEM files like those in {@code DOCKER_CERT_PATH}.
+ * <p>
+ * The SSL context is created once and shared by all connections of a client, which are kept
+ * alive between requests. A new connection resumes the TLS session of an earlier one, so the
+ * full handshake is only paid once per daemon.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DockerClient client = DockerClient.builder()
+ *     .withHost("tcp://build-host:2376")
+ *     .withTls(TlsConfig.builder()
+ *         .withCertPath(Paths.get(System.getProperty("user.home"), ".docker"))
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public final class TlsConfig {
+    private static final Logger log = LoggerFactory.getLogger(TlsConfig.class);
+    private static final char[] KEY_PASSWORD = "docker-java".toCharArray();
+
+    private final SSLSocketFactory socketFactory;
+    private final boolean hostnameVerification;
+
+    private TlsConfig(SSLContext context, boolean hostnameVerification) {
+        this.socketFactory = context.getSocketFactory();
+        this.hostnameVerification = hostnameVerification;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Read the TLS settings the Docker CLI uses: enabled by a non-empty {@code DOCKER_TLS_VERIFY},
+     * with the PEM files in {@code DOCKER_CERT_PATH} or else {@code ~/.docker}.
+      *
+      * @return the TLS settings, or null if TLS is not enabled in the environment
+     */
+    public static TlsConfig fromEnvironment() {
+        String verify = System.getenv("DOCKER_TLS_VERIFY");
+        if (verify == null || verify.isEmpty()) {
+            return null;
+        }
+        String certPath = System.getenv("DOCKER_CERT_PATH");
+        Path directory = certPath != null && !certPath.isEmpty()
+                ? Paths.get(certPath)
+                : Paths.get(System.getProperty("user.home"), ".docker");
+        return builder().withCertPath(directory).build();
+    }
+
+    /**
+     * Wrap a connected socket and complete the TLS handshake.
+      *
+      * @param socket the connected TCP socket
+      * @param host the host name or address as given, for SNI, hostname verification and session resumption
+      * @param port the port
+      * @param timeoutMs how long the handshake may take, 0 meaning infinite
+      * @return the TLS socket
+     */
+    SSLSocket handshake(Socket socket, String host, int port, int timeoutMs) throws IOException {
+        SSLSocket sslSocket = (SSLSocket) socketFactory.createSocket(socket, host, port, true);
+        try {
+            if (hostnameVerification) {
+                SSLParameters parameters = sslSocket.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(parameters);
+            }
+            sslSocket.setSoTimeout(timeoutMs);
+            sslSocket.startHandshake();
+            sslSocket.setSoTimeout(0);
+        } catch (IOException | RuntimeException e) {
+            sslSocket.close();
+            throw e;
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("TLS connection to {}:{} using {} {}", host, port,
+                    sslSocket.getSession().getProtocol(), sslSocket.getSession().getCipherSuite());
+        }
+        return sslSocket;
+    }
+
+    public static class Builder {
+        private Path caCertificate;
+        private Path clientCertificate;
+        private Path clientKey;
+        private boolean hostnameVerification = true;
+        private int sessionCacheSize = -1;
+        private int sessionTimeoutSeconds = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Read {@code ca.pem}, {@code cert.pem} and {@code key.pem} from a directory, as
+         * {@code DOCKER_CERT_PATH} holds them. Files that do not exist are left out.
+          *
+          * @param directory the certificate directory
+          * @return this builder
+         */
+        public Builder withCertPath(Path directory) {
+            Path ca = directory.resolve("ca.pem");
+            if (Files.exists(ca)) {
+                this.caCertificate = ca;
+            }
+            Path cert = directory.resolve("cert.pem");
+            Path key = directory.resolve("key.pem");
+            if (Files.exists(cert) && Files.exists(key)) {
+                this.clientCertificate = cert;
+                this.clientKey = key;
+            }
+            return this;
+        }
+
+        /**
+         * Trust only daemon certificates signed by these CAs (default: the JVM's trusted CAs).
+          *
+          * @param caCertificate the PEM file with one or more CA certificates
+          * @return this builder
+         */
+        public Builder withCaCertificate(Path caCertificate) {
+            this.caCertificate = caCertificate;
+            return this;
+        }
+
+        /**
+         * Authenticate with a client certificate.
+          *
+          * @param certificate the PEM file with the certificate, optionally followed by its chain
+          * @param key the PEM file with the unencrypted private key, PKCS#8, PKCS#1 (RSA) or SEC1 (EC)
+          * @return this builder
+         */
+        public Builder withClientCertificate(Path certificate, Path key) {
+            this.clientCertificate = certificate;
+            this.clientKey = key;
+            return this;
+        }
+
+        /**
+         * Check that the daemon's certificate was issued for the host connected to (default: true).
+          *
+          * @param hostnameVerification whether to verify the host name
+          * @return this builder
+         */
+        public Builder withHostnameVerification(boolean hostnameVerification) {
+            this.hostnameVerification = hostnameVerification;
+            return this;
+        }
+
+        /**
+         * How many TLS sessions to keep for resumption, and for how long (default: the JDK's).
+          *
+          * @param size the number of sessions, 0 meaning unlimited
+          * @param timeout how long a session can be resumed, 0 meaning no limit
+          * @param unit the time unit
+          * @return this builder
+         */
+        public Builder withSessionCache(int size, long timeout, TimeUnit unit) {
+            this.sessionCacheSize = size;
+            this.sessionTimeoutSeconds = (int) Math.min(unit.toSeconds(timeout), Integer.MAX_VALUE);
+            return this;
+        }
+
+        /**
+         * Read the certificates and keys and create the SSL context.
+          *
+          * @return the TLS settings
+          * @throws IllegalArgumentException if a certificate or key cannot be read
+         */
+        public TlsConfig build() {
+            try {
+                KeyManagerFactory keyManagers = null;
+                if (clientCertificate != null) {
+                    List<X509Certificate> chain = Pem.readCertificates(clientCertificate);
+                    PrivateKey key = Pem.readPrivateKey(clientKey);
+                    KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+                    keyStore.load(null, null);
+                    keyStore.setKeyEntry("client", key, KEY_PASSWORD, chain.toArray(new X509Certificate[0]));
+                    keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+                    keyManagers.init(keyStore, KEY_PASSWORD);
+                }
+                TrustManagerFactory trustManagers = null;
+                if (caCertificate != null) {
+                    KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+                    trustStore.load(null, null);
+                    List<X509Certificate> cas = Pem.readCertificates(caCertificate);
+                    for (int i = 0; i < cas.size(); i++) {
+                        trustStore.setCertificateEntry("ca-" + i, cas.get(i));
+                    }
+                    trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                    trustManagers.init(trustStore);
+                }
+                SSLContext context = SSLContext.getInstance("TLS");
+                context.init(keyManagers != null ? keyManagers.getKeyManagers() : null,
+                        trustManagers != null ? trustManagers.getTrustManagers() : null, null);
+                SSLSessionContext sessions = context.getClientSessionContext();
+                if (sessionCacheSize >= 0) {
+                    sessions.setSessionCacheSize(sessionCacheSize);
+                }
+                if (sessionTimeoutSeconds >= 0) {
+                    sessions.setSessionTimeout(sessionTimeoutSeconds);
+                }
+                return new TlsConfig(context, hostnameVerification);
+            } catch (IOException | GeneralSecurityException e) {
+                throw new IllegalArgumentException("Cannot load TLS certificates: " + e.getMessage(), e);
+            }
+        }
+    }
+}
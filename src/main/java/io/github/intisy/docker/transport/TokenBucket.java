@@ -0,0 +1,34 @@
+package io.github.intisy.docker.transport;
+
+/**
+ * Token bucket as a generic cell rate algorithm: callers reserve a token and sleep for the
+ * returned delay, so the bucket itself never blocks or keeps a queue.
+ *
+ * @author Finn Birich
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit: " + permitsPerSecond + "/s, burst " + burst);
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = System.nanoTime();
+    }
+
+    /**
+     * Reserve one token.
+     *
+     * @return how long the caller has to wait before using the token, in nanoseconds
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        long arrival = now - theoreticalArrival > 0 ? now : theoreticalArrival;
+        theoreticalArrival = arrival + intervalNanos;
+        return Math.max(0, arrival - burstNanos - now);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.intisy.docker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author Finn Birich
+ */
+@Name("io.github.intisy.docker.DaemonStartup")
+@Label("Docker Daemon Startup")
+@Category("Docker")
+class DaemonStartupEvent extends jdk.jfr.Event {
+    @Label("Provider")
+    String provider;
+
+    @Label("Instance ID")
+    String instanceId;
+
+    @Label("Docker Host")
+    String dockerHost;
+
+    @Label("Success")
+    boolean success;
+}
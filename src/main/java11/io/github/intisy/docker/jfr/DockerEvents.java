@@ -0,0 +1,136 @@
+package io.github.intisy.docker.jfr;
+
+/**
+ * Java Flight Recorder events for Docker API time: {@code DockerRequest}, {@code DockerStream},
+ * {@code DockerPull} and {@code DaemonStartup}, all in the "Docker" category.
+ * <p>
+ * This is the Java 11+ variant from {@code META-INF/versions/11}. Events are only allocated
+ * and timed while a recording has the event type enabled. In a runtime image without the
+ * {@code jdk.jfr} module every method is a no-op, as on Java 8.
+ *
+ * @author Finn Birich
+ */
+public final class DockerEvents {
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private DockerEvents() {
+    }
+
+    /**
+     * @return whether events are emitted: on Java 11+ with the {@code jdk.jfr} module present
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static Object beginRequest() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        DockerRequestEvent event = new DockerRequestEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitRequest(Object event, String method, String endpoint, int statusCode,
+                                     long bytesSent, long bytesReceived) {
+        if (event == null) {
+            return;
+        }
+        DockerRequestEvent request = (DockerRequestEvent) event;
+        request.end();
+        if (request.shouldCommit()) {
+            request.method = method;
+            request.endpoint = endpoint;
+            request.statusCode = statusCode;
+            request.bytesSent = bytesSent;
+            request.bytesReceived = bytesReceived;
+            request.commit();
+        }
+    }
+
+    public static Object beginStream() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        DockerStreamEvent event = new DockerStreamEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitStream(Object event, String method, String endpoint, int statusCode, long bytesReceived) {
+        if (event == null) {
+            return;
+        }
+        DockerStreamEvent stream = (DockerStreamEvent) event;
+        stream.end();
+        if (stream.shouldCommit()) {
+            stream.method = method;
+            stream.endpoint = endpoint;
+            stream.statusCode = statusCode;
+            stream.bytesReceived = bytesReceived;
+            stream.commit();
+        }
+    }
+
+    public static Object beginPull() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        DockerPullEvent event = new DockerPullEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitPull(Object event, String image, String tag, int layers, boolean success) {
+        if (event == null) {
+            return;
+        }
+        DockerPullEvent pull = (DockerPullEvent) event;
+        pull.end();
+        if (pull.shouldCommit()) {
+            pull.image = image;
+            pull.tag = tag;
+            pull.layers = layers;
+            pull.success = success;
+            pull.commit();
+        }
+    }
+
+    public static Object beginDaemonStartup() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        DaemonStartupEvent event = new DaemonStartupEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitDaemonStartup(Object event, String provider, String instanceId, String dockerHost,
+                                           boolean success) {
+        if (event == null) {
+            return;
+        }
+        DaemonStartupEvent startup = (DaemonStartupEvent) event;
+        startup.end();
+        if (startup.shouldCommit()) {
+            startup.provider = provider;
+            startup.instanceId = instanceId;
+            startup.dockerHost = dockerHost;
+            startup.success = success;
+            startup.commit();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.intisy.docker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author Finn Birich
+ */
+@Name("io.github.intisy.docker.DockerPull")
+@Label("Docker Pull")
+@Category("Docker")
+class DockerPullEvent extends jdk.jfr.Event {
+    @Label("Image")
+    String image;
+
+    @Label("Tag")
+    String tag;
+
+    @Label("Layers")
+    int layers;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,37 @@
+package io.github.intisy.docker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Finn Birich
+ */
+@Name("io.github.intisy.docker.DockerRequest")
+@Label("Docker Request")
+@Description("A request to the Docker Engine API")
+@Category("Docker")
+@StackTrace(false)
+class DockerRequestEvent extends jdk.jfr.Event {
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. /containers/{id}/json")
+    String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status code, or -1 if no response was received")
+    int statusCode;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+}
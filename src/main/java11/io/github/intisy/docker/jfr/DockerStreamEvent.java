@@ -0,0 +1,31 @@
+package io.github.intisy.docker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Finn Birich
+ */
+@Name("io.github.intisy.docker.DockerStream")
+@Label("Docker Stream")
+@Description("A streaming Docker Engine API request (logs, events, attach, pull), from request to end of stream")
+@Category("Docker")
+@StackTrace(false)
+class DockerStreamEvent extends jdk.jfr.Event {
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int statusCode;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+}
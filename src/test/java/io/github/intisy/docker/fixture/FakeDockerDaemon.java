@@ -0,0 +1,1083 @@
+package io.github.intisy.docker.fixture;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.newsclub.net.unix.AFUNIXServerSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fake Docker daemon on a unix socket, or on a loopback TCP port with optional TLS,
+ * for tests and benchmarks without dockerd.
+ * <p>
+ * Speaks the subset of the Engine API used by {@code DockerClient}: ping, version, container
+ * lifecycle (create, start, stop, kill, pause, unpause, wait, remove), container listing and
+ * inspection, logs and attach with multiplexed frames, image listing and inspection, pull
+ * progress streams and the events stream. Latency, payload sizes and response chunking are
+ * configurable, so streaming edge cases are reproducible on machines without Docker.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(100).withChunkSize(512).start()) {
+ *     DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).build();
+ *     client.listContainers().withShowAll(true).exec();
+ * }
+ * }</pre>
+ *
+ * @author Finn Birich
+ */
+public class FakeDockerDaemon implements Closeable {
+    private static final Gson GSON = new Gson();
+
+    private final Builder config;
+    private final File socketFile;
+    private final ServerSocket server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, FakeContainer> containers = new LinkedHashMap<>();
+    private final List<OutputStream> eventSubscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final List<SSLSession> tlsSessions = new CopyOnWriteArrayList<>();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final Object lock = new Object();
+
+    private FakeDockerDaemon(Builder config) throws IOException {
+        this.config = config;
+        this.workers = Executors.newCachedThreadPool(daemonThreads("fake-docker-daemon"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("fake-docker-daemon-scheduler"));
+        for (int i = 0; i < config.containers; i++) {
+            FakeContainer container = newContainer("service-" + i, config.image, null);
+            for (int l = 0; l < config.labelsPerContainer; l++) {
+                container.labels.put("com.example.label-" + l, "value-" + (i % 10));
+            }
+            container.labels.put("index", String.valueOf(i));
+            container.running = i % 5 != 0;
+            container.started = container.running;
+            containers.put(container.id, container);
+        }
+        if (config.tlsContext != null) {
+            this.socketFile = null;
+            SSLServerSocket tlsServer = (SSLServerSocket) config.tlsContext.getServerSocketFactory()
+                    .createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            tlsServer.setNeedClientAuth(true);
+            this.server = tlsServer;
+        } else if (config.tcp) {
+            this.socketFile = null;
+            this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } else {
+            this.socketFile = File.createTempFile("docker-java-fake", ".sock");
+            if (!socketFile.delete()) {
+                throw new IOException("Could not prepare socket path: " + socketFile);
+            }
+            AFUNIXServerSocket unixServer = AFUNIXServerSocket.newInstance();
+            unixServer.bind(AFUNIXSocketAddress.of(socketFile));
+            this.server = unixServer;
+        }
+        workers.execute(this::acceptLoop);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getDockerHost() {
+        if (socketFile == null) {
+            return "tcp://127.0.0.1:" + server.getLocalPort();
+        }
+        return "unix://" + socketFile.getAbsolutePath();
+    }
+
+    /**
+     * Get the TLS session of every connection accepted so far; a resumed session appears again.
+     *
+     * @return the sessions in connection order
+     */
+    public List<SSLSession> getTlsSessions() {
+        return tlsSessions;
+    }
+
+    /**
+     * Get the number of connections accepted so far.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Get the total number of requests handled so far.
+     *
+     * @return the request count
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Get the number of requests handled for a method and path (without API version and query).
+     *
+     * @param method the HTTP method
+     * @param path the request path, e.g. {@code /containers/json}
+     * @return the request count
+     */
+    public int getRequestCount(String method, String path) {
+        AtomicInteger count = requestCounts.get(method + " " + path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Get the number of clients currently following the events stream.
+     *
+     * @return the subscriber count
+     */
+    public int getEventSubscriberCount() {
+        return eventSubscribers.size();
+    }
+
+    /**
+     * Answer every following request for a method and path with an error, until cleared.
+     *
+     * @param method the HTTP method
+     * @param path the request path, e.g. {@code /containers/json}, or with {@code *} in place of
+     *             the container ID to match all containers, e.g. {@code /containers/}{@code *}{@code /start}
+     * @param status the error status, or 0 to answer normally again
+     */
+    public void failRequests(String method, String path, int status) {
+        if (status == 0) {
+            failures.remove(method + " " + path);
+        } else {
+            failures.put(method + " " + path, status);
+        }
+    }
+
+    public int getContainerCount() {
+        synchronized (lock) {
+            return containers.size();
+        }
+    }
+
+    // ==================== Connection Handling ====================
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connectionCount.incrementAndGet();
+                if (socketFile == null) {
+                    // like dockerd, whose Go runtime disables Nagle's algorithm on TCP connections
+                    socket.setTcpNoDelay(true);
+                }
+                workers.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            if (s instanceof SSLSocket) {
+                ((SSLSocket) s).startHandshake();
+                tlsSessions.add(((SSLSocket) s).getSession());
+            }
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = new BufferedOutputStream(s.getOutputStream());
+            while (true) {
+                Request request = Request.read(in);
+                if (request == null || (!config.pipelining && in.available() > 0)) {
+                    return;
+                }
+                requestCount.incrementAndGet();
+                requestCounts.computeIfAbsent(request.method + " " + request.path, k -> new AtomicInteger()).incrementAndGet();
+                if (config.latencyMs > 0) {
+                    Thread.sleep(config.latencyMs);
+                }
+                boolean keepOpen = handle(request, in, out);
+                out.flush();
+                if (!keepOpen || request.closeConnection) {
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true if the connection may be reused for another request
+     */
+    private boolean handle(Request request, InputStream in, OutputStream out) throws IOException, InterruptedException {
+        String method = request.method;
+        String[] segments = request.path.substring(1).split("/");
+
+        Integer failure = failures.get(method + " " + request.path);
+        if (failure == null && segments.length > 1) {
+            String[] wildcard = segments.clone();
+            wildcard[1] = "*";
+            failure = failures.get(method + " /" + String.join("/", wildcard));
+        }
+        if (failure != null) {
+            sendError(out, failure, "injected failure");
+        } else if (request.path.equals("/_ping")) {
+            send(out, 200, "text/plain", "OK");
+        } else if (request.path.equals("/version")) {
+            send(out, 200, json(version()));
+        } else if (request.path.equals("/events") && method.equals("GET")) {
+            streamEvents(in, out);
+            return false;
+        } else if (request.path.equals("/containers/json") && method.equals("GET")) {
+            send(out, 200, json(listContainers(request)));
+        } else if (request.path.equals("/containers/create") && method.equals("POST")) {
+            createContainer(request, out);
+        } else if (segments[0].equals("containers") && segments.length >= 2) {
+            return handleContainer(request, segments, in, out);
+        } else if (request.path.equals("/images/json") && method.equals("GET")) {
+            send(out, 200, json(listImages()));
+        } else if (request.path.equals("/images/create") && method.equals("POST")) {
+            streamPull(request, out);
+        } else if (segments[0].equals("images") && segments.length >= 3 && segments[segments.length - 1].equals("json")) {
+            send(out, 200, json(inspectImage(request.path.substring(8, request.path.length() - 5))));
+        } else {
+            sendError(out, 404, "page not found");
+        }
+        return true;
+    }
+
+    private boolean handleContainer(Request request, String[] segments, InputStream in, OutputStream out)
+            throws IOException, InterruptedException {
+        String action = segments.length > 2 ? segments[2] : "";
+        FakeContainer container;
+        synchronized (lock) {
+            container = find(segments[1]);
+        }
+        if (container == null) {
+            sendError(out, 404, "No such container: " + segments[1]);
+            return true;
+        }
+        switch (request.method + " " + action) {
+            case "GET json":
+                send(out, 200, json(inspect(container)));
+                return true;
+            case "POST start":
+                if (!transition(container, "start")) {
+                    sendEmpty(out, 304);
+                } else {
+                    sendEmpty(out, 204);
+                }
+                return true;
+            case "POST stop":
+            case "POST kill":
+                if (!transition(container, action.equals("kill") ? "kill" : "die")) {
+                    sendEmpty(out, 304);
+                } else {
+                    sendEmpty(out, 204);
+                }
+                return true;
+            case "POST pause":
+            case "POST unpause":
+                transition(container, action);
+                sendEmpty(out, 204);
+                return true;
+            case "POST wait":
+                waitContainer(container, request.query.getOrDefault("condition", "not-running"), out);
+                return true;
+            case "GET logs":
+                send(out, 200, "application/vnd.docker.multiplexed-stream", logFrames(container, "true".equals(request.query.get("timestamps"))));
+                return true;
+            case "POST attach":
+                attach(container, out);
+                return false;
+            case "DELETE ":
+                synchronized (lock) {
+                    if (container.running && !"true".equals(request.query.get("force"))) {
+                        sendError(out, 409, "cannot remove running container " + container.id);
+                        return true;
+                    }
+                    remove(container);
+                }
+                sendEmpty(out, 204);
+                return true;
+            default:
+                sendError(out, 404, "page not found");
+                return true;
+        }
+    }
+
+    // ==================== Containers ====================
+
+    private FakeContainer newContainer(String name, String image, JsonObject body) {
+        String id = String.format(Locale.ROOT, "%064x", idSequence.incrementAndGet() * 0x9E3779B97F4A7C15L & Long.MAX_VALUE);
+        FakeContainer container = new FakeContainer(id, name, image);
+        if (body != null) {
+            container.config = body;
+            JsonElement labels = body.get("Labels");
+            if (labels != null && labels.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> label : labels.getAsJsonObject().entrySet()) {
+                    container.labels.put(label.getKey(), label.getValue().getAsString());
+                }
+            }
+            JsonElement hostConfig = body.get("HostConfig");
+            if (hostConfig != null && hostConfig.isJsonObject()) {
+                JsonElement autoRemove = hostConfig.getAsJsonObject().get("AutoRemove");
+                container.autoRemove = autoRemove != null && autoRemove.getAsBoolean();
+            }
+        }
+        return container;
+    }
+
+    private void createContainer(Request request, OutputStream out) throws IOException {
+        JsonObject body = request.body.length > 0
+                ? JsonParser.parseString(new String(request.body, StandardCharsets.UTF_8)).getAsJsonObject()
+                : new JsonObject();
+        String image = body.has("Image") ? body.get("Image").getAsString() : config.image;
+        String name = request.query.get("name");
+        FakeContainer container;
+        synchronized (lock) {
+            if (name != null && find(name) != null) {
+                sendError(out, 409, "Conflict. The container name \"/" + name + "\" is already in use");
+                return;
+            }
+            container = newContainer(name != null ? name : "fake_" + idSequence.get(), image, body);
+            containers.put(container.id, container);
+        }
+        publish(container, "create");
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("Id", container.id);
+        response.put("Warnings", Collections.emptyList());
+        send(out, 201, json(response));
+    }
+
+    private FakeContainer find(String idOrName) {
+        FakeContainer container = containers.get(idOrName);
+        if (container != null) {
+            return container;
+        }
+        String name = idOrName.startsWith("/") ? idOrName.substring(1) : idOrName;
+        for (FakeContainer candidate : containers.values()) {
+            if (candidate.name.equals(name) || candidate.id.startsWith(idOrName)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean transition(FakeContainer container, String action) {
+        synchronized (lock) {
+            switch (action) {
+                case "start":
+                    if (container.running) {
+                        return false;
+                    }
+                    container.running = true;
+                    container.started = true;
+                    container.startCount++;
+                    break;
+                case "die":
+                case "kill":
+                    if (!container.running) {
+                        return false;
+                    }
+                    container.running = false;
+                    container.paused = false;
+                    container.exitCode = action.equals("kill") ? 137 : 0;
+                    break;
+                case "pause":
+                    container.paused = true;
+                    break;
+                case "unpause":
+                    container.paused = false;
+                    break;
+                default:
+                    return false;
+            }
+            lock.notifyAll();
+        }
+        publish(container, action);
+        if (action.equals("start") && config.runTimeMs >= 0) {
+            int startCount = container.startCount;
+            scheduler.schedule(() -> exit(container, startCount), config.runTimeMs, TimeUnit.MILLISECONDS);
+        }
+        if (!action.equals("start") && !container.running && container.autoRemove) {
+            synchronized (lock) {
+                remove(container);
+            }
+        }
+        return true;
+    }
+
+    private void exit(FakeContainer container, int startCount) {
+        synchronized (lock) {
+            if (!container.running || container.startCount != startCount) {
+                return;
+            }
+        }
+        transition(container, "die");
+    }
+
+    private void remove(FakeContainer container) {
+        if (containers.remove(container.id) != null) {
+            container.removed = true;
+            container.running = false;
+            lock.notifyAll();
+            publish(container, "destroy");
+        }
+    }
+
+    private void waitContainer(FakeContainer container, String condition, OutputStream out)
+            throws IOException, InterruptedException {
+        writeHead(out, 200, "application/json", -1);
+        out.flush();
+        synchronized (lock) {
+            int startCount = container.startCount;
+            while (true) {
+                if (condition.equals("removed") ? container.removed
+                        : condition.equals("next-exit") ? container.startCount > startCount && !container.running
+                        : !container.running) {
+                    break;
+                }
+                lock.wait();
+            }
+        }
+        writeChunk(out, ("{\"StatusCode\":" + container.exitCode + ",\"Error\":null}\n").getBytes(StandardCharsets.UTF_8));
+        writeChunk(out, new byte[0]);
+    }
+
+    private void attach(FakeContainer container, OutputStream out) throws IOException, InterruptedException {
+        out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/vnd.docker.raw-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        synchronized (lock) {
+            while (!container.started && !container.removed) {
+                lock.wait();
+            }
+        }
+        out.write(logFrames(container, false));
+        out.flush();
+        synchronized (lock) {
+            while (container.running) {
+                lock.wait();
+            }
+        }
+    }
+
+    private List<Map<String, Object>> listContainers(Request request) {
+        Map<String, List<String>> filters = Collections.emptyMap();
+        String filterJson = request.query.get("filters");
+        if (filterJson != null) {
+            filters = GSON.fromJson(filterJson, new TypeToken<Map<String, List<String>>>() {}.getType());
+        }
+        boolean all = "true".equals(request.query.get("all")) || "1".equals(request.query.get("all"));
+        List<Map<String, Object>> result = new ArrayList<>();
+        synchronized (lock) {
+            for (FakeContainer container : containers.values()) {
+                if ((all || container.running) && matches(container, filters)) {
+                    result.add(summary(container));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(FakeContainer container, Map<String, List<String>> filters) {
+        for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+            for (String value : filter.getValue()) {
+                switch (filter.getKey()) {
+                    case "label":
+                        int eq = value.indexOf('=');
+                        String key = eq >= 0 ? value.substring(0, eq) : value;
+                        if (!container.labels.containsKey(key)
+                                || (eq >= 0 && !value.substring(eq + 1).equals(container.labels.get(key)))) {
+                            return false;
+                        }
+                        break;
+                    case "id":
+                        if (!container.id.startsWith(value)) {
+                            return false;
+                        }
+                        break;
+                    case "status":
+                        if (!value.equals(container.state())) {
+                            return false;
+                        }
+                        break;
+                    case "name":
+                        if (!("/" + container.name).matches(".*" + value + ".*")) {
+                            return false;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Object> summary(FakeContainer container) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Id", container.id);
+        result.put("Names", Collections.singletonList("/" + container.name));
+        result.put("Image", container.image);
+        result.put("ImageID", "sha256:" + container.id);
+        result.put("Command", "/docker-entrypoint.sh");
+        result.put("Created", container.created);
+        result.put("Ports", Collections.emptyList());
+        result.put("Labels", container.labels);
+        result.put("State", container.state());
+        result.put("Status", container.running ? "Up 5 minutes" : "Exited (" + container.exitCode + ") 1 minute ago");
+        result.put("HostConfig", Collections.singletonMap("NetworkMode", "bridge"));
+        Map<String, Object> network = new LinkedHashMap<>();
+        network.put("NetworkID", container.id);
+        network.put("EndpointID", container.id);
+        network.put("Gateway", "172.17.0.1");
+        network.put("IPAddress", container.running ? "172.17.0.2" : "");
+        network.put("IPPrefixLen", 16);
+        network.put("MacAddress", "02:42:ac:11:00:02");
+        result.put("NetworkSettings", Collections.singletonMap("Networks", Collections.singletonMap("bridge", network)));
+        result.put("Mounts", Collections.emptyList());
+        return result;
+    }
+
+    private Map<String, Object> inspect(FakeContainer container) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("Status", container.state());
+        state.put("Running", container.running);
+        state.put("Paused", container.paused);
+        state.put("Restarting", false);
+        state.put("OOMKilled", false);
+        state.put("Dead", false);
+        state.put("Pid", container.running ? 4242 : 0);
+        state.put("ExitCode", container.exitCode);
+        state.put("Error", "");
+        state.put("StartedAt", "2024-03-14T09:26:54.123456789Z");
+        state.put("FinishedAt", "0001-01-01T00:00:00Z");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Id", container.id);
+        result.put("Created", "2024-03-14T09:26:53.589793238Z");
+        result.put("Path", "/docker-entrypoint.sh");
+        result.put("Args", Collections.emptyList());
+        result.put("State", state);
+        result.put("Image", "sha256:" + container.id);
+        result.put("Name", "/" + container.name);
+        result.put("RestartCount", 0);
+        result.put("Driver", "overlay2");
+        result.put("Platform", "linux");
+        result.put("HostConfig", container.config.has("HostConfig") ? container.config.get("HostConfig") : new JsonObject());
+        JsonObject containerConfig = container.config.deepCopy();
+        containerConfig.remove("HostConfig");
+        containerConfig.addProperty("Image", container.image);
+        containerConfig.add("Labels", GSON.toJsonTree(container.labels));
+        result.put("Config", containerConfig);
+        result.put("NetworkSettings", summary(container).get("NetworkSettings"));
+        result.put("Mounts", Collections.emptyList());
+        return result;
+    }
+
+    private byte[] logFrames(FakeContainer container, boolean timestamps) {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        for (int i = 0; i < config.logLines; i++) {
+            StringBuilder line = new StringBuilder();
+            if (timestamps) {
+                line.append(String.format(Locale.ROOT, "2024-03-14T09:27:%02d.%09dZ ", i % 60, i));
+            }
+            line.append("log line ").append(i).append(" from ").append(container.name);
+            while (line.length() < config.logLineLength) {
+                line.append('.');
+            }
+            byte[] payload = line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+            frames.write(i % 10 == 9 ? 2 : 1);
+            frames.write(0);
+            frames.write(0);
+            frames.write(0);
+            frames.write((payload.length >>> 24) & 0xff);
+            frames.write((payload.length >>> 16) & 0xff);
+            frames.write((payload.length >>> 8) & 0xff);
+            frames.write(payload.length & 0xff);
+            frames.write(payload, 0, payload.length);
+        }
+        return frames.toByteArray();
+    }
+
+    // ==================== Images ====================
+
+    private List<Map<String, Object>> listImages() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        Map<String, Object> image = new LinkedHashMap<>();
+        image.put("Id", "sha256:" + String.format(Locale.ROOT, "%064x", 1));
+        image.put("ParentId", "");
+        image.put("RepoTags", Collections.singletonList(config.image));
+        image.put("RepoDigests", Collections.emptyList());
+        image.put("Created", 1700000000L);
+        image.put("Size", 7800000L);
+        image.put("SharedSize", -1);
+        image.put("Labels", Collections.emptyMap());
+        image.put("Containers", -1);
+        result.add(image);
+        return result;
+    }
+
+    private Map<String, Object> inspectImage(String name) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Id", "sha256:" + String.format(Locale.ROOT, "%064x", 1));
+        result.put("RepoTags", Collections.singletonList(name));
+        result.put("RepoDigests", Collections.emptyList());
+        result.put("Created", "2024-03-01T12:00:00.123456789Z");
+        result.put("Architecture", "amd64");
+        result.put("Os", "linux");
+        result.put("Size", 7800000L);
+        Map<String, Object> rootFs = new LinkedHashMap<>();
+        rootFs.put("Type", "layers");
+        rootFs.put("Layers", Collections.singletonList("sha256:" + String.format(Locale.ROOT, "%064x", 2)));
+        result.put("RootFS", rootFs);
+        return result;
+    }
+
+    private void streamPull(Request request, OutputStream out) throws IOException, InterruptedException {
+        String image = request.query.getOrDefault("fromImage", config.image);
+        String tag = request.query.getOrDefault("tag", "latest");
+        writeHead(out, 200, "application/json", -1);
+        writeChunk(out, progress("Pulling from library/" + image, tag, null, null));
+        for (int layer = 0; layer < config.pullLayers; layer++) {
+            String id = String.format(Locale.ROOT, "%012x", layer + 1);
+            writeChunk(out, progress("Pulling fs layer", id, null, null));
+            for (int step = 1; step <= config.pullProgressSteps; step++) {
+                writeChunk(out, progress("Downloading", id, (long) step * 1024, (long) config.pullProgressSteps * 1024));
+                out.flush();
+            }
+            writeChunk(out, progress("Pull complete", id, null, null));
+        }
+        writeChunk(out, progress("Status: Downloaded newer image for " + image + ":" + tag, null, null, null));
+        writeChunk(out, new byte[0]);
+    }
+
+    private static byte[] progress(String status, String id, Long current, Long total) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("status", status);
+        if (id != null) {
+            item.put("id", id);
+        }
+        if (current != null) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("current", current);
+            detail.put("total", total);
+            item.put("progressDetail", detail);
+            item.put("progress", "[=====>     ] " + current + "B/" + total + "B");
+        }
+        return (GSON.toJson(item) + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ==================== Events ====================
+
+    private void streamEvents(InputStream in, OutputStream out) throws IOException {
+        writeHead(out, 200, "application/json", -1);
+        out.flush();
+        eventSubscribers.add(out);
+        try {
+            while (in.read() != -1) {
+                // keep the stream open until the client disconnects
+            }
+        } finally {
+            eventSubscribers.remove(out);
+        }
+    }
+
+    private void publish(FakeContainer container, String action) {
+        if (eventSubscribers.isEmpty()) {
+            return;
+        }
+        long nanos = System.currentTimeMillis() * 1_000_000L;
+        Map<String, Object> attributes = new LinkedHashMap<>(container.labels);
+        attributes.put("image", container.image);
+        attributes.put("name", container.name);
+        Map<String, Object> actor = new LinkedHashMap<>();
+        actor.put("ID", container.id);
+        actor.put("Attributes", attributes);
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("status", action);
+        event.put("id", container.id);
+        event.put("from", container.image);
+        event.put("Type", "container");
+        event.put("Action", action);
+        event.put("Actor", actor);
+        event.put("scope", "local");
+        event.put("time", nanos / 1_000_000_000L);
+        event.put("timeNano", nanos);
+        byte[] data = (GSON.toJson(event) + "\n").getBytes(StandardCharsets.UTF_8);
+        for (OutputStream subscriber : eventSubscribers) {
+            try {
+                synchronized (subscriber) {
+                    writeChunk(subscriber, data);
+                    subscriber.flush();
+                }
+            } catch (IOException e) {
+                eventSubscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private static Map<String, Object> version() {
+        Map<String, Object> version = new LinkedHashMap<>();
+        version.put("Version", "24.0.7");
+        version.put("ApiVersion", "1.44");
+        version.put("MinAPIVersion", "1.12");
+        version.put("Os", "linux");
+        version.put("Arch", "amd64");
+        version.put("KernelVersion", "6.1.0");
+        return version;
+    }
+
+    // ==================== HTTP Writing ====================
+
+    private void send(OutputStream out, int status, byte[] json) throws IOException {
+        send(out, status, "application/json", json);
+    }
+
+    private void send(OutputStream out, int status, String contentType, String body) throws IOException {
+        send(out, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(OutputStream out, int status, String contentType, byte[] body) throws IOException {
+        if (config.chunkSize > 0) {
+            writeHead(out, status, contentType, -1);
+            for (int offset = 0; offset < body.length; offset += config.chunkSize) {
+                writeChunk(out, Arrays.copyOfRange(body, offset, Math.min(body.length, offset + config.chunkSize)));
+            }
+            writeChunk(out, new byte[0]);
+        } else {
+            writeHead(out, status, contentType, body.length);
+            out.write(body);
+        }
+    }
+
+    private void sendEmpty(OutputStream out, int status) throws IOException {
+        writeHead(out, status, null, 0);
+    }
+
+    private void sendError(OutputStream out, int status, String message) throws IOException {
+        send(out, status, json(Collections.singletonMap("message", message)));
+    }
+
+    private static void writeHead(OutputStream out, int status, String contentType, long contentLength) throws IOException {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+        head.append("Api-Version: 1.44\r\n");
+        head.append("Server: Docker/24.0.7 (linux)\r\n");
+        if (contentType != null) {
+            head.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        } else {
+            head.append("Transfer-Encoding: chunked\r\n");
+        }
+        head.append("\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeChunk(OutputStream out, byte[] data) throws IOException {
+        out.write((Integer.toHexString(data.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(data);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        if (data.length == 0) {
+            out.flush();
+        }
+    }
+
+    private static byte[] json(Object value) {
+        return GSON.toJson(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 201: return "Created";
+            case 204: return "No Content";
+            case 304: return "Not Modified";
+            case 404: return "Not Found";
+            case 409: return "Conflict";
+            default: return "Error";
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        workers.shutdownNow();
+        scheduler.shutdownNow();
+        if (socketFile != null) {
+            socketFile.delete();
+        }
+    }
+
+    // ==================== Model ====================
+
+    private static class FakeContainer {
+        private final String id;
+        private final String name;
+        private final String image;
+        private final long created = System.currentTimeMillis() / 1000;
+        private final Map<String, String> labels = new LinkedHashMap<>();
+        private JsonObject config = new JsonObject();
+        private boolean running;
+        private boolean started;
+        private boolean paused;
+        private boolean removed;
+        private boolean autoRemove;
+        private int startCount;
+        private int exitCode;
+
+        private FakeContainer(String id, String name, String image) {
+            this.id = id;
+            this.name = name;
+            this.image = image;
+        }
+
+        private String state() {
+            if (paused) {
+                return "paused";
+            }
+            if (running) {
+                return "running";
+            }
+            return started ? "exited" : "created";
+        }
+    }
+
+    private static class Request {
+        private final String method;
+        private final String path;
+        private final Map<String, String> query;
+        private final byte[] body;
+        private final boolean closeConnection;
+
+        private Request(String method, String path, Map<String, String> query, byte[] body, boolean closeConnection) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.body = body;
+            this.closeConnection = closeConnection;
+        }
+
+        private static Request read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            while (requestLine != null && requestLine.isEmpty()) {
+                requestLine = readLine(in);
+            }
+            if (requestLine == null) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            int contentLength = 0;
+            boolean close = false;
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                String name = line.substring(0, colon).trim();
+                String value = line.substring(colon + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length")) {
+                    contentLength = Integer.parseInt(value);
+                } else if (name.equalsIgnoreCase("Connection") && value.equalsIgnoreCase("close")) {
+                    close = true;
+                }
+            }
+            byte[] body = new byte[contentLength];
+            int read = 0;
+            while (read < contentLength) {
+                int n = in.read(body, read, contentLength - read);
+                if (n == -1) {
+                    break;
+                }
+                read += n;
+            }
+
+            String target = parts[1];
+            Map<String, String> query = new HashMap<>();
+            int questionMark = target.indexOf('?');
+            if (questionMark >= 0) {
+                for (String pair : target.substring(questionMark + 1).split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        query.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"),
+                                URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                    }
+                }
+                target = target.substring(0, questionMark);
+            }
+            if (target.startsWith("/v1.") || target.startsWith("/v2.")) {
+                target = target.substring(target.indexOf('/', 1));
+            }
+            return new Request(parts[0], target, query, body, close);
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    return sb.toString();
+                }
+                if (c != '\r') {
+                    sb.append((char) c);
+                }
+            }
+            return sb.length() > 0 ? sb.toString() : null;
+        }
+    }
+
+    public static class Builder {
+        private long latencyMs = 0;
+        private int chunkSize = 0;
+        private int containers = 0;
+        private int labelsPerContainer = 4;
+        private int logLines = 10;
+        private int logLineLength = 40;
+        private int pullLayers = 3;
+        private int pullProgressSteps = 5;
+        private long runTimeMs = -1;
+        private String image = "alpine:latest";
+        private boolean tcp;
+        private SSLContext tlsContext;
+        private boolean pipelining = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Delay every response by a fixed amount.
+         *
+         * @param latency the delay
+         * @param unit the time unit
+         * @return this builder
+         */
+        public Builder withLatency(long latency, TimeUnit unit) {
+            this.latencyMs = unit.toMillis(latency);
+            return this;
+        }
+
+        /**
+         * Send response bodies with chunked transfer encoding in chunks of this size (0 for Content-Length).
+         *
+         * @param chunkSize the chunk size in bytes
+         * @return this builder
+         */
+        public Builder withChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Preload this many containers; every fifth one is stopped.
+         *
+         * @param containers the number of containers
+         * @return this builder
+         */
+        public Builder withContainers(int containers) {
+            this.containers = containers;
+            return this;
+        }
+
+        public Builder withLabelsPerContainer(int labelsPerContainer) {
+            this.labelsPerContainer = labelsPerContainer;
+            return this;
+        }
+
+        public Builder withLogLines(int logLines, int lineLength) {
+            this.logLines = logLines;
+            this.logLineLength = lineLength;
+            return this;
+        }
+
+        public Builder withPullProgress(int layers, int stepsPerLayer) {
+            this.pullLayers = layers;
+            this.pullProgressSteps = stepsPerLayer;
+            return this;
+        }
+
+        /**
+         * Let started containers exit with code 0 after this long (default: run until stopped).
+         *
+         * @param runTime the run time
+         * @param unit the time unit
+         * @return this builder
+         */
+        public Builder withContainerRunTime(long runTime, TimeUnit unit) {
+            this.runTimeMs = unit.toMillis(runTime);
+            return this;
+        }
+
+        public Builder withImage(String image) {
+            this.image = image;
+            return this;
+        }
+
+        /**
+         * Listen on a free loopback TCP port instead of a unix socket.
+         *
+         * @return this builder
+         */
+        public Builder withTcp() {
+            this.tcp = true;
+            return this;
+        }
+
+        /**
+         * Listen on a free loopback TCP port with TLS, requiring a client certificate like
+         * {@code dockerd --tlsverify}.
+         *
+         * @param serverContext the SSL context with the daemon's certificate and trusted client CAs
+         * @return this builder
+         */
+        public Builder withTls(SSLContext serverContext) {
+            this.tlsContext = serverContext;
+            return this;
+        }
+
+        /**
+         * Close a connection instead of answering when the next request arrives before the
+         * response was sent, like a proxy that does not support pipelining.
+         *
+         * @return this builder
+         */
+        public Builder withoutPipelining() {
+            this.pipelining = false;
+            return this;
+        }
+
+        public FakeDockerDaemon start() throws IOException {
+            return new FakeDockerDaemon(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.intisy.docker.integration;
 
+import io.github.intisy.docker.ContainerPool;
+import io.github.intisy.docker.ContainerRegistry;
 import io.github.intisy.docker.DockerClient;
 import io.github.intisy.docker.DockerProvider;
 import io.github.intisy.docker.command.network.CreateNetworkCmd;
@@ -315,6 +317,45 @@ public class ContainerTest {
         testContainerId = null;
     }
 
+    @Test
+    @Order(28)
+    @DisplayName("Run container to completion")
+    void testRunContainer() {
+        RunContainerResponse response = dockerClient.runContainer("alpine:latest")
+                .withCmd("sh", "-c", "echo hello; exit 3")
+                .exec();
+
+        assertEquals(3, response.getStatusCode(), "Exit code should be reported");
+        assertTrue(response.getOutput().contains("hello"), "Output should be captured");
+        assertThrows(NotFoundException.class, () ->
+                dockerClient.inspectContainer(response.getId()).exec());
+
+        log.info("Run timings: {}", response);
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("Acquire container from warm pool")
+    void testContainerPool() {
+        ContainerConfig config = new ContainerConfig()
+                .setImage("alpine:latest")
+                .setCmd("sleep", "300");
+        try (ContainerPool pool = ContainerPool.builder(dockerClient, config)
+                .withMinIdle(1)
+                .withMaxIdle(1)
+                .withPaused(true)
+                .build()) {
+            String containerId = pool.acquire();
+            try {
+                ContainerInspect inspect = dockerClient.inspectContainer(containerId).exec();
+                assertTrue(inspect.getState().getRunning(), "Pooled container should be running");
+                assertFalse(inspect.getState().getPaused(), "Pooled container should be unpaused");
+            } finally {
+                dockerClient.removeContainer(containerId).withForce(true).exec();
+            }
+        }
+    }
+
     // ==================== Volume Tests ====================
 
     @Test
@@ -389,6 +430,31 @@ public class ContainerTest {
         log.info("Found {} networks", networks.size());
     }
 
+    // ==================== Registry Tests ====================
+
+    @Test
+    @Order(45)
+    @DisplayName("Registry mirrors containers by label")
+    void testContainerRegistry() throws InterruptedException {
+        try (ContainerRegistry registry = new ContainerRegistry(dockerClient)) {
+            registry.start();
+            String id = dockerClient.createContainer("alpine:latest")
+                    .withCmd("sleep", "300")
+                    .withLabel("docker-java-registry", "test")
+                    .exec()
+                    .getId();
+            try {
+                for (int i = 0; i < 50 && registry.get(id) == null; i++) {
+                    Thread.sleep(100);
+                }
+                assertNotNull(registry.get(id), "Created container should appear via events");
+                assertEquals(1, registry.findByLabel("docker-java-registry", "test").size());
+            } finally {
+                dockerClient.removeContainer(id).withForce(true).exec();
+            }
+        }
+    }
+
     // ==================== Exception Tests ====================
 
     @Test
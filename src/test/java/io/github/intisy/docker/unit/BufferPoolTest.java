@@ -0,0 +1,74 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.transport.BufferPool;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BufferPool}.
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class BufferPoolTest {
+
+    @Test
+    @DisplayName("Released buffers are reused, oversized ones dropped")
+    void testAcquireRelease() throws Exception {
+        BufferPool pool = new BufferPool(1, 64 * 1024);
+        byte[] first = pool.acquire(100);
+        byte[] second = pool.acquire(100);
+        assertEquals(8192, first.length);
+        assertEquals(2, pool.getMisses());
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getSharedBuffers());
+        assertSame(first, pool.acquire(8192));
+        assertSame(second, pool.acquire(8192));
+        assertEquals(2, pool.getHits());
+
+        byte[] large = pool.acquire(20000);
+        assertEquals(20000, large.length);
+        pool.release(large);
+        assertEquals(1, pool.getSharedBuffers(), "A grown buffer is shared, not kept per thread");
+        assertSame(large, pool.acquire(16384), "A larger buffer serves smaller requests");
+
+        pool.release(pool.acquire(100 * 1024));
+        assertEquals(0, pool.getSharedBuffers());
+        assertEquals(4, pool.getMisses());
+
+        byte[][] fromOtherThread = new byte[1][];
+        Thread thread = new Thread(() -> fromOtherThread[0] = pool.acquire(100));
+        pool.release(first);
+        pool.release(second);
+        thread.start();
+        thread.join();
+        assertSame(second, fromOtherThread[0], "Only the shared buffer is visible to other threads");
+
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(8, 1024));
+    }
+
+    @Test
+    @DisplayName("Steady requests and streams read into pooled buffers")
+    void testSteadyStateRequests() throws Exception {
+        BufferPool pool = new BufferPool(4, 256 * 1024);
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(50).withChunkSize(512).start();
+             DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).withBufferPool(pool).build()) {
+            for (int i = 0; i < 50; i++) {
+                assertEquals(50, client.listContainers().withShowAll(true).exec().size());
+                assertNotNull(client.inspectContainer(client.listContainers().exec().get(0).getId()).exec());
+            }
+            for (int i = 0; i < 5; i++) {
+                assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+            }
+        }
+        assertTrue(pool.getHits() >= 154, "Hits: " + pool.getHits());
+        assertTrue(pool.getMisses() <= 2, "Misses: " + pool.getMisses());
+    }
+}
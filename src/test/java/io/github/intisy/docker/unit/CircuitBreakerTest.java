@@ -0,0 +1,164 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.Event;
+import io.github.intisy.docker.transport.CircuitBreaker;
+import io.github.intisy.docker.transport.CircuitOpenException;
+import io.github.intisy.docker.transport.DockerExchange;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.StreamCallback;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("Circuit opens on connection failures and recovers after a successful probe")
+    void testOpenAndRecover() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withFailureThreshold(2)
+                .withProbeInterval(20, TimeUnit.MILLISECONDS)
+                .build();
+        AtomicBoolean down = new AtomicBoolean(true);
+        DockerInterceptor outage = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+                if (down.get()) {
+                    throw new ConnectException("Connection refused");
+                }
+                return null;
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withCircuitBreaker(breaker)
+                     .withInterceptor(outage)
+                     .build()) {
+            assertFalse(client.ping().exec());
+            assertFalse(client.ping().exec());
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+            DockerException e = assertThrows(DockerException.class, () -> client.listContainers().exec());
+            assertTrue(e.getCause() instanceof CircuitOpenException);
+
+            down.set(false);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (breaker.getState() == CircuitBreaker.State.OPEN && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertNotNull(client.listContainers().exec());
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        }
+    }
+
+    @Test
+    @DisplayName("A half-open circuit lets one trial request through and fails the others fast")
+    void testHalfOpenTrial() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withFailureThreshold(1)
+                .withProbeInterval(20, TimeUnit.MILLISECONDS)
+                .build();
+        AtomicBoolean down = new AtomicBoolean(true);
+        CountDownLatch trialSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DockerInterceptor outage = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+                if (down.get()) {
+                    throw new ConnectException("Connection refused");
+                }
+                if (exchange.getPath().startsWith("/containers")) {
+                    trialSent.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return null;
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withCircuitBreaker(breaker)
+                     .withInterceptor(outage)
+                     .build()) {
+            assertFalse(client.ping().exec());
+            down.set(false);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (breaker.getState() != CircuitBreaker.State.HALF_OPEN && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+            Future<?> trial = executor.submit(() -> client.listContainers().exec());
+            assertTrue(trialSent.await(5, TimeUnit.SECONDS));
+            DockerException e = assertThrows(DockerException.class, () -> client.listImages().exec());
+            assertTrue(e.getCause() instanceof CircuitOpenException);
+
+            release.countDown();
+            trial.get(5, TimeUnit.SECONDS);
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertNotNull(client.listImages().exec());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Expired request deadlines and idle streams do not open the circuit")
+    void testCallerTimeoutsIgnored() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withFailureThreshold(1)
+                .build();
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withLatency(300, TimeUnit.MILLISECONDS).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withCircuitBreaker(breaker)
+                     .withStreamIdleTimeout(Duration.ofMillis(100))
+                     .build()) {
+            for (int i = 0; i < 3; i++) {
+                DockerException e = assertThrows(DockerException.class,
+                        () -> client.listContainers().withRequestTimeout(Duration.ofMillis(50)).exec());
+                assertTrue(e.getCause() instanceof SocketTimeoutException, String.valueOf(e.getCause()));
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+            List<Throwable> errors = new CopyOnWriteArrayList<>();
+            client.events().exec(new StreamCallback<Event>() {
+                @Override
+                public void onNext(Event item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    errors.add(throwable);
+                }
+            });
+            assertEquals(1, errors.size());
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.ContainerPool;
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.ContainerConfig;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ContainerPool} against the {@link FakeDockerDaemon}.
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class ContainerPoolTest {
+
+    @Test
+    @DisplayName("Containers that fail to start or pause are removed")
+    void testFailedContainersRemoved() throws Exception {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).build()) {
+            ContainerConfig config = new ContainerConfig().setImage("alpine:latest").setCmd("sleep", "infinity");
+            daemon.failRequests("POST", "/containers/*/pause", 500);
+            try (ContainerPool pool = ContainerPool.builder(client, config)
+                    .withMinIdle(1)
+                    .withMaxIdle(2)
+                    .withPaused(true)
+                    .withMaintenanceInterval(20, TimeUnit.MILLISECONDS)
+                    .build()) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (daemon.getRequestCount("POST", "/containers/create") < 3 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertTrue(daemon.getRequestCount("POST", "/containers/create") >= 3, "Filling should be retried");
+                assertEquals(0, pool.getIdleCount());
+
+                daemon.failRequests("POST", "/containers/*/start", 500);
+                assertThrows(DockerException.class, pool::acquire);
+            }
+            assertEquals(0, daemon.getContainerCount(), "No container should be left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Acquired containers are taken from the pool and replaced")
+    void testAcquire() throws Exception {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).build()) {
+            ContainerConfig config = new ContainerConfig().setImage("alpine:latest").setCmd("sleep", "infinity");
+            try (ContainerPool pool = ContainerPool.builder(client, config)
+                    .withMinIdle(2)
+                    .withMaxIdle(2)
+                    .withPaused(true)
+                    .build()) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (pool.getIdleCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(2, pool.getIdleCount());
+                String id = pool.acquire();
+                assertTrue(client.inspectContainer(id).exec().getState().getRunning());
+                assertFalse(client.inspectContainer(id).exec().getState().getPaused());
+            }
+            assertEquals(1, daemon.getContainerCount(), "Only the acquired container should remain");
+        }
+    }
+}
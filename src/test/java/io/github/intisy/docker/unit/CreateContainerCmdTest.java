@@ -0,0 +1,59 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.command.container.CreateContainerCmd;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Tag;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CreateContainerCmd reuse hashing (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class CreateContainerCmdTest {
+    private final DockerHttpClient client = new DockerHttpClient("unix:///var/run/docker.sock");
+
+    @Test
+    @DisplayName("Config hash does not depend on label order")
+    void testConfigHashStable() {
+        String first = new CreateContainerCmd(client, "postgres:16")
+                .withLabel("a", "1")
+                .withLabel("b", "2")
+                .withEnv("POSTGRES_PASSWORD", "secret")
+                .getConfigHash();
+        String second = new CreateContainerCmd(client, "postgres:16")
+                .withLabel("b", "2")
+                .withLabel("a", "1")
+                .withEnv("POSTGRES_PASSWORD", "secret")
+                .getConfigHash();
+
+        assertEquals(first, second, "Hash should be independent of label insertion order");
+        assertEquals(64, first.length(), "Hash should be a hex-encoded SHA-256");
+    }
+
+    @Test
+    @DisplayName("Config hash covers container and host config")
+    void testConfigHashChanges() {
+        String base = new CreateContainerCmd(client, "postgres:16").getConfigHash();
+
+        assertNotEquals(base, new CreateContainerCmd(client, "postgres:15").getConfigHash());
+        assertNotEquals(base, new CreateContainerCmd(client, "postgres:16")
+                .withEnv("POSTGRES_PASSWORD", "secret").getConfigHash());
+        assertNotEquals(base, new CreateContainerCmd(client, "postgres:16")
+                .withMemory(512L * 1024 * 1024).getConfigHash());
+    }
+
+    @Test
+    @DisplayName("Config hash ignores its own label")
+    void testConfigHashIgnoresHashLabel() {
+        String base = new CreateContainerCmd(client, "redis:7").getConfigHash();
+        String labelled = new CreateContainerCmd(client, "redis:7")
+                .withLabel(CreateContainerCmd.CONFIG_HASH_LABEL, base)
+                .getConfigHash();
+
+        assertEquals(base, labelled, "Hash label should be excluded from the hash");
+    }
+}
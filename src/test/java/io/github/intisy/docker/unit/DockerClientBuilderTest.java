@@ -58,6 +58,17 @@ public class DockerClientBuilderTest {
         assertNotNull(client, "Client should not be null");
     }
 
+    @Test
+    @DisplayName("Builder accepts request coalescing")
+    void testBuilderRequestCoalescing() {
+        DockerClient client = DockerClient.builder()
+                .withHost("unix:///var/run/docker.sock")
+                .withRequestCoalescing(true)
+                .withCoalescingCacheTtl(250)
+                .build();
+        assertNotNull(client, "Client should not be null");
+    }
+
     @Test
     @DisplayName("createDefault returns client")
     void testCreateDefault() {
@@ -84,6 +95,7 @@ public class DockerClientBuilderTest {
         assertNotNull(client.removeContainer("id"), "removeContainer should return command");
         assertNotNull(client.inspectContainer("id"), "inspectContainer should return command");
         assertNotNull(client.logs("id"), "logs should return command");
+        assertNotNull(client.runContainer("image"), "runContainer should return command");
 
         assertNotNull(client.listImages(), "listImages should return command");
         assertNotNull(client.pullImage("image"), "pullImage should return command");
@@ -101,5 +113,6 @@ public class DockerClientBuilderTest {
         assertNotNull(client.ping(), "ping should return command");
         assertNotNull(client.info(), "info should return command");
         assertNotNull(client.version(), "version should return command");
+        assertNotNull(client.events(), "events should return command");
     }
 }
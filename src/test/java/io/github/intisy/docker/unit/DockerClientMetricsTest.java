@@ -0,0 +1,108 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.metrics.EndpointTemplates;
+import io.github.intisy.docker.metrics.HistogramDockerClientMetrics;
+import io.github.intisy.docker.metrics.LatencyHistogram;
+import io.github.intisy.docker.metrics.MicrometerDockerClientMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the client metrics SPI (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class DockerClientMetricsTest {
+
+    @Test
+    @DisplayName("Request paths are mapped to endpoint templates")
+    void testEndpointTemplates() {
+        assertEquals("/containers/json", EndpointTemplates.of("/containers/json?all=true"));
+        assertEquals("/containers/{id}/json", EndpointTemplates.of("/containers/3f4e1a/json"));
+        assertEquals("/containers/{id}", EndpointTemplates.of("/containers/3f4e1a?force=true"));
+        assertEquals("/exec/{id}/start", EndpointTemplates.of("/exec/abc/start"));
+        assertEquals("/images/{name}/json", EndpointTemplates.of("/images/library/alpine:latest/json"));
+        assertEquals("/images/{name}", EndpointTemplates.of("/images/ghcr.io/org/app:1.0"));
+        assertEquals("/images/create", EndpointTemplates.of("/images/create?fromImage=alpine"));
+        assertEquals("/_ping", EndpointTemplates.of("/_ping"));
+    }
+
+    @Test
+    @DisplayName("Histogram percentiles stay within bucket precision")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax(TimeUnit.MICROSECONDS));
+        long p50 = histogram.getPercentile(0.5, TimeUnit.MICROSECONDS);
+        long p99 = histogram.getPercentile(0.99, TimeUnit.MICROSECONDS);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.125, "p50 was " + p50);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99 was " + p99);
+    }
+
+    @Test
+    @DisplayName("Requests and streams are recorded per endpoint")
+    void testRecording() throws IOException {
+        HistogramDockerClientMetrics metrics = new HistogramDockerClientMetrics();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(5).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withMetrics(metric -> {
+                         metrics.record(metric);
+                         new MicrometerDockerClientMetrics(registry).record(metric);
+                     })
+                     .build()) {
+            client.listContainers().withShowAll(true).exec();
+            client.inspectContainer("service-1").exec();
+            assertThrows(DockerException.class, () -> client.inspectContainer("missing").exec());
+            client.pullImage("alpine").exec(10, TimeUnit.SECONDS);
+        }
+
+        HistogramDockerClientMetrics.EndpointStats list = metrics.getEndpoint("GET", "/containers/json");
+        assertEquals(1, list.getCount());
+        assertTrue(list.getBytesReceived() > 0);
+        assertEquals(0, list.getReusedConnections(), "The first request opens the connection");
+
+        HistogramDockerClientMetrics.EndpointStats inspect = metrics.getEndpoint("GET", "/containers/{id}/json");
+        assertEquals(2, inspect.getCount());
+        assertEquals(1, inspect.getErrors());
+        assertEquals(Long.valueOf(1), inspect.getStatusCodes().get(404));
+        assertEquals(2, inspect.getReusedConnections());
+
+        HistogramDockerClientMetrics.EndpointStats pull = metrics.getEndpoint("POST", "/images/create");
+        assertEquals(1, pull.getCount());
+        assertEquals(Long.valueOf(1), pull.getStatusCodes().get(200));
+
+        assertEquals(1, registry.get("docker.client.streams").tag("endpoint", "/images/create").timer().count());
+        assertEquals(1, registry.get("docker.client.requests").tag("status", "404").timer().count());
+        assertEquals(2, registry.get("docker.client.requests").tag("reused", "true").timers().stream()
+                .mapToLong(Timer::count).sum());
+    }
+
+    @Test
+    @DisplayName("Pipelined requests record connection reuse")
+    void testPipelinedReuse() throws IOException {
+        HistogramDockerClientMetrics metrics = new HistogramDockerClientMetrics();
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(5).start();
+             DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).withMetrics(metrics).build()) {
+            client.inspectContainers(Arrays.asList("service-0", "service-1", "service-2")).exec();
+        }
+        HistogramDockerClientMetrics.EndpointStats inspect = metrics.getEndpoint("GET", "/containers/{id}/json");
+        assertEquals(3, inspect.getCount());
+        assertEquals(2, inspect.getReusedConnections(), "Only the first pipelined request opens the connection");
+    }
+}
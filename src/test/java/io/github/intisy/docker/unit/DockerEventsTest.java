@@ -0,0 +1,48 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.jfr.DockerEvents;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Java 8 variant of {@link DockerEvents}, which the test classpath holds
+ * instead of the Java 11 one from the multi-release jar.
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class DockerEventsTest {
+
+    @Test
+    @DisplayName("Events are no-ops on Java 8")
+    void testNoOp() {
+        assertFalse(DockerEvents.isAvailable());
+        assertNull(DockerEvents.beginRequest());
+        assertNull(DockerEvents.beginStream());
+        assertNull(DockerEvents.beginPull());
+        assertNull(DockerEvents.beginDaemonStartup());
+        DockerEvents.commitRequest(null, "GET", "/_ping", 200, 0, 2);
+        DockerEvents.commitStream(null, "GET", "/events", 200, 0);
+        DockerEvents.commitPull(null, "alpine", "latest", 1, true);
+        DockerEvents.commitDaemonStartup(null, "linux", "test", null, false);
+    }
+
+    @Test
+    @DisplayName("Clients opting in to events work without JFR")
+    void testOptInWithoutJfr() throws IOException {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(5).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withFlightRecorderEvents(true)
+                     .build()) {
+            assertEquals(5, client.listContainers().withShowAll(true).exec().size());
+            assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.transport.DockerExchange;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.StreamCallback;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DockerHttpClient interceptor chain (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class DockerInterceptorTest {
+
+    @Test
+    @DisplayName("Hooks run in order around requests and streams")
+    void testHookOrder() throws IOException {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(2).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withInterceptor(new RecordingInterceptor("a", calls))
+                     .withInterceptor(new RecordingInterceptor("b", calls))
+                     .build()) {
+            client.listContainers().exec();
+            assertEquals(Arrays.asList("a:before GET /containers/json", "b:before GET /containers/json",
+                    "b:headers 200", "a:headers 200", "b:complete", "a:complete"), calls);
+
+            calls.clear();
+            assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("a:before POST /images/create", "b:before POST /images/create",
+                    "b:headers 200", "a:headers 200", "b:complete", "a:complete"), calls);
+        }
+    }
+
+    @Test
+    @DisplayName("afterHeaders runs before the response body is read")
+    void testHeadersBeforeBody() throws IOException {
+        List<Long> bodyBytesAtHeaders = Collections.synchronizedList(new ArrayList<>());
+        DockerInterceptor recorder = new DockerInterceptor() {
+            @Override
+            public void afterHeaders(DockerExchange exchange) {
+                bodyBytesAtHeaders.add(exchange.getBytesReceived());
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(10).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withInterceptor(recorder)
+                     .build()) {
+            client.listContainers().withShowAll(true).exec();
+            client.inspectContainers(Arrays.asList("service-0", "service-1")).exec();
+        }
+        assertEquals(Arrays.asList(0L, 0L, 0L), bodyBytesAtHeaders);
+    }
+
+    @Test
+    @DisplayName("Streamed and plain responses count received bytes the same way")
+    void testStreamBytesReceived() throws IOException {
+        List<DockerExchange> exchanges = Collections.synchronizedList(new ArrayList<>());
+        DockerInterceptor recorder = new DockerInterceptor() {
+            @Override
+            public void onComplete(DockerExchange exchange, DockerResponse response) {
+                if (exchange.getPath().contains("/logs")) {
+                    exchanges.add(exchange);
+                }
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withInterceptor(recorder)
+                     .build()) {
+            String id = client.createContainer("alpine:latest").withName("caf\u00e9-\u2615").exec().getId();
+            client.startContainer(id).exec();
+            client.logs(id).exec();
+            client.logs(id).exec(new StreamCallback<String>() {
+                @Override
+                public void onNext(String item) {
+                }
+            });
+        }
+        assertEquals(2, exchanges.size());
+        assertEquals(exchanges.get(0).getBytesReceived(), exchanges.get(1).getBytesReceived());
+    }
+
+    @Test
+    @DisplayName("Request bodies are sent as UTF-8 JSON with their byte length")
+    void testRequestBody() throws IOException {
+        List<DockerExchange> exchanges = Collections.synchronizedList(new ArrayList<>());
+        DockerInterceptor recorder = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) {
+                exchanges.add(exchange);
+                return null;
+            }
+        };
+        String label = "caf\u00e9 \u2615 \ud83d\udc33";
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withInterceptor(recorder)
+                     .build()) {
+            String id = client.createContainer("nginx:latest").withLabel("note", label).exec().getId();
+            assertEquals(label, client.inspectContainer(id).exec().getConfig().getLabels().get("note"));
+        }
+        DockerExchange create = exchanges.get(0);
+        assertTrue(create.getBody().contains("\"note\":\"" + label + "\""), create.getBody());
+        assertEquals(create.getBody().getBytes(StandardCharsets.UTF_8).length, create.getBytesSent());
+    }
+
+    @Test
+    @DisplayName("beforeSend can answer a request without sending it")
+    void testShortCircuit() throws IOException {
+        DockerInterceptor cachedPing = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) {
+                return exchange.getPath().equals("/_ping")
+                        ? new DockerResponse(200, Collections.emptyMap(), "OK") : null;
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withInterceptor(cachedPing)
+                     .build()) {
+            assertTrue(client.ping().exec());
+            assertEquals(0, daemon.getRequestCount());
+        }
+    }
+
+    @Test
+    @DisplayName("onError is called when the daemon is unreachable")
+    void testOnError() throws IOException {
+        List<String> calls = new ArrayList<>();
+        try (DockerClient client = DockerClient.builder()
+                .withHost("unix:///nonexistent/docker.sock")
+                .withInterceptor(new RecordingInterceptor("a", calls))
+                .build()) {
+            assertThrows(DockerException.class, () -> client.listContainers().exec());
+        }
+        assertEquals(2, calls.size());
+        assertTrue(calls.get(1).startsWith("a:error"));
+    }
+
+    private static class RecordingInterceptor implements DockerInterceptor {
+        private final String name;
+        private final List<String> calls;
+
+        private RecordingInterceptor(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public DockerResponse beforeSend(DockerExchange exchange) {
+            calls.add(name + ":before " + exchange.getMethod() + " " + exchange.getEndpoint());
+            return null;
+        }
+
+        @Override
+        public void afterHeaders(DockerExchange exchange) {
+            calls.add(name + ":headers " + exchange.getStatusCode());
+        }
+
+        @Override
+        public void onComplete(DockerExchange exchange, DockerResponse response) {
+            calls.add(name + ":complete");
+        }
+
+        @Override
+        public void onError(DockerExchange exchange, Throwable error) {
+            calls.add(name + ":error " + error.getClass().getSimpleName());
+        }
+    }
+}
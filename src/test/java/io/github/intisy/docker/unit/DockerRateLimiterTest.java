@@ -0,0 +1,216 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.transport.DockerExchange;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerRateLimiter;
+import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.EndpointClass;
+import io.github.intisy.docker.transport.RequestPriority;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DockerRateLimiter (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class DockerRateLimiterTest {
+
+    @Test
+    @DisplayName("Token bucket spaces out requests of a rate-limited class")
+    void testRateLimit() throws IOException {
+        DockerRateLimiter limiter = DockerRateLimiter.builder()
+                .withRateLimit(EndpointClass.CREATE, 20, 1)
+                .build();
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withRateLimiter(limiter)
+                     .build()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                client.createContainer("alpine:latest").exec();
+            }
+            client.listContainers().exec();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMs >= 240, "6 creates at 20/s should take at least 250ms, took " + elapsedMs);
+        }
+    }
+
+    @Test
+    @DisplayName("Fixed concurrency limit caps requests in flight")
+    void testMaxConcurrency() throws Exception {
+        DockerRateLimiter limiter = DockerRateLimiter.builder().withMaxConcurrency(2).build();
+        AtomicInteger maxSeen = new AtomicInteger();
+        DockerInterceptor probe = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) {
+                maxSeen.accumulateAndGet(limiter.getInFlight(), Math::max);
+                return null;
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withLatency(20, TimeUnit.MILLISECONDS).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withRateLimiter(limiter)
+                     .withInterceptor(probe)
+                     .build()) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 16; i++) {
+                    results.add(executor.submit(() -> client.ping().exec()));
+                }
+                for (Future<Boolean> result : results) {
+                    assertTrue(result.get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        assertEquals(2, maxSeen.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Critical requests jump the queue when the limit is saturated")
+    void testPriority() throws Exception {
+        DockerRateLimiter limiter = DockerRateLimiter.builder().withMaxConcurrency(1).build();
+        List<RequestPriority> admitted = Collections.synchronizedList(new ArrayList<>());
+        DockerInterceptor probe = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) {
+                admitted.add(exchange.getPriority());
+                return null;
+            }
+        };
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withLatency(30, TimeUnit.MILLISECONDS).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withRateLimiter(limiter)
+                     .withInterceptor(probe)
+                     .build()) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                    results.add(executor.submit(() -> client.listContainers().withPriority(RequestPriority.BULK).exec()));
+                }
+                Thread.sleep(50);
+                assertTrue(client.ping().exec());
+                for (Future<?> result : results) {
+                    result.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        assertEquals(7, admitted.size());
+        assertTrue(admitted.indexOf(RequestPriority.CRITICAL) <= 3,
+                "Ping should be admitted right after the in-flight request: " + admitted);
+    }
+
+    @Test
+    @DisplayName("Adaptive limit backs off when latency rises above the endpoint's baseline")
+    void testLatencyBackoff() throws IOException {
+        DockerRateLimiter limiter = DockerRateLimiter.builder()
+                .withAdaptiveConcurrency(8, 1, 16)
+                .withBackoffRatio(0.5)
+                .build();
+        AtomicLong delayMs = new AtomicLong();
+        DockerInterceptor daemon = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(delayMs.get());
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return new DockerResponse(200, Collections.emptyMap(), "OK");
+            }
+        };
+        try (DockerClient client = DockerClient.builder()
+                .withHost("unix:///nonexistent/docker.sock")
+                .withRateLimiter(limiter)
+                .withInterceptor(daemon)
+                .build()) {
+            // one request at a time never uses half the limit, so the limit cannot grow
+            for (int i = 0; i < 20; i++) {
+                assertTrue(client.ping().exec());
+            }
+            int baseline = limiter.getConcurrencyLimit();
+            assertTrue(baseline >= 4, "Fast requests should not shrink the limit much, was " + baseline);
+
+            delayMs.set(50);
+            assertTrue(client.ping().exec());
+            assertEquals(baseline / 2, limiter.getConcurrencyLimit(), "A slow request should halve the limit");
+            assertTrue(client.ping().exec());
+            assertEquals(Math.max(1, baseline / 4), limiter.getConcurrencyLimit());
+        }
+    }
+
+    @Test
+    @DisplayName("Adaptive limit backs off on overload and grows while saturated")
+    void testAdaptiveConcurrency() throws Exception {
+        // a wide tolerance keeps thread scheduling noise from counting as daemon slowdowns
+        DockerRateLimiter limiter = DockerRateLimiter.builder()
+                .withAdaptiveConcurrency(8, 1, 16)
+                .withLatencyTolerance(50)
+                .build();
+        AtomicInteger status = new AtomicInteger(503);
+        DockerInterceptor daemon = new DockerInterceptor() {
+            @Override
+            public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+                if (status.get() == 200) {
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                }
+                return new DockerResponse(status.get(), Collections.emptyMap(), "OK");
+            }
+        };
+        try (DockerClient client = DockerClient.builder()
+                .withHost("unix:///nonexistent/docker.sock")
+                .withRateLimiter(limiter)
+                .withInterceptor(daemon)
+                .build()) {
+            for (int i = 0; i < 5; i++) {
+                assertThrows(DockerException.class, () -> client.ping().execOrThrow());
+                Thread.sleep(1);
+            }
+            int reduced = limiter.getConcurrencyLimit();
+            assertTrue(reduced < 8, "Limit should shrink on 503, was " + reduced);
+
+            status.set(200);
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            try {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 400; i++) {
+                    results.add(executor.submit(() -> client.ping().exec()));
+                }
+                for (Future<Boolean> result : results) {
+                    result.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertTrue(limiter.getConcurrencyLimit() > reduced, "Limit should grow while saturated");
+        }
+    }
+}
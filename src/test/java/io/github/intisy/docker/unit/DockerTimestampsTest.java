@@ -0,0 +1,64 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.model.DockerTimestamps;
+import io.github.intisy.docker.model.Event;
+import io.github.intisy.docker.transport.DockerHttpClient;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DockerTimestamps (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class DockerTimestampsTest {
+
+    @Test
+    @DisplayName("Parses RFC 3339 timestamps with nanosecond precision")
+    void testParse() {
+        String[] timestamps = {
+                "2024-03-14T09:26:53.589793238Z",
+                "2024-03-14T09:26:53Z",
+                "2024-03-14T09:26:53.5Z",
+                "2024-02-29T23:59:59.000000001+02:00",
+                "1969-12-31T23:59:59.999-05:30",
+                "2000-03-01T00:00:00Z",
+                "0001-01-01T00:00:00Z"
+        };
+        for (String timestamp : timestamps) {
+            assertEquals(OffsetDateTime.parse(timestamp).toInstant(), DockerTimestamps.parse(timestamp), timestamp);
+        }
+        assertEquals(Instant.parse("2024-03-14T09:26:53.589793238Z"),
+                DockerTimestamps.parse("2024-03-14T09:26:53.589793238Z hello world", 0, 30));
+        assertNull(DockerTimestamps.parseOptional("0001-01-01T00:00:00Z"));
+        assertNull(DockerTimestamps.parseOptional(""));
+    }
+
+    @Test
+    @DisplayName("Rejects malformed timestamps")
+    void testParseInvalid() {
+        String[] invalid = {"", "2024-03-14", "2024-03-14T09:26:53", "2024-02-30T00:00:00Z", "2024-03-14T24:00:00Z",
+                "2024-03-14T09:26:53.Z", "2024-03-14T09:26:53+0100", "2024-03-14 09:26:53Z", "2024-03-14T09:26:53Zx"};
+        for (String timestamp : invalid) {
+            assertThrows(DateTimeParseException.class, () -> DockerTimestamps.parse(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    @DisplayName("Client Gson binds Instant fields")
+    void testGsonInstant() {
+        DockerHttpClient client = new DockerHttpClient("unix:///var/run/docker.sock");
+        Instant instant = client.getGson().fromJson("\"2024-03-14T09:26:53.589793238Z\"", Instant.class);
+        assertEquals(589793238, instant.getNano());
+        assertEquals("\"2024-03-14T09:26:53.589793238Z\"", client.getGson().toJson(instant));
+
+        Event event = client.getGson().fromJson("{\"time\":1710408413,\"timeNano\":1710408413589793238}", Event.class);
+        assertEquals(Instant.parse("2024-03-14T09:26:53.589793238Z"), event.getTimeInstant());
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.ContainerRegistry;
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.Container;
+import io.github.intisy.docker.model.ContainerInspect;
+import io.github.intisy.docker.model.LogLine;
+import io.github.intisy.docker.model.RunContainerResponse;
+import io.github.intisy.docker.transport.DockerExchange;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerRateLimiter;
+import io.github.intisy.docker.transport.DockerResponse;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests running the client against the in-process {@link FakeDockerDaemon}.
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class FakeDockerDaemonTest {
+
+    private FakeDockerDaemon daemon;
+    private DockerClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        daemon = FakeDockerDaemon.builder()
+                .withContainers(20)
+                .withChunkSize(256)
+                .withContainerRunTime(50, TimeUnit.MILLISECONDS)
+                .start();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        daemon.close();
+    }
+
+    @Test
+    @DisplayName("Ping and list preloaded containers over chunked responses")
+    void testPingAndList() {
+        assertTrue(client.ping().exec());
+        assertEquals(20, client.listContainers().withShowAll(true).exec().size());
+        assertEquals(16, client.listContainers().exec().size());
+
+        List<Container> labelled = client.listContainers()
+                .withShowAll(true)
+                .withFilter("label", "com.example.label-0=value-3")
+                .exec();
+        assertEquals(2, labelled.size());
+    }
+
+    @Test
+    @DisplayName("Container lifecycle and multiplexed logs")
+    void testLifecycle() {
+        String id = client.createContainer("alpine:latest").withName("lifecycle").withLabel("role", "test").exec().getId();
+        client.startContainer(id).exec();
+
+        ContainerInspect inspect = client.inspectContainer(id).exec();
+        assertEquals("/lifecycle", inspect.getName());
+
+        String logs = client.logs(id).exec();
+        assertTrue(logs.contains("log line 0 from lifecycle"), "Logs should be demultiplexed");
+
+        client.removeContainer(id).withForce(true).exec();
+        assertEquals(20, daemon.getContainerCount());
+    }
+
+    @Test
+    @DisplayName("Log lines are parsed with their timestamps")
+    void testLogLines() {
+        String id = client.createContainer("alpine:latest").withName("timed").exec().getId();
+        client.startContainer(id).exec();
+
+        List<LogLine> lines = client.logs(id).execLines();
+        assertEquals(10, lines.size());
+        assertEquals(Instant.parse("2024-03-14T09:27:03.000000003Z"), lines.get(3).getTimestamp());
+        assertTrue(lines.get(3).getMessage().startsWith("log line 3 from timed"), lines.get(3).getMessage());
+        assertTrue(client.logs(id).exec().startsWith("log line 0"), "Plain logs have no timestamps");
+
+        LogLine plain = LogLine.parse("no timestamp here");
+        assertNull(plain.getTimestamp());
+        assertEquals("no timestamp here", plain.getMessage());
+    }
+
+    @Test
+    @DisplayName("Run container delivers output and exit code")
+    void testRunContainer() {
+        RunContainerResponse response = client.runContainer("alpine:latest").exec();
+        assertEquals(0, response.getStatusCode());
+        assertTrue(response.getOutput().contains("log line 9"));
+        assertEquals(20, daemon.getContainerCount(), "Auto-removed container should be gone");
+    }
+
+    @Test
+    @DisplayName("Run container fails after its request timeout and removes the container")
+    void testRunContainerTimeout() throws Exception {
+        daemon.close();
+        client.close();
+        daemon = FakeDockerDaemon.builder().withContainerRunTime(5, TimeUnit.SECONDS).start();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).build();
+
+        long start = System.nanoTime();
+        assertThrows(DockerException.class,
+                () -> client.runContainer("alpine:latest").withAutoRemove(false).withRequestTimeout(Duration.ofMillis(300)).exec());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+        assertTrue(eventually(() -> daemon.getContainerCount() == 0), "The container should be removed");
+    }
+
+    @Test
+    @DisplayName("Pull progress stream completes")
+    void testPull() {
+        assertTrue(client.pullImage("alpine").withTag("3.19").exec(10, TimeUnit.SECONDS));
+        assertEquals(1, daemon.getRequestCount("POST", "/images/create"));
+    }
+
+    @Test
+    @DisplayName("Container registry follows events")
+    void testRegistry() throws Exception {
+        try (ContainerRegistry registry = new ContainerRegistry(client)) {
+            registry.start();
+            assertEquals(20, registry.size());
+
+            String id = client.createContainer("alpine:latest").withName("tracked").exec().getId();
+            assertTrue(eventually(() -> registry.getByName("tracked") != null));
+
+            client.removeContainer(id).withForce(true).exec();
+            assertTrue(eventually(() -> registry.get(id) == null));
+
+            long start = System.nanoTime();
+            registry.close();
+            assertTrue(eventually(() -> daemon.getEventSubscriberCount() == 0), "Closing ends the event stream");
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Container registry fails to start when containers cannot be listed")
+    void testRegistryStartFailure() throws Exception {
+        daemon.failRequests("GET", "/containers/json", 500);
+        try (ContainerRegistry registry = new ContainerRegistry(client)) {
+            assertThrows(DockerException.class, registry::start);
+            assertTrue(eventually(() -> daemon.getEventSubscriberCount() == 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent identical GETs are coalesced")
+    void testCoalescing() throws Exception {
+        daemon.close();
+        daemon = FakeDockerDaemon.builder().withContainers(50).withLatency(100, TimeUnit.MILLISECONDS).start();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).withRequestCoalescing(true).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(8);
+            List<Future<List<Container>>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return client.listContainers().withShowAll(true).exec();
+                }));
+            }
+            for (Future<List<Container>> result : results) {
+                assertEquals(50, result.get(10, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(daemon.getRequestCount("GET", "/containers/json") < 8);
+    }
+
+    @Test
+    @DisplayName("TCP transport keeps connections alive between requests")
+    void testTcpKeepAlive() throws Exception {
+        daemon.close();
+        client.close();
+        daemon = FakeDockerDaemon.builder().withTcp().withContainers(20).withChunkSize(256).start();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).withSocketBufferSizes(64 * 1024, 256 * 1024).build();
+
+        assertTrue(client.ping().exec());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(20, client.listContainers().withShowAll(true).exec().size());
+        }
+        String id = client.createContainer("alpine:latest").withName("tcp").exec().getId();
+        client.startContainer(id).exec();
+        assertEquals("/tcp", client.inspectContainer(id).exec().getName());
+        assertTrue(client.logs(id).exec().contains("log line 0 from tcp"));
+        client.removeContainer(id).withForce(true).exec();
+        assertEquals(1, daemon.getConnectionCount(), "Requests should share one kept-alive connection");
+
+        assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+        assertTrue(client.ping().exec());
+        assertEquals(2, daemon.getConnectionCount(), "A stream should take its connection out of the pool");
+    }
+
+    @Test
+    @DisplayName("Batch inspect pipelines its requests on one connection")
+    void testInspectContainersPipelined() {
+        List<String> ids = new ArrayList<>();
+        for (Container container : client.listContainers().withShowAll(true).exec()) {
+            ids.add(container.getId());
+        }
+        ids.add(10, "missing");
+
+        Map<String, ContainerInspect> containers = client.inspectContainers(ids).exec();
+        assertEquals(20, containers.size());
+        assertFalse(containers.containsKey("missing"));
+        ids.remove("missing");
+        assertEquals(ids, new ArrayList<>(containers.keySet()));
+        assertEquals(ids.get(3), containers.get(ids.get(3)).getId());
+        assertEquals(1, daemon.getConnectionCount());
+        assertEquals(22, daemon.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Batch inspect falls back to concurrent requests without pipelining support")
+    void testInspectContainersWithoutPipelining() throws Exception {
+        daemon.close();
+        client.close();
+        daemon = FakeDockerDaemon.builder().withTcp().withoutPipelining().withContainers(50).start();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        client = DockerClient.builder()
+                .withHost(daemon.getDockerHost())
+                .withInterceptor(new DockerInterceptor() {
+                    @Override
+                    public void onComplete(DockerExchange exchange, DockerResponse response) {
+                        completed.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(DockerExchange exchange, Throwable error) {
+                        failed.incrementAndGet();
+                    }
+                })
+                .build();
+
+        List<String> ids = new ArrayList<>();
+        for (Container container : client.listContainers().withShowAll(true).exec()) {
+            ids.add(container.getId());
+        }
+        for (int i = 0; i < 2; i++) {
+            Map<String, ContainerInspect> containers = client.inspectContainers(ids).withFields("Id", "Name").exec();
+            assertEquals(ids, new ArrayList<>(containers.keySet()));
+            assertEquals("/service-7", containers.get(ids.get(7)).getName());
+        }
+        assertEquals(0, failed.get(), "Requests sent again should not be reported as failed");
+        assertEquals(1 + 2 * ids.size(), completed.get());
+    }
+
+    @Test
+    @DisplayName("Batch inspect with a concurrency limit below the pipeline depth")
+    void testInspectContainersRateLimited() throws IOException {
+        client.close();
+        DockerRateLimiter limiter = DockerRateLimiter.builder()
+                .withMaxConcurrency(2)
+                .withMaxWait(2, TimeUnit.SECONDS)
+                .build();
+        client = DockerClient.builder().withHost(daemon.getDockerHost()).withRateLimiter(limiter).build();
+
+        List<String> ids = new ArrayList<>();
+        for (Container container : client.listContainers().withShowAll(true).exec()) {
+            ids.add(container.getId());
+        }
+        assertEquals(20, client.inspectContainers(ids).exec().size());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static boolean eventually(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.call()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.intisy.docker.unit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.github.intisy.docker.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ModelTypeAdapterFactory (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class ModelTypeAdapterFactoryTest {
+    private static final String CONTAINERS = "[{\"Id\":\"4f66ad9a0b2e\",\"Names\":[\"/web\"],\"Image\":\"nginx:1.25\","
+            + "\"ImageID\":\"sha256:a8758716bb6a\",\"Command\":\"nginx -g 'daemon off;'\",\"Created\":1700000000,"
+            + "\"Ports\":[{\"IP\":\"0.0.0.0\",\"PrivatePort\":80,\"PublicPort\":8080,\"Type\":\"tcp\"},{\"PrivatePort\":443,\"Type\":\"tcp\"}],"
+            + "\"Labels\":{\"app\":\"web\",\"tier\":\"frontend\"},\"State\":\"running\",\"Status\":\"Up 2 hours\","
+            + "\"HostConfig\":{\"NetworkMode\":\"bridge\",\"Annotations\":{\"x\":[1,2]}},"
+            + "\"NetworkSettings\":{\"Networks\":{\"bridge\":{\"IPAMConfig\":{\"IPv4Address\":\"172.17.0.9\"},\"Links\":null,"
+            + "\"Aliases\":[\"web\"],\"NetworkID\":\"7ea29fc1412b\",\"EndpointID\":\"2cdc4edb1ded\",\"Gateway\":\"172.17.0.1\","
+            + "\"IPAddress\":\"172.17.0.2\",\"IPPrefixLen\":16,\"MacAddress\":\"02:42:ac:11:00:02\",\"DriverOpts\":null}}},"
+            + "\"Mounts\":[{\"Type\":\"volume\",\"Name\":\"data\",\"Source\":\"/var/lib/docker/volumes/data/_data\","
+            + "\"Destination\":\"/data\",\"Driver\":\"local\",\"Mode\":\"z\",\"RW\":true,\"Propagation\":\"\"}],"
+            + "\"SizeRw\":null,\"Unknown\":{\"Nested\":[{\"Deep\":true}]}}, null]";
+
+    private static final String CONTAINER_INSPECT = "{\"Id\":\"4f66ad9a0b2e\",\"Created\":\"2024-03-14T09:26:53.589793238Z\","
+            + "\"Path\":\"nginx\",\"Args\":[\"-g\",\"daemon off;\"],\"State\":{\"Status\":\"running\",\"Running\":true,"
+            + "\"Paused\":false,\"OOMKilled\":false,\"Pid\":4242,\"ExitCode\":0,\"Health\":{\"Status\":\"healthy\"},"
+            + "\"StartedAt\":\"2024-03-14T09:26:54.123456789Z\"},\"Name\":\"/web\",\"RestartCount\":1,\"ExecIDs\":null,"
+            + "\"HostConfig\":{\"NetworkMode\":\"bridge\",\"Memory\":536870912,"
+            + "\"PortBindings\":{\"80/tcp\":[{\"HostIp\":\"\",\"HostPort\":\"8080\"}]}},"
+            + "\"Config\":{\"Hostname\":\"4f66ad9a0b2e\",\"Env\":[\"A=1\"],\"Labels\":{\"app\":\"web\"}},"
+            + "\"NetworkSettings\":{\"SandboxID\":\"9f1c\",\"Ports\":{\"443/tcp\":null,\"80/tcp\":[{\"HostIp\":\"0.0.0.0\",\"HostPort\":\"8080\"}]},"
+            + "\"SecondaryIPAddresses\":[{\"Addr\":\"10.0.0.2\"}],\"IPPrefixLen\":16,\"Networks\":{\"bridge\":{\"IPAddress\":\"172.17.0.2\"}}},"
+            + "\"Mounts\":[{\"Type\":\"bind\",\"Source\":\"/etc/app\",\"Destination\":\"/config\",\"RW\":false}],\"GraphDriver\":{\"Name\":\"overlay2\"}}";
+
+    private static final String IMAGES = "[{\"Id\":\"sha256:a8758716bb6a\",\"ParentId\":\"\",\"RepoTags\":[\"nginx:1.25\"],"
+            + "\"RepoDigests\":null,\"Created\":1700000000,\"Size\":187000000,\"SharedSize\":-1,\"Labels\":null,\"Containers\":2}]";
+
+    private static final String IMAGE_INSPECT = "{\"Id\":\"sha256:a8758716bb6a\",\"RepoTags\":[\"nginx:1.25\"],"
+            + "\"Created\":\"2024-03-01T12:00:00.123456789Z\",\"Config\":{\"User\":\"app\",\"ExposedPorts\":{\"80/tcp\":{}},"
+            + "\"Env\":[\"PATH=/usr/bin\"],\"Volumes\":null,\"Labels\":{\"maintainer\":\"nginx\"},\"Shell\":[\"/bin/sh\"]},"
+            + "\"Architecture\":\"amd64\",\"Os\":\"linux\",\"Size\":187000000,"
+            + "\"RootFS\":{\"Type\":\"layers\",\"Layers\":[\"sha256:1\",\"sha256:2\"]},"
+            + "\"Metadata\":{\"LastTagTime\":\"0001-01-01T00:00:00Z\"},\"GraphDriver\":{\"Data\":null}}";
+
+    private final Gson reflective = new Gson();
+    private final Gson adapters = new GsonBuilder().registerTypeAdapterFactory(new ModelTypeAdapterFactory()).create();
+
+    @Test
+    @DisplayName("Adapters bind the same values as reflection")
+    void testSameAsReflection() {
+        assertBindsSame(CONTAINERS, Container[].class);
+        assertBindsSame(CONTAINER_INSPECT, ContainerInspect.class);
+        assertBindsSame(IMAGES, Image[].class);
+        assertBindsSame(IMAGE_INSPECT, ImageInspect.class);
+    }
+
+    @Test
+    @DisplayName("Adapters skip unknown fields")
+    void testSkipUnknownFields() {
+        Container[] containers = adapters.fromJson(CONTAINERS, Container[].class);
+        assertEquals(2, containers.length);
+        assertNull(containers[1]);
+        assertEquals("bridge", containers[0].getHostConfig().getNetworkMode());
+        assertEquals(8080, containers[0].getPorts().get(0).getPublicPort());
+        assertEquals("172.17.0.2", containers[0].getNetworkSettings().getNetworks().get("bridge").getIpAddress());
+
+        ContainerInspect inspect = adapters.fromJson(CONTAINER_INSPECT, ContainerInspect.class);
+        assertEquals(4242, inspect.getState().getPid());
+        assertEquals(Long.valueOf(536870912L), inspect.getHostConfig().getMemory());
+        assertFalse(inspect.getMounts().get(0).getRw());
+    }
+
+    @Test
+    @DisplayName("Field projection binds only the selected fields")
+    void testFieldProjection() {
+        FieldProjection projection = FieldProjection.of("Id", "State", "Labels");
+        List<Container> containers = projection.readList(adapters, CONTAINERS, Container.class);
+        assertEquals(2, containers.size());
+        Container container = containers.get(0);
+        assertEquals("4f66ad9a0b2e", container.getId());
+        assertEquals("running", container.getState());
+        assertEquals("frontend", container.getLabels().get("tier"));
+        assertNull(container.getNames());
+        assertNull(container.getNetworkSettings());
+        assertNull(container.getMounts());
+
+        ContainerInspect inspect = FieldProjection.of("State").read(adapters, CONTAINER_INSPECT, ContainerInspect.class);
+        assertTrue(inspect.getState().getRunning());
+        assertNull(inspect.getId());
+        assertNull(inspect.getHostConfig());
+
+        Container full = FieldProjection.of("Id").readList(reflective, CONTAINERS, Container.class).get(0);
+        assertNotNull(full.getMounts());
+    }
+
+    @Test
+    @DisplayName("String pool deduplicates repeating values")
+    void testStringPool() {
+        ModelTypeAdapterFactory factory = new ModelTypeAdapterFactory();
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(factory).create();
+        String container = CONTAINERS.substring(1, CONTAINERS.lastIndexOf(", null]"));
+        String json = "[" + container + "," + container + "]";
+
+        Container[] plain = gson.fromJson(json, Container[].class);
+        assertNotSame(plain[0].getImage(), plain[1].getImage());
+
+        factory.setStringPool(new StringPool(100));
+        assertEquals(128, factory.getStringPool().capacity());
+        Container[] pooled = gson.fromJson(json, Container[].class);
+        assertSame(pooled[0].getImage(), pooled[1].getImage());
+        assertSame(pooled[0].getLabels().get("tier"), pooled[1].getLabels().get("tier"));
+        assertSame(pooled[0].getNetworkSettings().getNetworks().keySet().iterator().next(),
+                pooled[1].getNetworkSettings().getNetworks().keySet().iterator().next());
+        assertNotSame(pooled[0].getId(), pooled[1].getId());
+        assertEquals(reflective.toJson(plain), reflective.toJson(pooled));
+
+        Volume[] volumes = gson.fromJson("[{\"Name\":\"a\",\"Driver\":\"local\"},{\"Name\":\"b\",\"Driver\":\"local\"}]", Volume[].class);
+        assertSame(volumes[0].getDriver(), volumes[1].getDriver());
+    }
+
+    private void assertBindsSame(String json, Class<?> type) {
+        assertEquals(reflective.toJson(reflective.fromJson(json, type)), reflective.toJson(adapters.fromJson(json, type)));
+    }
+}
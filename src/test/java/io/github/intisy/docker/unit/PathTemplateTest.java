@@ -0,0 +1,53 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.transport.PathTemplate;
+import io.github.intisy.docker.transport.RequestPath;
+import org.junit.jupiter.api.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PathTemplate and RequestPath (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class PathTemplateTest {
+
+    @Test
+    @DisplayName("Expands parameters and keeps the template")
+    void testExpand() {
+        PathTemplate logs = PathTemplate.compile("/containers/{id}/logs");
+        RequestPath path = logs.expand("abc123").query("tail", 100).query("follow", false);
+
+        assertEquals("/containers/abc123/logs?tail=100&follow=false", path.toString());
+        assertEquals("/containers/{id}/logs", path.getTemplate());
+        assertEquals("/images/library/nginx:latest/json",
+                PathTemplate.compile("/images/{name}/json").expand("library/nginx:latest").toString());
+        assertEquals("/networks", PathTemplate.compile("/networks").expand().toString());
+        assertThrows(IllegalArgumentException.class, () -> logs.expand());
+        assertThrows(IllegalArgumentException.class, () -> PathTemplate.compile("/containers/{id"));
+    }
+
+    @Test
+    @DisplayName("Percent-encodes query parameters and skips null values")
+    void testQuery() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("filters", "{\"label\":[\"a=b c\"]}");
+        params.put("since", null);
+        RequestPath path = PathTemplate.compile("/containers/{id}/start").expand("a b?")
+                .query(params)
+                .query("detachKeys", "ctrl-p,ctrl-q")
+                .query("tail", (Integer) null)
+                .query("name", "café");
+
+        assertEquals("/containers/a%20b%3F/start"
+                + "?filters=%7B%22label%22%3A%5B%22a%3Db%20c%22%5D%7D"
+                + "&detachKeys=ctrl-p%2Cctrl-q&name=caf%C3%A9", path.toString());
+        assertEquals("/containers/{id}/start", path.getTemplate());
+        assertEquals("/containers/{id}/json", RequestPath.of("/containers/abc123/json").getTemplate());
+    }
+}
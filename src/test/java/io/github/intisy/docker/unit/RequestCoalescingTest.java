@@ -0,0 +1,152 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.Container;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for request coalescing and its response cache (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class RequestCoalescingTest {
+    private static final String LIST = "/containers/json";
+
+    private FakeDockerDaemon daemon;
+    private DockerClient client;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (client != null) {
+            client.close();
+        }
+        if (daemon != null) {
+            daemon.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Callers arriving while a request is in flight share its response")
+    void testSharedInFlightRequest() throws Exception {
+        start(FakeDockerDaemon.builder().withContainers(10).withLatency(300, TimeUnit.MILLISECONDS), 0);
+
+        Future<List<Container>> leader = executor.submit(() -> client.listContainers().withShowAll(true).exec());
+        assertTrue(eventually(() -> daemon.getRequestCount("GET", LIST) == 1));
+        List<Future<List<Container>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> client.listContainers().withShowAll(true).exec()));
+        }
+
+        assertEquals(10, leader.get(5, TimeUnit.SECONDS).size());
+        for (Future<List<Container>> follower : followers) {
+            assertEquals(10, follower.get(5, TimeUnit.SECONDS).size());
+        }
+        assertEquals(1, daemon.getRequestCount("GET", LIST));
+
+        client.listContainers().withShowAll(true).exec();
+        assertEquals(2, daemon.getRequestCount("GET", LIST), "Without a cache TTL, completed requests are not reused");
+    }
+
+    @Test
+    @DisplayName("A caller waits for a shared request only until its own deadline")
+    void testFollowerDeadline() throws Exception {
+        start(FakeDockerDaemon.builder().withContainers(10).withLatency(1000, TimeUnit.MILLISECONDS), 0);
+
+        Future<List<Container>> leader = executor.submit(() -> client.listContainers().withShowAll(true).exec());
+        assertTrue(eventually(() -> daemon.getRequestCount("GET", LIST) == 1));
+
+        long start = System.nanoTime();
+        DockerException e = assertThrows(DockerException.class,
+                () -> client.listContainers().withShowAll(true).withRequestTimeout(Duration.ofMillis(100)).exec());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(e.getCause() instanceof SocketTimeoutException);
+        assertTrue(elapsedMs < 600, "Follower should give up after about 100ms, took " + elapsedMs);
+
+        assertEquals(10, leader.get(5, TimeUnit.SECONDS).size());
+        assertEquals(1, daemon.getRequestCount("GET", LIST));
+    }
+
+    @Test
+    @DisplayName("Cached responses expire after the TTL")
+    void testCacheTtl() throws Exception {
+        start(FakeDockerDaemon.builder().withContainers(10), 200);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(10, client.listContainers().withShowAll(true).exec().size());
+        }
+        assertEquals(1, daemon.getRequestCount("GET", LIST));
+
+        Thread.sleep(300);
+        client.listContainers().withShowAll(true).exec();
+        assertEquals(2, daemon.getRequestCount("GET", LIST));
+    }
+
+    @Test
+    @DisplayName("A change of daemon state invalidates cached responses")
+    void testInvalidation() throws Exception {
+        start(FakeDockerDaemon.builder().withContainers(10), 60_000);
+
+        assertEquals(10, client.listContainers().withShowAll(true).exec().size());
+        String id = client.createContainer("alpine:latest").withName("fresh").exec().getId();
+        assertEquals(11, client.listContainers().withShowAll(true).exec().size());
+        assertEquals(2, daemon.getRequestCount("GET", LIST));
+
+        client.removeContainer(id).withForce(true).exec();
+        assertEquals(10, client.listContainers().withShowAll(true).exec().size());
+        assertEquals(3, daemon.getRequestCount("GET", LIST));
+    }
+
+    @Test
+    @DisplayName("A request in flight during a change of daemon state is neither joined nor cached")
+    void testInvalidationDuringRequest() throws Exception {
+        start(FakeDockerDaemon.builder().withContainers(10).withLatency(300, TimeUnit.MILLISECONDS), 60_000);
+
+        Future<List<Container>> stale = executor.submit(() -> client.listContainers().withShowAll(true).exec());
+        assertTrue(eventually(() -> daemon.getRequestCount("GET", LIST) == 1));
+        client.createContainer("alpine:latest").withName("fresh").exec();
+
+        assertEquals(11, client.listContainers().withShowAll(true).exec().size(), "Should not join the stale request");
+        stale.get(5, TimeUnit.SECONDS);
+        assertEquals(11, client.listContainers().withShowAll(true).exec().size(), "Should not cache the stale response");
+        assertEquals(2, daemon.getRequestCount("GET", LIST));
+    }
+
+    private void start(FakeDockerDaemon.Builder builder, long cacheTtlMs) throws IOException {
+        daemon = builder.start();
+        client = DockerClient.builder()
+                .withHost(daemon.getDockerHost())
+                .withRequestCoalescing(true)
+                .withCoalescingCacheTtl(cacheTtlMs)
+                .build();
+    }
+
+    private static boolean eventually(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.call()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
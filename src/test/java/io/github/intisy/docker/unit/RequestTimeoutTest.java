@@ -0,0 +1,80 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.model.Event;
+import io.github.intisy.docker.transport.StreamCallback;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for connect, read, request and stream idle timeouts (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class RequestTimeoutTest {
+
+    @Test
+    @DisplayName("A command timeout fails a slow request early")
+    void testCommandTimeout() throws IOException {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withLatency(500, TimeUnit.MILLISECONDS).start();
+             DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).build()) {
+            long start = System.nanoTime();
+            DockerException e = assertThrows(DockerException.class,
+                    () -> client.ping().withRequestTimeout(Duration.ofMillis(100)).execOrThrow());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+            assertTrue(elapsedMs < 400, "Ping should fail after about 100ms, took " + elapsedMs);
+        }
+    }
+
+    @Test
+    @DisplayName("A command timeout replaces the client read timeout")
+    void testLongWait() throws IOException {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainerRunTime(300, TimeUnit.MILLISECONDS).start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withReadTimeout(Duration.ofMillis(100))
+                     .build()) {
+            String first = client.createContainer("alpine").exec().getId();
+            client.startContainer(first).exec();
+            assertThrows(DockerException.class, () -> client.waitContainer(first).exec());
+
+            String second = client.createContainer("alpine").exec().getId();
+            client.startContainer(second).exec();
+            assertEquals(0, client.waitContainer(second).withRequestTimeout(Duration.ofSeconds(5)).exec().getStatusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("An idle stream fails after the stream idle timeout")
+    void testStreamIdleTimeout() throws IOException {
+        try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().start();
+             DockerClient client = DockerClient.builder()
+                     .withHost(daemon.getDockerHost())
+                     .withStreamIdleTimeout(Duration.ofMillis(100))
+                     .build()) {
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            client.events().exec(new StreamCallback<Event>() {
+                @Override
+                public void onNext(Event item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error.set(throwable);
+                }
+            });
+            assertTrue(error.get() instanceof SocketTimeoutException, "Expected idle timeout, got " + error.get());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.exception.DockerException;
+import io.github.intisy.docker.exception.NotModifiedException;
+import io.github.intisy.docker.transport.DockerExchange;
+import io.github.intisy.docker.transport.DockerInterceptor;
+import io.github.intisy.docker.transport.DockerRateLimiter;
+import io.github.intisy.docker.transport.DockerResponse;
+import io.github.intisy.docker.transport.RequestSlotTimeoutException;
+import io.github.intisy.docker.transport.RetryPolicy;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class RetryPolicyTest {
+
+    @Test
+    @DisplayName("Connection failures are retried for any request")
+    void testConnectFailure() throws IOException {
+        ScriptedDaemon daemon = new ScriptedDaemon(-1, -1, 201);
+        try (DockerClient client = client(daemon, RetryPolicy.builder())) {
+            assertNotNull(client.createContainer("alpine").exec());
+        }
+        assertEquals(3, daemon.requests.size());
+    }
+
+    @Test
+    @DisplayName("Overload responses are only retried for idempotent requests")
+    void testIdempotency() throws IOException {
+        ScriptedDaemon daemon = new ScriptedDaemon(503, 200, 503, 201);
+        try (DockerClient client = client(daemon, RetryPolicy.builder())) {
+            assertTrue(client.ping().exec());
+            assertThrows(DockerException.class, () -> client.createContainer("alpine").exec());
+        }
+        assertEquals(Arrays.asList("GET /_ping", "GET /_ping", "POST /containers/create"), daemon.requests);
+    }
+
+    @Test
+    @DisplayName("A retried stop that finds the container stopped succeeds")
+    void testAlreadyApplied() throws IOException {
+        ScriptedDaemon daemon = new ScriptedDaemon(503, 304, 304);
+        try (DockerClient client = client(daemon, RetryPolicy.builder())) {
+            client.stopContainer("abc").exec();
+            assertThrows(NotModifiedException.class, () -> client.stopContainer("abc").exec());
+        }
+    }
+
+    @Test
+    @DisplayName("An empty retry budget stops retries")
+    void testBudget() throws IOException {
+        ScriptedDaemon daemon = new ScriptedDaemon(-1, -1, -1, -1);
+        try (DockerClient client = client(daemon, RetryPolicy.builder().withRetryBudget(0.5, 0))) {
+            assertThrows(DockerException.class, () -> client.ping().execOrThrow());
+            assertThrows(DockerException.class, () -> client.ping().execOrThrow());
+        }
+        assertEquals(3, daemon.requests.size());
+    }
+
+    @Test
+    @DisplayName("Timeouts waiting for a rate limiter slot are not retried")
+    void testRequestSlotTimeout() throws Exception {
+        List<String> attempts = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (DockerClient client = DockerClient.builder()
+                .withHost("unix:///nonexistent/docker.sock")
+                .withInterceptor(new DockerInterceptor() {
+                    @Override
+                    public DockerResponse beforeSend(DockerExchange exchange) {
+                        attempts.add(exchange.getEndpoint());
+                        return null;
+                    }
+                })
+                .withRateLimiter(DockerRateLimiter.builder()
+                        .withMaxConcurrency(1)
+                        .withMaxWait(20, TimeUnit.MILLISECONDS)
+                        .build())
+                .withInterceptor(new DockerInterceptor() {
+                    @Override
+                    public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+                        holding.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                        return new DockerResponse(200, Collections.emptyMap(), "[]");
+                    }
+                })
+                .withRetryPolicy(RetryPolicy.builder().withBackoff(1, 5, TimeUnit.MILLISECONDS).build())
+                .build()) {
+            Thread holder = new Thread(() -> client.listContainers().exec());
+            holder.start();
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            DockerException e = assertThrows(DockerException.class, () -> client.ping().execOrThrow());
+            assertTrue(e.getCause() instanceof RequestSlotTimeoutException, String.valueOf(e.getCause()));
+            assertEquals(Arrays.asList("/containers/json", "/_ping"), attempts);
+
+            release.countDown();
+            holder.join(5000);
+        }
+    }
+
+    private static DockerClient client(ScriptedDaemon daemon, RetryPolicy.Builder policy) {
+        return DockerClient.builder()
+                .withHost("unix:///nonexistent/docker.sock")
+                .withInterceptor(daemon)
+                .withRetryPolicy(policy.withBackoff(1, 5, TimeUnit.MILLISECONDS).build())
+                .build();
+    }
+
+    /**
+     * Answers requests with scripted status codes; -1 fails the attempt with a connection error.
+     */
+    private static class ScriptedDaemon implements DockerInterceptor {
+        private final List<Integer> script;
+        private final List<String> requests = new ArrayList<>();
+
+        private ScriptedDaemon(Integer... script) {
+            this.script = new ArrayList<>(Arrays.asList(script));
+        }
+
+        @Override
+        public DockerResponse beforeSend(DockerExchange exchange) throws IOException {
+            requests.add(exchange.getMethod() + " " + exchange.getEndpoint());
+            int status = script.remove(0);
+            if (status < 0) {
+                throw new ConnectException("Connection refused");
+            }
+            return new DockerResponse(status, Collections.emptyMap(), status == 201 ? "{\"Id\":\"abc\"}" : "");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.transport.TlsConfig;
+import org.junit.jupiter.api.*;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TLS transport against a {@link FakeDockerDaemon} requiring client certificates.
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class TlsTransportTest {
+
+    private final AtomicInteger fullHandshakes = new AtomicInteger();
+    private Path certs;
+    private FakeDockerDaemon daemon;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        certs = Paths.get(TlsTransportTest.class.getResource("/tls/ca.pem").toURI()).getParent();
+        daemon = FakeDockerDaemon.builder().withTls(serverContext()).withContainers(20).start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        daemon.close();
+    }
+
+    @Test
+    @DisplayName("Requests over TLS share a connection and new connections resume the session")
+    void testSessionResumption() throws IOException {
+        try (DockerClient client = DockerClient.builder()
+                .withHost(daemon.getDockerHost().replace("127.0.0.1", "localhost"))
+                .withTls(TlsConfig.builder().withCertPath(certs).build())
+                .build()) {
+            assertTrue(client.ping().exec());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(20, client.listContainers().withShowAll(true).exec().size());
+            }
+            assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+            assertTrue(client.ping().exec());
+        }
+
+        assertEquals(2, daemon.getTlsSessions().size());
+        assertEquals(1, fullHandshakes.get(), "The second connection should resume the session");
+    }
+
+    @Test
+    @DisplayName("Daemon certificates are checked against the CA and host name")
+    void testVerification() throws IOException {
+        String address = daemon.getDockerHost();
+        try (DockerClient client = DockerClient.builder()
+                .withHost(address)
+                .withTls(TlsConfig.builder().withCertPath(certs).build())
+                .build()) {
+            assertFalse(client.ping().exec(), "The certificate is only valid for localhost");
+        }
+        try (DockerClient client = DockerClient.builder()
+                .withHost(address)
+                .withTls(TlsConfig.builder().withCertPath(certs).withHostnameVerification(false).build())
+                .build()) {
+            assertTrue(client.ping().exec());
+        }
+        try (DockerClient client = DockerClient.builder()
+                .withHost(daemon.getDockerHost().replace("127.0.0.1", "localhost"))
+                .withTls(TlsConfig.builder()
+                        .withClientCertificate(certs.resolve("cert.pem"), certs.resolve("key.pem"))
+                        .build())
+                .build()) {
+            assertFalse(client.ping().exec(), "The test CA is not trusted by default");
+        }
+    }
+
+    @Test
+    @DisplayName("PKCS#1, PKCS#8 and SEC1 private keys are read")
+    void testPrivateKeyFormats() {
+        for (String key : new String[]{"key.pem", "pkcs8-key.pem", "ec-key.pem"}) {
+            assertNotNull(TlsConfig.builder()
+                    .withClientCertificate(certs.resolve("cert.pem"), certs.resolve(key))
+                    .build());
+        }
+        assertThrows(IllegalArgumentException.class, () -> TlsConfig.builder()
+                .withClientCertificate(certs.resolve("cert.pem"), certs.resolve("ca.pem"))
+                .build());
+    }
+
+    private SSLContext serverContext() throws Exception {
+        char[] password = "changeit".toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(certs.resolve("server.p12"))) {
+            keyStore.load(in, password);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, password);
+        X509ExtendedKeyManager keyManager = (X509ExtendedKeyManager) keyManagers.getKeyManagers()[0];
+
+        KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        try (InputStream in = Files.newInputStream(certs.resolve("ca.pem"))) {
+            trustStore.setCertificateEntry("ca", CertificateFactory.getInstance("X.509").generateCertificate(in));
+        }
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(trustStore);
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(new KeyManager[]{new CountingKeyManager(keyManager)}, trustManagers.getTrustManagers(), null);
+        return context;
+    }
+
+    /**
+     * Counts full handshakes: a resumed session does not choose a server certificate.
+     */
+    private class CountingKeyManager extends X509ExtendedKeyManager {
+        private final X509ExtendedKeyManager delegate;
+
+        CountingKeyManager(X509ExtendedKeyManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+            String alias = delegate.chooseServerAlias(keyType, issuers, socket);
+            if (alias != null) {
+                fullHandshakes.incrementAndGet();
+            }
+            return alias;
+        }
+
+        @Override
+        public String[] getServerAliases(String keyType, Principal[] issuers) {
+            return delegate.getServerAliases(keyType, issuers);
+        }
+
+        @Override
+        public String[] getClientAliases(String keyType, Principal[] issuers) {
+            return delegate.getClientAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket) {
+            return delegate.chooseClientAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(String alias) {
+            return delegate.getCertificateChain(alias);
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String alias) {
+            return delegate.getPrivateKey(alias);
+        }
+    }
+}
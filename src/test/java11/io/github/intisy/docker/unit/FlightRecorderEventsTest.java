@@ -0,0 +1,81 @@
+package io.github.intisy.docker.unit;
+
+import io.github.intisy.docker.DockerClient;
+import io.github.intisy.docker.fixture.FakeDockerDaemon;
+import io.github.intisy.docker.jfr.DockerEvents;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Java Flight Recorder events of the Java 11 classes (no Docker daemon required).
+ *
+ * @author Finn Birich
+ */
+@Tag("unit")
+public class FlightRecorderEventsTest {
+    private static final String REQUEST = "io.github.intisy.docker.DockerRequest";
+    private static final String STREAM = "io.github.intisy.docker.DockerStream";
+    private static final String PULL = "io.github.intisy.docker.DockerPull";
+
+    @Test
+    @DisplayName("Requests and streams of opted-in clients are recorded")
+    void testEventsRecorded() throws IOException {
+        assertTrue(DockerEvents.isAvailable());
+        Path file = Files.createTempFile("docker-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(REQUEST).withThreshold(Duration.ZERO);
+            recording.enable(STREAM).withThreshold(Duration.ZERO);
+            recording.enable(PULL).withThreshold(Duration.ZERO);
+            recording.start();
+            try (FakeDockerDaemon daemon = FakeDockerDaemon.builder().withContainers(5).start()) {
+                try (DockerClient client = DockerClient.builder()
+                        .withHost(daemon.getDockerHost())
+                        .withFlightRecorderEvents(true)
+                        .build()) {
+                    assertEquals(5, client.listContainers().withShowAll(true).exec().size());
+                    assertTrue(client.pullImage("alpine").exec(10, TimeUnit.SECONDS));
+                }
+                try (DockerClient client = DockerClient.builder().withHost(daemon.getDockerHost()).build()) {
+                    client.listImages().exec();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        List<String> requests = endpoints(events, REQUEST);
+        assertTrue(requests.contains("/containers/json"), "Requests: " + requests);
+        assertFalse(requests.contains("/images/json"), "Clients without opt-in should not emit request events");
+        assertEquals(List.of("/images/create"), endpoints(events, STREAM));
+        assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals(PULL)).count());
+
+        RecordedEvent list = events.stream()
+                .filter(e -> e.getEventType().getName().equals(REQUEST) && "/containers/json".equals(e.getString("endpoint")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("GET", list.getString("method"));
+        assertEquals(200, list.getInt("statusCode"));
+        assertTrue(list.getLong("bytesReceived") > 0);
+    }
+
+    private static List<String> endpoints(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(type))
+                .map(e -> e.getString("endpoint"))
+                .collect(Collectors.toList());
+    }
+}